@@ -1,26 +1,67 @@
 package com.ved.finzenz.finzenz;
 
+import com.ved.finzenz.finzenz.security.AccessTokenFilter;
+import com.ved.finzenz.finzenz.security.AccessTokenService;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
+
 @Configuration
+@EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+    private static final String ADMIN = AccessTokenService.ROLE_ADMIN;
+
+    /**
+     * New hashes are written as "{bcrypt}" with the configured cost. Hashes without a prefix
+     * (stored before this encoder existed) still verify as plain BCrypt, and upgradeEncoding
+     * reports them, and any lower-cost BCrypt hash, as due for a rehash on the next login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${finzenz.security.bcrypt-strength:10}") int bcryptStrength) {
+        Map<String, PasswordEncoder> encoders = Map.of(BCRYPT_ID, new BCryptPasswordEncoder(bcryptStrength));
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(bcryptStrength));
+        return encoder;
     }
 
+    /**
+     * Stateless: each request authenticates with the bearer token issued at login, so no
+     * session (and no session affinity) is needed. Only register and login are open.
+     * Operational endpoints and the Spring Data REST repositories (everything outside /api)
+     * need the ADMIN role; per-user data is further limited to its owner with @PreAuthorize
+     * checks on the controllers (see OwnershipChecker).
+     */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AccessTokenService accessTokenService) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new AccessTokenFilter(accessTokenService), UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authorizeHttpRequests(auth -> auth
-                        .anyRequest().permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/users/register", "/api/users/login").permitAll()
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        .requestMatchers("/api/rollups/**", "/api/cache/stats", "/api/users/email-filter/stats").hasRole(ADMIN)
+                        .requestMatchers(HttpMethod.POST, "/api/fx/refresh").hasRole(ADMIN)
+                        .requestMatchers("/api/**").authenticated()
+                        .anyRequest().hasRole(ADMIN)
                 );
         return http.build();
     }
@@ -0,0 +1,199 @@
+package com.ved.finzenz.finzenz.alerts;
+
+import com.ved.finzenz.finzenz.dto.BudgetAlert;
+import com.ved.finzenz.finzenz.entities.Budget;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.BudgetRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Fires budget threshold alerts (50/80/100% by default) as spending is posted.
+ *
+ * Evaluation runs after the transaction commits, on a small dedicated pool, so the insert
+ * itself only pays for publishing an event and the pool can't take more than a few database
+ * connections. An evaluation reads committed totals rather than applying the event's amount,
+ * so an event whose (account, category, day) is already waiting to be evaluated is dropped:
+ * the queued evaluation starts after this commit and sees it. Budget windows are held per user in memory,
+ * indexed by category, and dropped whenever that user's budgets change; the most recently
+ * used users are kept, up to finzenz.budget-alerts.max-users.
+ *
+ * The highest threshold already sent is stored per budget and advanced by
+ * {@link BudgetThresholdTracker}, so two debits evaluated at the same time, or on two nodes,
+ * send each threshold once.
+ */
+@Slf4j
+@Component
+public class BudgetAlertEngine {
+
+    // Sizing for the account -> owner map relative to the user bound
+    private static final int ACCOUNTS_PER_USER = 4;
+
+    private record PendingKey(Long accountId, String category, LocalDate date) {
+    }
+
+    private final BudgetRepository budgetRepository;
+    private final AccountRepository accountRepository;
+    private final BudgetThresholdTracker thresholdTracker;
+    private final BudgetAlertPublisher publisher;
+    private final int[] thresholds;
+
+    // userId -> lower-cased category -> budget windows that haven't ended yet
+    private final Map<Long, Map<String, List<Budget>>> budgetIndex;
+    // Accounts never change owner, so this mapping is safe to keep
+    private final Map<Long, Long> accountOwners;
+    // Bumped by invalidate(); a load that raced an invalidation is used once but not cached
+    private final AtomicLong budgetGeneration = new AtomicLong();
+
+    private final ThreadPoolExecutor executor;
+    private final Set<PendingKey> pending = ConcurrentHashMap.newKeySet();
+
+    public BudgetAlertEngine(BudgetRepository budgetRepository,
+                             AccountRepository accountRepository,
+                             BudgetThresholdTracker thresholdTracker,
+                             BudgetAlertPublisher publisher,
+                             @Value("${finzenz.budget-alerts.thresholds:50,80,100}") int[] thresholds,
+                             @Value("${finzenz.budget-alerts.max-users:10000}") int maxUsers,
+                             @Value("${finzenz.budget-alerts.threads:2}") int threads,
+                             @Value("${finzenz.budget-alerts.queue-capacity:10000}") int queueCapacity) {
+        this.budgetRepository = budgetRepository;
+        this.accountRepository = accountRepository;
+        this.thresholdTracker = thresholdTracker;
+        this.publisher = publisher;
+        this.thresholds = Arrays.stream(thresholds).sorted().toArray();
+        this.budgetIndex = lru(maxUsers);
+        this.accountOwners = lru(maxUsers * ACCOUNTS_PER_USER);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "budget-alerts-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        if (event.getTransactionType() != Transaction.TransactionType.DEBIT || event.getCategory() == null) {
+            return;
+        }
+        PendingKey key = new PendingKey(event.getAccountId(), event.getCategory().toLowerCase(Locale.ROOT), event.getDate());
+        if (!pending.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                // Removed before reading totals: an event arriving from here on queues a fresh evaluation
+                pending.remove(key);
+                try {
+                    evaluate(event);
+                } catch (RuntimeException e) {
+                    log.warn("Budget alert evaluation failed for account {}: {}", event.getAccountId(), e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The next debit in this category evaluates the same totals and catches up
+            pending.remove(key);
+            log.warn("Budget alert queue full, skipped evaluation for account {}", event.getAccountId());
+        }
+    }
+
+    // Called by BudgetServiceImpl whenever a user's budgets are created, updated or deleted
+    public void invalidate(Integer userId) {
+        budgetGeneration.incrementAndGet();
+        budgetIndex.remove(userId.longValue());
+    }
+
+    private void evaluate(TransactionPostedEvent event) {
+        Long userId = accountOwners.get(event.getAccountId());
+        if (userId == null) {
+            userId = accountRepository.findUserIdByAccountId(event.getAccountId());
+            if (userId == null) {
+                return;
+            }
+            accountOwners.put(event.getAccountId(), userId);
+        }
+
+        List<Budget> windows = budgetsFor(userId).get(event.getCategory().toLowerCase(Locale.ROOT));
+        if (windows == null) {
+            return;
+        }
+
+        LocalDate date = event.getDate();
+        for (Budget budget : windows) {
+            if (date.isBefore(budget.getStartDate()) || date.isAfter(budget.getEndDate())) {
+                continue;
+            }
+            BudgetThresholdTracker.Evaluation evaluation = thresholdTracker.evaluate(userId, budget, thresholds);
+            if (evaluation.raised() > 0) {
+                publisher.publish(BudgetAlert.builder()
+                        .budgetId(budget.getId())
+                        .userId(userId)
+                        .category(budget.getCategory())
+                        .thresholdPercent(evaluation.raised())
+                        .budgetAmount(budget.getAmount())
+                        .spent(evaluation.spent())
+                        .percentUsed(evaluation.percentUsed())
+                        .startDate(budget.getStartDate())
+                        .endDate(budget.getEndDate())
+                        .triggeredAt(LocalDateTime.now())
+                        .build());
+            }
+        }
+    }
+
+    private Map<String, List<Budget>> budgetsFor(Long userId) {
+        Map<String, List<Budget>> windows = budgetIndex.get(userId);
+        if (windows == null) {
+            long generation = budgetGeneration.get();
+            LocalDate today = LocalDate.now();
+            windows = budgetRepository.findByUserId(userId.intValue()).stream()
+                    .filter(b -> !b.getEndDate().isBefore(today))
+                    .collect(Collectors.groupingBy(b -> b.getCategory().toLowerCase(Locale.ROOT)));
+            if (budgetGeneration.get() == generation) {
+                budgetIndex.put(userId, windows);
+            }
+        }
+        return windows;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static <K, V> Map<K, V> lru(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.ved.finzenz.finzenz.alerts;
+
+import com.ved.finzenz.finzenz.dto.BudgetAlert;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps the open Server-Sent Events connections per user and pushes alerts to them.
+ */
+@Slf4j
+@Component
+public class BudgetAlertPublisher {
+
+    private static final long EMITTER_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        List<SseEmitter> userEmitters = emitters.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        userEmitters.add(emitter);
+
+        Runnable remove = () -> userEmitters.remove(emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    public void publish(BudgetAlert alert) {
+        List<SseEmitter> userEmitters = emitters.get(alert.getUserId());
+        if (userEmitters == null || userEmitters.isEmpty()) {
+            log.debug("No subscribers for budget alert on budget {}", alert.getBudgetId());
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name("budget-alert").data(alert));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the completion callback may not have fired yet
+                userEmitters.remove(emitter);
+            }
+        }
+    }
+}
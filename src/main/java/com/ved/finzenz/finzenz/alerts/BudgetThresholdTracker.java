@@ -0,0 +1,58 @@
+package com.ved.finzenz.finzenz.alerts;
+
+import com.ved.finzenz.finzenz.entities.Budget;
+import com.ved.finzenz.finzenz.repository.BudgetRepository;
+import com.ved.finzenz.finzenz.service.SpendingRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Moves a budget's stored alert threshold (budget_alert_state) to the highest threshold its
+ * committed spending has reached. The row is locked before spending is read, so evaluations
+ * of one budget run one at a time and each sees every debit committed before it: a stale total
+ * can't lower a threshold another evaluation just raised and have it sent twice.
+ */
+@Component
+@RequiredArgsConstructor
+public class BudgetThresholdTracker {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final BudgetRepository budgetRepository;
+    private final SpendingRollupService spendingRollupService;
+
+    /**
+     * @param raised the threshold to alert on, or 0 when nothing new was reached
+     */
+    public record Evaluation(int raised, BigDecimal spent, BigDecimal percentUsed) {
+    }
+
+    @Transactional
+    public Evaluation evaluate(Long userId, Budget budget, int[] sortedThresholds) {
+        Integer notified = budgetRepository.findAlertThresholdForUpdate(budget.getId());
+        if (notified == null) {
+            budgetRepository.insertAlertState(budget.getId());
+            notified = budgetRepository.findAlertThresholdForUpdate(budget.getId());
+        }
+
+        BigDecimal spent = spendingRollupService.getSpending(
+                userId, budget.getCategory(), budget.getStartDate(), budget.getEndDate());
+        BigDecimal percent = spent.multiply(HUNDRED).divide(budget.getAmount(), 2, RoundingMode.HALF_UP);
+        // One alert per jump: if a single large debit goes from 40% to 110%, only 100% is reported
+        int reached = 0;
+        for (int threshold : sortedThresholds) {
+            if (percent.compareTo(BigDecimal.valueOf(threshold)) >= 0) {
+                reached = threshold;
+            }
+        }
+
+        if (reached != notified) {
+            budgetRepository.updateAlertThreshold(budget.getId(), reached);
+        }
+        return new Evaluation(reached > notified ? reached : 0, spent, percent);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ved.finzenz.finzenz.alerts;
+
+import com.ved.finzenz.finzenz.entities.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published wherever spending changes: TransactionServiceImpl (create, batch create, which
+ * statement imports go through, edit and delete), manual EMI payments and the recurring EMI job.
+ * Carries only the fields alert evaluation needs, so the entity isn't shared with the async listener.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionPostedEvent {
+    private final Long accountId;
+    private final Transaction.TransactionType transactionType;
+    private final String category;
+    private final BigDecimal amount;
+    private final LocalDate date;
+
+    // Bucket key for folding a batch into one event per (account, category, day)
+    private record Bucket(Long accountId, String category, LocalDate day) {
+    }
+
+    public static TransactionPostedEvent of(Transaction transaction) {
+        return new TransactionPostedEvent(
+                transaction.getAccountId(),
+                transaction.getTransactionType(),
+                transaction.getCategory(),
+                transaction.getAmount(),
+                transaction.getTransactionDate().toLocalDate());
+    }
+
+    /**
+     * One event per (account, category, day) of the batch's debits, with the amounts summed.
+     * Alerts only look at debits, and a 100k-row import shouldn't queue 100k evaluations.
+     */
+    public static List<TransactionPostedEvent> forBatch(Collection<Transaction> transactions) {
+        Map<Bucket, BigDecimal> amounts = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getTransactionType() != Transaction.TransactionType.DEBIT || transaction.getCategory() == null) {
+                continue;
+            }
+            Bucket bucket = new Bucket(transaction.getAccountId(), transaction.getCategory(),
+                    transaction.getTransactionDate().toLocalDate());
+            amounts.merge(bucket, transaction.getAmount(), BigDecimal::add);
+        }
+        List<TransactionPostedEvent> events = new ArrayList<>(amounts.size());
+        amounts.forEach((bucket, amount) -> events.add(new TransactionPostedEvent(
+                bucket.accountId(), Transaction.TransactionType.DEBIT, bucket.category(), amount, bucket.day())));
+        return events;
+    }
+}
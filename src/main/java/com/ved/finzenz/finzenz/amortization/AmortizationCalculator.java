@@ -0,0 +1,69 @@
+package com.ved.finzenz.finzenz.amortization;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Closed-form EMI and per-installment amortization math for fixed-rate recurring loans.
+ *
+ * Intermediate values carry {@link #PRECISION} significant digits; money is rounded to
+ * 2 decimals HALF_UP only where it is paid or reported. (1 + r)^n uses
+ * {@link BigDecimal#pow(int, MathContext)}, which squares-and-multiplies in O(log n) steps
+ * and rounds each step, instead of growing an exact result with thousands of digits.
+ */
+public final class AmortizationCalculator {
+
+    public static final MathContext PRECISION = MathContext.DECIMAL64;
+
+    private static final BigDecimal DAYS_PER_YEAR_PERCENT = BigDecimal.valueOf(365 * 100);
+
+    private AmortizationCalculator() {
+    }
+
+    // Interest rate per installment period from an annual percentage rate
+    public static BigDecimal periodRate(BigDecimal annualRatePercent, int intervalDays) {
+        return annualRatePercent
+                .multiply(BigDecimal.valueOf(intervalDays))
+                .divide(DAYS_PER_YEAR_PERCENT, PRECISION);
+    }
+
+    // EMI = P * r * (1+r)^n / ((1+r)^n - 1), or P / n at zero interest
+    public static BigDecimal emi(BigDecimal principal, BigDecimal periodRate, int installments) {
+        if (periodRate.signum() == 0) {
+            return principal.divide(BigDecimal.valueOf(installments), 2, RoundingMode.HALF_UP);
+        }
+        BigDecimal growth = BigDecimal.ONE.add(periodRate).pow(installments, PRECISION);
+        return principal
+                .multiply(periodRate, PRECISION)
+                .multiply(growth, PRECISION)
+                .divide(growth.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Splits each payment into interest on the running balance and principal. The last
+     * installment absorbs rounding so the balance ends at exactly zero.
+     */
+    public static AmortizationSchedule schedule(BigDecimal principal, BigDecimal periodRate,
+                                                BigDecimal emi, int installments) {
+        BigDecimal[] payment = new BigDecimal[installments];
+        BigDecimal[] principalPart = new BigDecimal[installments];
+        BigDecimal[] interestPart = new BigDecimal[installments];
+        BigDecimal[] balanceAfter = new BigDecimal[installments];
+
+        BigDecimal balance = principal.setScale(2, RoundingMode.HALF_UP);
+        for (int i = 0; i < installments; i++) {
+            BigDecimal interest = balance.multiply(periodRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principalPaid = i == installments - 1
+                    ? balance
+                    : emi.subtract(interest).min(balance).max(BigDecimal.ZERO);
+            balance = balance.subtract(principalPaid);
+
+            payment[i] = principalPaid.add(interest);
+            principalPart[i] = principalPaid;
+            interestPart[i] = interest;
+            balanceAfter[i] = balance;
+        }
+        return new AmortizationSchedule(payment, principalPart, interestPart, balanceAfter);
+    }
+}
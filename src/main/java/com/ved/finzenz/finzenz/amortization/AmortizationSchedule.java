@@ -0,0 +1,61 @@
+package com.ved.finzenz.finzenz.amortization;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable per-installment breakdown produced by {@link AmortizationCalculator}.
+ * Installment numbers are 1-based, matching Loan.completedInstallments.
+ */
+public final class AmortizationSchedule {
+
+    private final BigDecimal[] payment;
+    private final BigDecimal[] principal;
+    private final BigDecimal[] interest;
+    private final BigDecimal[] balanceAfter;
+    private final BigDecimal totalInterest;
+
+    AmortizationSchedule(BigDecimal[] payment, BigDecimal[] principal, BigDecimal[] interest, BigDecimal[] balanceAfter) {
+        this.payment = payment;
+        this.principal = principal;
+        this.interest = interest;
+        this.balanceAfter = balanceAfter;
+
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal value : interest) {
+            sum = sum.add(value);
+        }
+        this.totalInterest = sum;
+    }
+
+    public int size() {
+        return payment.length;
+    }
+
+    public BigDecimal payment(int installment) {
+        return payment[installment - 1];
+    }
+
+    public BigDecimal principal(int installment) {
+        return principal[installment - 1];
+    }
+
+    public BigDecimal interest(int installment) {
+        return interest[installment - 1];
+    }
+
+    public BigDecimal balanceAfter(int installment) {
+        return balanceAfter[installment - 1];
+    }
+
+    // Principal still owed once the given number of installments are paid
+    public BigDecimal outstandingAfter(int paidInstallments) {
+        if (paidInstallments <= 0) {
+            return size() == 0 ? BigDecimal.ZERO : balanceAfter[0].add(principal[0]);
+        }
+        return paidInstallments >= size() ? BigDecimal.ZERO : balanceAfter[paidInstallments - 1];
+    }
+
+    public BigDecimal totalInterest() {
+        return totalInterest;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ved.finzenz.finzenz.amortization;
+
+import com.ved.finzenz.finzenz.entities.Loan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of computed schedules by loan id. A schedule depends only on the loan's terms, not
+ * on how many installments are paid, so payments leave it in place; an entry whose terms no
+ * longer match the loan is recomputed on read. The cache is bounded by the total number of
+ * installments held rather than by entry count, since a daily loan's schedule can be hundreds
+ * of times the size of a monthly one.
+ */
+@Component
+public class AmortizationScheduleCache {
+
+    private record Terms(BigDecimal principal, BigDecimal interestRate, BigDecimal emi,
+                         Integer installments, Integer intervalDays) {
+        static Terms of(Loan loan) {
+            return new Terms(loan.getPrincipalAmount(), loan.getInterestRate(), loan.getEmiAmount(),
+                    loan.getTotalInstallments(), loan.getRecurringIntervalDays());
+        }
+    }
+
+    private record CachedSchedule(Terms terms, AmortizationSchedule schedule) {
+    }
+
+    private final long maxInstallments;
+    private final Map<Long, CachedSchedule> schedules = new LinkedHashMap<>(64, 0.75f, true);
+    private long installments;
+
+    public AmortizationScheduleCache(
+            @Value("${finzenz.amortization-cache.max-installments:200000}") long maxInstallments) {
+        this.maxInstallments = maxInstallments;
+    }
+
+    public AmortizationSchedule get(Loan loan) {
+        Terms terms = Terms.of(loan);
+        if (loan.getId() != null) {
+            synchronized (schedules) {
+                CachedSchedule cached = schedules.get(loan.getId());
+                if (cached != null && cached.terms().equals(terms)) {
+                    return cached.schedule();
+                }
+            }
+        }
+
+        // Computed outside the lock; two readers racing on a miss both compute, the last put wins
+        AmortizationSchedule computed = AmortizationCalculator.schedule(
+                loan.getPrincipalAmount(),
+                AmortizationCalculator.periodRate(loan.getInterestRate(), loan.getRecurringIntervalDays()),
+                loan.getEmiAmount(),
+                loan.getTotalInstallments());
+        if (loan.getId() != null && computed.size() <= maxInstallments) {
+            put(loan.getId(), new CachedSchedule(terms, computed));
+        }
+        return computed;
+    }
+
+    private void put(Long loanId, CachedSchedule entry) {
+        synchronized (schedules) {
+            CachedSchedule previous = schedules.put(loanId, entry);
+            if (previous != null) {
+                installments -= previous.schedule().size();
+            }
+            installments += entry.schedule().size();
+
+            Iterator<CachedSchedule> eldest = schedules.values().iterator();
+            while (installments > maxInstallments && eldest.hasNext()) {
+                installments -= eldest.next().schedule().size();
+                eldest.remove();
+            }
+        }
+    }
+}
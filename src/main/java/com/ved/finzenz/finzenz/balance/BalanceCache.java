@@ -0,0 +1,272 @@
+package com.ved.finzenz.finzenz.balance;
+
+import com.ved.finzenz.finzenz.dto.AccountBalance;
+import com.ved.finzenz.finzenz.entities.Account.CurrencyType;
+import com.ved.finzenz.finzenz.exceptions.AccountNotFoundException;
+import com.ved.finzenz.finzenz.fx.FxRateSnapshot;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user read model of account balances and net worth. Once a user is loaded, balance and
+ * net-worth reads are served from memory with no database round trip.
+ *
+ * Every service that changes a balance calls {@link #balanceChanged(Long)}; the user's entry
+ * is dropped when the surrounding transaction commits and reloaded on the next read. Each
+ * invalidation also bumps a write stamp, and a load whose stamp moved while it was reading
+ * is returned to the caller but not cached, so a read racing a commit can't pin a stale value.
+ * A periodic reconciliation compares every cached entry with the database.
+ *
+ * Invalidation is node-local: balanceChanged only evicts this JVM's entry. When several nodes
+ * run (e.g. the EMI job, which every node runs), a balance written on another node is served
+ * stale here until reconciliation catches it, i.e. for up to
+ * finzenz.balance-cache.reconcile-interval.
+ */
+@Slf4j
+@Component
+public class BalanceCache {
+
+    private static final int STAMP_STRIPES = 256;
+    private static final CurrencyType[] CURRENCIES = CurrencyType.values();
+
+    // currencyTotals[c] = sum of balances held in CurrencyType c (null when the user has none)
+    private record UserBalances(Map<Long, BigDecimal> accounts, BigDecimal netWorth, BigDecimal[] currencyTotals) {
+    }
+
+    private final AccountRepository accountRepository;
+    private final int maxUsers;
+
+    private final Map<Long, UserBalances> users;
+    private final Map<Long, Long> accountOwners = new ConcurrentHashMap<>();
+
+    // Writes to users we can map to a stripe bump that stripe; writes to unknown accounts bump the global stamp
+    private final AtomicLongArray userStamps = new AtomicLongArray(STAMP_STRIPES);
+    private final AtomicLong globalStamp = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reconcileMismatches = new LongAdder();
+
+    public BalanceCache(AccountRepository accountRepository,
+                        @Value("${finzenz.balance-cache.max-users:10000}") int maxUsers) {
+        this.accountRepository = accountRepository;
+        this.maxUsers = maxUsers;
+        this.users = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserBalances> eldest) {
+                if (size() <= BalanceCache.this.maxUsers) {
+                    return false;
+                }
+                eldest.getValue().accounts().keySet().forEach(accountOwners::remove);
+                return true;
+            }
+        });
+    }
+
+    public BigDecimal getAccountBalance(Long accountId) {
+        Long userId = accountOwners.get(accountId);
+        if (userId == null) {
+            userId = accountRepository.findUserIdByAccountId(accountId);
+        }
+        UserBalances balances = userId != null ? get(userId) : null;
+        if (balances == null || !balances.accounts().containsKey(accountId)) {
+            throw new AccountNotFoundException("Account with id: " + accountId + " not found");
+        }
+        return balances.accounts().get(accountId);
+    }
+
+    // Sum of all the user's account balances, ignoring currency; null when the user has no accounts
+    public BigDecimal getNetWorth(Long userId) {
+        return get(userId).netWorth();
+    }
+
+    /**
+     * Net worth in the base currency: balances are summed per currency when the user is loaded,
+     * so this is at most one multiply per currency held, however many accounts the user has.
+     */
+    public BigDecimal getNetWorth(Long userId, FxRateSnapshot rates, CurrencyType base) {
+        BigDecimal[] totals = get(userId).currencyTotals();
+        BigDecimal netWorth = BigDecimal.ZERO;
+        for (CurrencyType currency : CURRENCIES) {
+            BigDecimal total = totals[currency.ordinal()];
+            if (total != null) {
+                netWorth = netWorth.add(rates.convert(total, currency, base));
+            }
+        }
+        return netWorth.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Marks the account's balance as changed. Inside a transaction the owner's entry is evicted
+     * after commit (a rolled-back change leaves the cache alone); outside one, immediately.
+     */
+    public void balanceChanged(Long accountId) {
+        afterCommit(() -> {
+            Long userId = accountOwners.get(accountId);
+            if (userId == null) {
+                globalStamp.incrementAndGet();
+            } else {
+                evictUser(userId);
+            }
+        });
+    }
+
+    // For changes to the set of accounts a user owns (account opened or removed)
+    public void accountsChanged(Long userId) {
+        afterCommit(() -> evictUser(userId));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getReconcileMismatchCount() {
+        return reconcileMismatches.sum();
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    /**
+     * Re-reads the balances of every cached user in one query and evicts any entry that
+     * disagrees with the database.
+     */
+    @Scheduled(fixedDelayString = "${finzenz.balance-cache.reconcile-interval:PT5M}")
+    public void reconcile() {
+        Map<Long, UserBalances> snapshot;
+        synchronized (users) {
+            snapshot = new HashMap<>(users);
+        }
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Map<Long, BigDecimal>> actual = new HashMap<>();
+        for (List<Long> batch : partition(new ArrayList<>(snapshot.keySet()), 1000)) {
+            for (AccountBalance row : accountRepository.findBalancesByUserIds(batch)) {
+                actual.computeIfAbsent(row.getUserId(), id -> new HashMap<>()).put(row.getAccountId(), row.getBalance());
+            }
+        }
+
+        int mismatched = 0;
+        for (Map.Entry<Long, UserBalances> entry : snapshot.entrySet()) {
+            Map<Long, BigDecimal> dbBalances = actual.getOrDefault(entry.getKey(), Map.of());
+            if (!sameBalances(entry.getValue().accounts(), dbBalances)) {
+                // Also catches writes that committed after the snapshot; evicting is harmless then
+                evictUser(entry.getKey());
+                mismatched++;
+            }
+        }
+        if (mismatched > 0) {
+            reconcileMismatches.add(mismatched);
+            log.warn("Balance cache reconciliation evicted {} of {} users", mismatched, snapshot.size());
+        }
+    }
+
+    private UserBalances get(Long userId) {
+        UserBalances cached = users.get(userId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        long userStamp = userStamps.get(stripe(userId));
+        long global = globalStamp.get();
+        UserBalances loaded = load(userId);
+
+        synchronized (users) {
+            if (userStamps.get(stripe(userId)) == userStamp && globalStamp.get() == global) {
+                users.put(userId, loaded);
+                loaded.accounts().keySet().forEach(accountId -> accountOwners.put(accountId, userId));
+            }
+        }
+        return loaded;
+    }
+
+    private UserBalances load(Long userId) {
+        Map<Long, BigDecimal> accounts = new HashMap<>();
+        BigDecimal netWorth = null;
+        BigDecimal[] currencyTotals = new BigDecimal[CURRENCIES.length];
+        for (AccountBalance row : accountRepository.findBalancesByUserIds(List.of(userId))) {
+            accounts.put(row.getAccountId(), row.getBalance());
+            if (row.getBalance() != null) {
+                netWorth = netWorth == null ? row.getBalance() : netWorth.add(row.getBalance());
+                // Accounts without a currency are treated as INR, the app's home currency
+                int slot = (row.getCurrency() != null ? row.getCurrency() : CurrencyType.INR).ordinal();
+                currencyTotals[slot] = currencyTotals[slot] == null ? row.getBalance() : currencyTotals[slot].add(row.getBalance());
+            }
+        }
+        return new UserBalances(Collections.unmodifiableMap(accounts), netWorth, currencyTotals);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void evictUser(Long userId) {
+        synchronized (users) {
+            userStamps.incrementAndGet(stripe(userId));
+            users.remove(userId);
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (STAMP_STRIPES - 1);
+    }
+
+    private static boolean sameBalances(Map<Long, BigDecimal> cached, Map<Long, BigDecimal> db) {
+        if (!cached.keySet().equals(db.keySet())) {
+            return false;
+        }
+        for (Map.Entry<Long, BigDecimal> entry : cached.entrySet()) {
+            BigDecimal other = db.get(entry.getKey());
+            if (!Objects.equals(entry.getValue(), other)
+                    && (entry.getValue() == null || other == null || entry.getValue().compareTo(other) != 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            batches.add(items.subList(i, Math.min(i + size, items.size())));
+        }
+        return batches;
+    }
+}
@@ -6,11 +6,11 @@ import com.ved.finzenz.finzenz.service.AccountService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -21,6 +21,7 @@ public class AccountController {
     private final AccountService accountService;
 
     @PostMapping("/create")
+    @PreAuthorize("@ownership.isUser(#request.userId)")
     public ResponseEntity<AccountResponse> createAccount(@RequestBody AccountRequest request) {
         AccountResponse response = accountService.createAccount(request);
         return ResponseEntity.ok(response);
@@ -28,31 +29,37 @@ public class AccountController {
 
     //fixed
     @GetMapping("/user/{userId}")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<?> getAccountsByUser(@PathVariable Long userId) {
-        List<Account> accounts = accountService.getAllAccountsforUser(userId);
-        List<AccountResponse> responseList = accounts.stream().map(this::toResponse).collect(Collectors.toList());
+        List<AccountResponse> responseList = accountService.getAccountResponsesForUser(userId);
         return ResponseEntity.ok(responseList);
     }
 
     @GetMapping("/{accountId}")
+    @PreAuthorize("@ownership.ownsAccount(#accountId)")
     public ResponseEntity<?> getAccount(@PathVariable Long accountId) {
-        Account account = accountService.getAccountbyID(accountId);
-        return ResponseEntity.ok(toResponse(account));
+        return ResponseEntity.ok(accountService.getAccountResponse(accountId));
     }
 
     @GetMapping("/balance/{accountId}")
+    @PreAuthorize("@ownership.ownsAccount(#accountId)")
     public ResponseEntity<?> getBalance(@PathVariable Long accountId) {
         BigDecimal balance = accountService.getAccountBalance(accountId);
         return ResponseEntity.ok(balance);
     }
 
+    // Net worth of the user across all accounts, converted to the base currency (INR by default).
+    // Despite its name the path id is the user's id, so it is checked with isUser
     @GetMapping("/networth/{accountId}")
-    public ResponseEntity<?> getNetWorth(@PathVariable Long accountId) {
-        BigDecimal networth = accountService.getNetWorth(accountId);
+    @PreAuthorize("@ownership.isUser(#accountId)")
+    public ResponseEntity<?> getNetWorth(@PathVariable Long accountId,
+                                         @RequestParam(defaultValue = "INR") Account.CurrencyType base) {
+        BigDecimal networth = accountService.getNetWorth(accountId, base);
         return ResponseEntity.ok(networth);
     }
 
     @DeleteMapping("/{accountId}")
+    @PreAuthorize("@ownership.ownsAccount(#accountId)")
     public ResponseEntity<?> deleteAccount(@PathVariable Long accountId) {
         boolean delete = accountService.deleteAccount(accountId);
         if (delete) {
@@ -62,19 +69,4 @@ public class AccountController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Account not found");
         }
     }
-
-    private AccountResponse toResponse(Account account) {
-        AccountResponse response = new AccountResponse();
-        response.setId(account.getAccountId());
-        response.setAccountName(account.getAccountName());
-        response.setAccountType(account.getAccountType());
-        response.setInstitutionName(account.getInstitutionName());
-        response.setAccountNumber(account.getAccountNumber());
-        response.setBalance(account.getBalance());
-        response.setCurrency(account.getCurrency());
-        response.setIsActive(account.getIsActive());
-        response.setUserId(account.getUser().getId());
-        response.setUserEmail(account.getUser().getEmail());
-        return response;
-    }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.ved.finzenz.finzenz.controller;
 
+import com.ved.finzenz.finzenz.alerts.BudgetAlertPublisher;
+import com.ved.finzenz.finzenz.dto.BudgetRemainingResponse;
 import com.ved.finzenz.finzenz.dto.BudgetResponse;
 import com.ved.finzenz.finzenz.entities.Budget;
 import com.ved.finzenz.finzenz.request.BudgetRequest;
@@ -8,8 +10,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -20,8 +25,10 @@ import java.util.List;
 @RequestMapping("/api/budgets")
 public class BudgetController {
     private final BudgetServiceImpl budgetService;
+    private final BudgetAlertPublisher budgetAlertPublisher;
 
     @GetMapping("/user/{userId}")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<List<BudgetResponse>> getBudgetsByUser(@PathVariable Integer userId) {
         List<Budget> budgets = budgetService.getBudgetsByUserId(userId);
         List<BudgetResponse> responses = budgets.stream()
@@ -32,6 +39,7 @@ public class BudgetController {
     }
 
     @GetMapping("/user/{userId}/category/{category}")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<List<BudgetResponse>> getBudgetsByCategory(
             @PathVariable Integer userId,
             @PathVariable String category
@@ -45,6 +53,7 @@ public class BudgetController {
 
 
     @GetMapping("/remaining")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<BigDecimal> getRemainingBudget(
             @RequestParam Integer userId,
             @RequestParam String category,
@@ -54,7 +63,25 @@ public class BudgetController {
         return ResponseEntity.ok(remainingBudget);
     }
 
+    // Remaining amount for every category with an active budget on the date, in one call
+    @GetMapping("/user/{userId}/remaining")
+    @PreAuthorize("@ownership.isUser(#userId)")
+    public ResponseEntity<List<BudgetRemainingResponse>> getRemainingBudgets(
+            @PathVariable Integer userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        return ResponseEntity.ok(budgetService.getRemainingBudgets(userId, date));
+    }
+
+    // Server-Sent Events stream of threshold alerts ("budget-alert" events)
+    @GetMapping(value = "/user/{userId}/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("@ownership.isUser(#userId)")
+    public SseEmitter streamBudgetAlerts(@PathVariable Long userId) {
+        return budgetAlertPublisher.subscribe(userId);
+    }
+
     @PostMapping
+    @PreAuthorize("@ownership.isUser(#budgetRequest.userId)")
     public ResponseEntity<BudgetResponse> createBudget(@Valid @RequestBody BudgetRequest budgetRequest){
         Budget budget = Budget.builder()
                 .userId(budgetRequest.getUserId())
@@ -68,7 +95,8 @@ public class BudgetController {
         return ResponseEntity.status(HttpStatus.CREATED).body(new BudgetResponse(created));
     }
 
-    @PutMapping("/user/{userId}")
+    @PutMapping("/{id}")
+    @PreAuthorize("@ownership.ownsBudget(#id) and @ownership.isUser(#budgetRequest.userId)")
     public ResponseEntity<BudgetResponse> updateBudget(
             @PathVariable Integer id,
             @Valid @RequestBody BudgetRequest budgetRequest) {
@@ -86,7 +114,8 @@ public class BudgetController {
     }
 
     // DELETE
-    @DeleteMapping("/user/{userId}")
+    @DeleteMapping("/{id}")
+    @PreAuthorize("@ownership.ownsBudget(#id)")
     public ResponseEntity<Void> deleteBudget(@PathVariable Integer id) {
         budgetService.deleteBudget(id);
         return ResponseEntity.noContent().build();
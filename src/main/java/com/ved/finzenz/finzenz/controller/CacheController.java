@@ -0,0 +1,24 @@
+package com.ved.finzenz.finzenz.controller;
+
+import com.ved.finzenz.finzenz.dto.CacheRegionStats;
+import com.ved.finzenz.finzenz.service.CacheStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatisticsService.getRegionStats());
+    }
+}
@@ -0,0 +1,39 @@
+package com.ved.finzenz.finzenz.controller;
+
+import com.ved.finzenz.finzenz.dto.FxRatesResponse;
+import com.ved.finzenz.finzenz.fx.FxRateService;
+import com.ved.finzenz.finzenz.fx.FxRateSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/fx")
+@RequiredArgsConstructor
+public class FxController {
+
+    private final FxRateService fxRateService;
+
+    @GetMapping("/rates")
+    public ResponseEntity<FxRatesResponse> getRates() {
+        return ResponseEntity.ok(toResponse(fxRateService.getSnapshot()));
+    }
+
+    // Re-reads the rate file now instead of waiting for the scheduled refresh
+    @PostMapping("/refresh")
+    public ResponseEntity<FxRatesResponse> refreshRates() {
+        return ResponseEntity.ok(toResponse(fxRateService.refresh()));
+    }
+
+    private FxRatesResponse toResponse(FxRateSnapshot snapshot) {
+        return FxRatesResponse.builder()
+                .pivot(snapshot.getPivot())
+                .rates(snapshot.getRatesInPivot())
+                .source(snapshot.getSource())
+                .loadedAt(snapshot.getLoadedAt())
+                .build();
+    }
+}
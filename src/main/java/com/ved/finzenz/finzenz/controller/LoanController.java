@@ -10,6 +10,7 @@ import jakarta.validation.Valid;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -29,6 +30,7 @@ public class LoanController {
     // ------------------ LOAN ENDPOINTS ------------------
 
     @PostMapping
+    @PreAuthorize("@ownership.ownsAccount(#loanRequest.accountId)")
     public ResponseEntity<?> createLoanRecord(@Valid @RequestBody LoanRequest loanRequest) {
         try {
             if (loanRequest.getStartDate() != null && loanRequest.getEndDate() != null) {
@@ -54,7 +56,7 @@ public class LoanController {
 
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -63,16 +65,33 @@ public class LoanController {
     }
 
     @GetMapping("/{loanId}")
+    @PreAuthorize("@ownership.ownsLoan(#loanId)")
     public ResponseEntity<?> getLoanDetails(@PathVariable Long loanId) {
         try {
-            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
-                    .body(Map.of("message", "Please implement getLoanById method in service"));
+            return ResponseEntity.ok(loanService.getLoanById(loanId));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/{loanId}/schedule")
+    @PreAuthorize("@ownership.ownsLoan(#loanId)")
+    public ResponseEntity<?> getAmortizationSchedule(
+            @PathVariable Long loanId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(loanService.getAmortizationSchedule(loanId, page, size));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "An unexpected error occurred: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/user/{userId}/summary")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<?> getLoanSummarybyUser(@PathVariable Long userId) {
         try {
             return ResponseEntity.ok(loanService.getLoanSummaryByUser(userId));
@@ -83,6 +102,7 @@ public class LoanController {
     }
 
     @GetMapping("/account/{accountId}/summary")
+    @PreAuthorize("@ownership.ownsAccount(#accountId)")
     public ResponseEntity<?> getLoanSummary(@PathVariable Long accountId) {
         try {
             return ResponseEntity.ok(loanService.getLoanSummary(accountId));
@@ -93,6 +113,7 @@ public class LoanController {
     }
 
     @GetMapping("/user/{userId}/upcoming")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<?> getUpcomingEmis(@PathVariable Long userId) {
         try {
             return ResponseEntity.ok(loanService.getUpcomingEmis(userId));
@@ -102,7 +123,19 @@ public class LoanController {
         }
     }
 
+    @GetMapping("/user/{userId}/dashboard")
+    @PreAuthorize("@ownership.isUser(#userId)")
+    public ResponseEntity<?> getLoanDashboard(@PathVariable Long userId) {
+        try {
+            return ResponseEntity.ok(loanService.getLoanDashboard(userId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "An unexpected error occurred: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/emi/{loanId}/pay")
+    @PreAuthorize("@ownership.ownsLoan(#loanId)")
     public ResponseEntity<?> recordEmiPayment(@PathVariable Long loanId) {
         try {
             loanService.recordEmiPayment(loanId);
@@ -118,6 +151,7 @@ public class LoanController {
     }
 
     @GetMapping("/user/{userId}/overdue")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<?> getOverdueLoans(@PathVariable Long userId) {
         try {
             return ResponseEntity.ok(loanService.getOverdueLoans(userId));
@@ -128,6 +162,7 @@ public class LoanController {
     }
 
     @GetMapping("/user/{userId}/total-outstanding")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<?> getTotalOutstanding(@PathVariable Long userId) {
         try {
             BigDecimal totalOutstanding = loanService.getTotalOutstanding(userId);
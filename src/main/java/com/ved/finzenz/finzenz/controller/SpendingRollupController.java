@@ -0,0 +1,36 @@
+package com.ved.finzenz.finzenz.controller;
+
+import com.ved.finzenz.finzenz.dto.RollupDiscrepancy;
+import com.ved.finzenz.finzenz.service.SpendingRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rollups")
+@RequiredArgsConstructor
+public class SpendingRollupController {
+
+    private final SpendingRollupService spendingRollupService;
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuildAll() {
+        int buckets = spendingRollupService.rebuildAll();
+        return ResponseEntity.ok(Map.of("buckets", buckets));
+    }
+
+    @PostMapping("/user/{userId}/rebuild")
+    public ResponseEntity<?> rebuildForUser(@PathVariable Long userId) {
+        int buckets = spendingRollupService.rebuildForUser(userId);
+        return ResponseEntity.ok(Map.of("userId", userId, "buckets", buckets));
+    }
+
+    // Empty list means the rollup matches the raw transactions
+    @GetMapping("/user/{userId}/consistency")
+    public ResponseEntity<List<RollupDiscrepancy>> checkConsistency(@PathVariable Long userId) {
+        return ResponseEntity.ok(spendingRollupService.checkConsistency(userId));
+    }
+}
@@ -0,0 +1,45 @@
+package com.ved.finzenz.finzenz.controller;
+
+import com.ved.finzenz.finzenz.dto.ImportProgressResponse;
+import com.ved.finzenz.finzenz.importer.ImportJob;
+import com.ved.finzenz.finzenz.importer.StatementFormat;
+import com.ved.finzenz.finzenz.service.StatementImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+public class StatementImportController {
+
+    private final StatementImportService statementImportService;
+
+    // Upload a CSV/OFX statement; the import runs in the background and is polled via GET /api/imports/{jobId}
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("@ownership.ownsAccount(#accountId)")
+    public ResponseEntity<ImportProgressResponse> startImport(
+            @RequestParam("accountId") Long accountId,
+            @RequestParam(value = "format", required = false) StatementFormat format,
+            @RequestParam("file") MultipartFile file) {
+
+        ImportJob job = statementImportService.startImport(accountId, format, file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ImportProgressResponse(job));
+    }
+
+    @GetMapping("/{jobId}")
+    @PreAuthorize("@ownership.ownsImport(#jobId)")
+    public ResponseEntity<?> getImportProgress(@PathVariable String jobId) {
+        ImportJob job = statementImportService.getImport(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Import job not found: " + jobId));
+        }
+        return ResponseEntity.ok(new ImportProgressResponse(job));
+    }
+}
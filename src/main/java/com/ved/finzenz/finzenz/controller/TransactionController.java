@@ -2,9 +2,15 @@ package com.ved.finzenz.finzenz.controller;
 
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ved.finzenz.finzenz.dto.LoanSummaryDto;
+import com.ved.finzenz.finzenz.dto.TransactionBatchResponse;
+import com.ved.finzenz.finzenz.dto.TransactionPageResponse;
 import com.ved.finzenz.finzenz.dto.TransactionResponse;
+import com.ved.finzenz.finzenz.dto.TransactionSummaryResponse;
 import com.ved.finzenz.finzenz.entities.Loan;
+import com.ved.finzenz.finzenz.export.ExportFormat;
+import com.ved.finzenz.finzenz.export.TransactionExportWriter;
 import com.ved.finzenz.finzenz.entities.Transaction;
 import com.ved.finzenz.finzenz.request.LoanRequest;
 import com.ved.finzenz.finzenz.request.TransactionRequest;
@@ -12,20 +18,26 @@ import com.ved.finzenz.finzenz.service.LoanService;
 import com.ved.finzenz.finzenz.service.TransactionService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -34,50 +46,100 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final LoanService loanService;
+    private final ObjectMapper objectMapper;
+
+    private static final int MAX_BATCH_SIZE = 10_000;
 
     // ---------------- Create Transaction ----------------
     @PostMapping
+    @PreAuthorize("@ownership.ownsAccount(#request.accountId)")
     public ResponseEntity<TransactionResponse> createTransaction(@Valid @RequestBody TransactionRequest request) {
-        Transaction transaction = new Transaction();
-        transaction.setAccountId(request.getAccountId());
-        transaction.setAmount(request.getAmount());
-        transaction.setTransactionDate(request.getTransactionDate() != null ? request.getTransactionDate() : LocalDateTime.now());
-        transaction.setDescription(request.getDescription());
-        transaction.setTransactionType(request.getTransactionType());
-        transaction.setCategory(request.getCategory());
-
-        Transaction created = transactionService.createTransaction(transaction);
+        Transaction created = transactionService.createTransaction(toTransaction(request));
         return ResponseEntity.status(201).body(new TransactionResponse(created));
     }
 
+    // ---------------- Bulk Create Transactions ----------------
+    @PostMapping("/batch")
+    @PreAuthorize("@ownership.ownsAccounts(#requests.![accountId])")
+    public ResponseEntity<TransactionBatchResponse> createTransactions(
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<@Valid TransactionRequest> requests) {
+        List<Transaction> transactions = requests.stream()
+                .map(this::toTransaction)
+                .toList();
+
+        TransactionBatchResponse created = transactionService.createTransactions(transactions);
+        return ResponseEntity.status(201).body(created);
+    }
+
     // ---------------- Get Transactions for a User ----------------
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<TransactionResponse>> getTransactionsByUserId(@PathVariable Integer userId) {
-        List<TransactionResponse> responses = transactionService.getTransactionsByUserId(userId)
-                .stream()
-                .map(TransactionResponse::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    @PreAuthorize("@ownership.isUser(#userId)")
+    public ResponseEntity<TransactionPageResponse> getTransactionsByUserId(
+            @PathVariable Integer userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        TransactionPageResponse page = transactionService.getTransactionsPageByUserId(userId, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    // Same listing as newline-delimited JSON, written row by row as it is read from the database
+    @GetMapping(value = "/user/{userId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("@ownership.isUser(#userId)")
+    public ResponseEntity<StreamingResponseBody> streamTransactionsByUserId(@PathVariable Integer userId) {
+        StreamingResponseBody body = out -> transactionService.streamTransactionsByUserId(userId, transaction -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(new TransactionResponse(transaction)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // ---------------- Export Transactions for a User ----------------
+    // Streams gzip-compressed CSV or columnar rows straight from a database cursor; runs off the servlet thread
+    @GetMapping("/user/{userId}/export")
+    @PreAuthorize("@ownership.isUser(#userId)")
+    public ResponseEntity<StreamingResponseBody> exportTransactionsByUserId(
+            @PathVariable Integer userId,
+            @RequestParam(value = "format", defaultValue = "CSV") ExportFormat format) {
+
+        StreamingResponseBody body = out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+            TransactionExportWriter writer = TransactionExportWriter.create(format, gzip);
+            transactionService.streamTransactionsByUserId(userId, transaction -> {
+                try {
+                    writer.write(transaction);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+            gzip.finish();
+        };
+
+        String fileName = "transactions-" + userId + format.getFileExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
     }
 
     // ---------------- Update Transaction ----------------
     @PutMapping("/{id}")
+    @PreAuthorize("@ownership.ownsTransaction(#id) and @ownership.ownsAccount(#request.accountId)")
     public ResponseEntity<TransactionResponse> updateTransaction(@PathVariable Integer id,
                                                                  @Valid @RequestBody TransactionRequest request) {
-        Transaction transaction = new Transaction();
-        transaction.setAccountId(request.getAccountId());
-        transaction.setAmount(request.getAmount());
-        transaction.setTransactionDate(request.getTransactionDate() != null ? request.getTransactionDate() : LocalDateTime.now());
-        transaction.setDescription(request.getDescription());
-        transaction.setTransactionType(request.getTransactionType());
-        transaction.setCategory(request.getCategory());
-
-        Transaction updated = transactionService.updateTransaction(id, transaction);
+        Transaction updated = transactionService.updateTransaction(id, toTransaction(request));
         return ResponseEntity.ok(new TransactionResponse(updated));
     }
 
     // ---------------- Delete Transaction ----------------
     @DeleteMapping("/{id}")
+    @PreAuthorize("@ownership.ownsTransaction(#id)")
     public ResponseEntity<Void> deleteTransaction(@PathVariable Integer id) {
         transactionService.deleteTransaction(id);
         return ResponseEntity.noContent().build();
@@ -85,14 +147,15 @@ public class TransactionController {
 
 
     @GetMapping("/user/{userId}/date-range")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<List<TransactionResponse>> getTransactionsByUserIdAndDateRange(
             @PathVariable Integer userId,
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        // Convert LocalDate to LocalDateTime at start and end of day
+        // Convert LocalDate to [start of startDate, start of the day after endDate)
         LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
+        LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
 
         List<TransactionResponse> responses = transactionService
                 .getTransactionsByUserIdAndDateRange(userId, startDateTime, endDateTime)
@@ -104,6 +167,7 @@ public class TransactionController {
     }
 
     @GetMapping("/user/{userId}/spending")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<BigDecimal> getTotalSpendingByCategoryForUser(
             @PathVariable Integer userId,
             @RequestParam("category") String category) {
@@ -113,24 +177,36 @@ public class TransactionController {
     }
 
     @GetMapping("/user/{userId}/income")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<BigDecimal> getTotalIncomeForUser(@PathVariable Integer userId) {
         BigDecimal totalIncome = transactionService.getTotalIncomeForUser(userId);
         return ResponseEntity.ok(totalIncome);
     }
 
     @GetMapping("/user/{userId}/expense")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<BigDecimal> getTotalExpenseForUser(@PathVariable Integer userId) {
         BigDecimal totalExpense = transactionService.getTotalExpenseForUser(userId);
         return ResponseEntity.ok(totalExpense);
     }
 
+    @GetMapping("/user/{userId}/summary")
+    @PreAuthorize("@ownership.isUser(#userId)")
+    public ResponseEntity<TransactionSummaryResponse> getTransactionSummaryForUser(@PathVariable Integer userId) {
+        TransactionSummaryResponse summary = transactionService.getTransactionSummaryForUser(userId);
+        return ResponseEntity.ok(summary);
+    }
+
     @GetMapping("/user/{userId}/search")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<List<TransactionResponse>> searchTransactionsByDescriptionForUser(
             @PathVariable Integer userId,
-            @RequestParam("keyword") String keyword) {
+            @RequestParam("keyword") String keyword,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
 
         List<TransactionResponse> responses = transactionService
-                .searchTransactionsByDescriptionForUser(userId, keyword)
+                .searchTransactionsByDescriptionForUser(userId, keyword, page, size)
                 .stream()
                 .map(TransactionResponse::new)
                 .collect(Collectors.toList());
@@ -139,6 +215,7 @@ public class TransactionController {
     }
 
     @GetMapping("/user/{userId}/monthly")
+    @PreAuthorize("@ownership.isUser(#userId)")
     public ResponseEntity<List<TransactionResponse>> getUserMonthlyTransactions (
             @PathVariable Integer userId,
             @RequestParam("month") int month,
@@ -154,9 +231,14 @@ public class TransactionController {
 
     }
 
-
-
-
-
-
+    private Transaction toTransaction(TransactionRequest request) {
+        Transaction transaction = new Transaction();
+        transaction.setAccountId(request.getAccountId());
+        transaction.setAmount(request.getAmount());
+        transaction.setTransactionDate(request.getTransactionDate() != null ? request.getTransactionDate() : LocalDateTime.now());
+        transaction.setDescription(request.getDescription());
+        transaction.setTransactionType(request.getTransactionType());
+        transaction.setCategory(request.getCategory());
+        return transaction;
+    }
 }
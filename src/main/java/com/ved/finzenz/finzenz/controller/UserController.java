@@ -1,13 +1,18 @@
 package com.ved.finzenz.finzenz.controller;
+import com.ved.finzenz.finzenz.dto.EmailFilterStats;
+import com.ved.finzenz.finzenz.dto.LoginResponse;
 import com.ved.finzenz.finzenz.dto.UserResponseDTO;
 import com.ved.finzenz.finzenz.request.LoginRequest;
 import com.ved.finzenz.finzenz.entities.User;
 import com.ved.finzenz.finzenz.request.RegisterRequest;
+import com.ved.finzenz.finzenz.security.AccessTokenService;
 import com.ved.finzenz.finzenz.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
@@ -15,6 +20,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AccessTokenService accessTokenService;
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
             User savedUser = userService.registerUser(request);
@@ -22,11 +30,20 @@ public class UserController {
     }
 
 
+    // Async: the request thread is released while the password is verified on the login pool
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-            User user = userService.loginUser(loginRequest.getEmail(), loginRequest.getPassword());
-            return ResponseEntity.ok(new UserResponseDTO(user));
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
+            return userService.loginUserAsync(loginRequest.getEmail(), loginRequest.getPassword())
+                    .thenApply(user -> {
+                        AccessTokenService.IssuedToken token = accessTokenService.issue(user);
+                        return ResponseEntity.ok(new LoginResponse(token.token(), "Bearer", token.expiresAt(),
+                                new UserResponseDTO(user)));
+                    });
     }
 
-
+    // Registration email filter: size, estimated false-positive rate and hit counters
+    @GetMapping("/email-filter/stats")
+    public ResponseEntity<EmailFilterStats> getEmailFilterStats() {
+        return ResponseEntity.ok(userService.getEmailFilterStats());
+    }
 }
@@ -0,0 +1,13 @@
+package com.ved.finzenz.finzenz.dto;
+
+import com.ved.finzenz.finzenz.entities.Account;
+
+import java.math.BigDecimal;
+
+// Projection of one account's balance, used to (re)load the balance cache
+public interface AccountBalance {
+    Long getUserId();
+    Long getAccountId();
+    BigDecimal getBalance();
+    Account.CurrencyType getCurrency();
+}
@@ -0,0 +1,19 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class AmortizationEntry {
+    private int installmentNumber;
+    private LocalDate dueDate;
+    private BigDecimal payment;
+    private BigDecimal principal;
+    private BigDecimal interest;
+    private BigDecimal balance;
+    private boolean paid;
+}
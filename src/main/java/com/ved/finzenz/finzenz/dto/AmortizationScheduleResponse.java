@@ -0,0 +1,21 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class AmortizationScheduleResponse {
+    private Long loanId;
+    private BigDecimal emiAmount;
+    private int totalInstallments;
+    private int completedInstallments;
+    private BigDecimal totalInterest;
+    private BigDecimal outstandingPrincipal;
+    private int page;
+    private int size;
+    private List<AmortizationEntry> installments;
+}
@@ -0,0 +1,27 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetAlert {
+    private Integer budgetId;
+    private Long userId;
+    private String category;
+    private int thresholdPercent;   // the threshold that was crossed, e.g. 80
+    private BigDecimal budgetAmount;
+    private BigDecimal spent;
+    private BigDecimal percentUsed;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDateTime triggeredAt;
+}
@@ -0,0 +1,17 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BudgetRemainingResponse {
+    private String category;
+    private BigDecimal budgeted;  // sum of active budgets for the category
+    private BigDecimal spent;     // spending inside each budget's window
+    private BigDecimal remaining;
+}
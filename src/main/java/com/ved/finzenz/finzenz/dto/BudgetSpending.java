@@ -0,0 +1,11 @@
+package com.ved.finzenz.finzenz.dto;
+
+import java.math.BigDecimal;
+
+// Projection: one active budget and the spending inside its own start/end window
+public interface BudgetSpending {
+    Integer getBudgetId();
+    String getCategory();
+    BigDecimal getAmount();
+    BigDecimal getSpent();
+}
@@ -0,0 +1,16 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CacheRegionStats {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private double hitRatio;
+    // -1 when the provider doesn't report it
+    private long elementCount;
+}
@@ -0,0 +1,9 @@
+package com.ved.finzenz.finzenz.dto;
+
+import java.math.BigDecimal;
+
+// Projection for SUM(amount) grouped by category
+public interface CategoryTotal {
+    String getCategory();
+    BigDecimal getTotal();
+}
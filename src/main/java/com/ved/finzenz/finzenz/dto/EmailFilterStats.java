@@ -0,0 +1,27 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EmailFilterStats {
+    // false until the startup warm-up finishes; every check goes to the database until then
+    private boolean ready;
+    private long bitCount;
+    private int hashFunctions;
+    private long sizeBytes;
+    private long insertions;
+    private double configuredFalsePositiveRate;
+    // From the current fill ratio; grows past the configured rate once insertions exceed expected-emails
+    private double estimatedFalsePositiveRate;
+    private long checks;
+    // "definitely not registered": the existsByEmail query was skipped
+    private long definiteNegatives;
+    private long maybePositives;
+    // maybe-positives the database then reported as not registered
+    private long falsePositives;
+    // filter said absent but the unique constraint rejected the insert (e.g. registered on another node)
+    private long constraintRejections;
+    private long lastRebuildMillis;
+}
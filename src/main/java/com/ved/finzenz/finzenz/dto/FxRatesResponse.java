@@ -0,0 +1,18 @@
+package com.ved.finzenz.finzenz.dto;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+public class FxRatesResponse {
+    private Account.CurrencyType pivot;
+    private Map<Account.CurrencyType, BigDecimal> rates;
+    private String source;
+    private Instant loadedAt;
+}
@@ -0,0 +1,46 @@
+package com.ved.finzenz.finzenz.dto;
+
+import com.ved.finzenz.finzenz.importer.ImportJob;
+import com.ved.finzenz.finzenz.importer.StatementFormat;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class ImportProgressResponse {
+    private String jobId;
+    private Long accountId;
+    private StatementFormat format;
+    private String fileName;
+    private ImportJob.Status status;
+    private double percentComplete;
+    private long bytesRead;
+    private long totalBytes;
+    private long rowsParsed;
+    private long rowsImported;
+    private long duplicatesSkipped;
+    private long rowsRejected;
+    private double rowsPerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    public ImportProgressResponse(ImportJob job) {
+        this.jobId = job.getId();
+        this.accountId = job.getAccountId();
+        this.format = job.getFormat();
+        this.fileName = job.getFileName();
+        this.status = job.getStatus();
+        this.percentComplete = job.getPercentComplete();
+        this.bytesRead = job.getBytesRead().get();
+        this.totalBytes = job.getTotalBytes();
+        this.rowsParsed = job.getRowsParsed().get();
+        this.rowsImported = job.getRowsImported().get();
+        this.duplicatesSkipped = job.getDuplicatesSkipped().get();
+        this.rowsRejected = job.getRowsRejected().get();
+        this.rowsPerSecond = job.getRowsPerSecond();
+        this.startedAt = job.getStartedAt();
+        this.finishedAt = job.getFinishedAt();
+        this.error = job.getError();
+    }
+}
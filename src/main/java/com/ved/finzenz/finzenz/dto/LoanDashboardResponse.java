@@ -0,0 +1,17 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class LoanDashboardResponse {
+    private Long userId;
+    private int activeLoans;
+    private List<UpcomingEmiDto> upcoming;
+    private List<UpcomingEmiDto> overdue;
+    private BigDecimal totalOutstanding;
+}
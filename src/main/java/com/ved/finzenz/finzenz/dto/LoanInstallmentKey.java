@@ -0,0 +1,7 @@
+package com.ved.finzenz.finzenz.dto;
+
+// Projection for the (loan, installment) idempotency key of an EMI transaction
+public interface LoanInstallmentKey {
+    Long getLoanId();
+    Integer getInstallmentNumber();
+}
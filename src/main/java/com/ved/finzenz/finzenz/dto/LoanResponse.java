@@ -1,15 +1,17 @@
 package com.ved.finzenz.finzenz.dto;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 
 @Getter
 @Setter
+@Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class LoanResponse {
@@ -21,7 +23,7 @@ public class LoanResponse {
     private BigDecimal emiAmount;
     private Integer recurringDays;
     private BigDecimal remainingBalance;
-    private LocalDateTime startDate;
-    private LocalDateTime nextPaymentDate;
+    private LocalDate startDate;
+    private LocalDate nextPaymentDate;
     private boolean active;
 }
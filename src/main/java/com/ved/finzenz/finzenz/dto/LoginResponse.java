@@ -0,0 +1,16 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// Returned by /api/users/login; send accessToken as "Authorization: Bearer <token>" on later calls
+@Getter
+@AllArgsConstructor
+public class LoginResponse {
+    private String accessToken;
+    private String tokenType;
+    private Instant expiresAt;
+    private UserResponseDTO user;
+}
@@ -0,0 +1,12 @@
+package com.ved.finzenz.finzenz.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Projection for a (category, day) where the rollup disagrees with the raw transactions
+public interface RollupDiscrepancy {
+    String getCategory();
+    LocalDate getSpendDate();
+    BigDecimal getRawTotal();
+    BigDecimal getRollupTotal();
+}
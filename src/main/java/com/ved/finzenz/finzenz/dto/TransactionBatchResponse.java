@@ -0,0 +1,16 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionBatchResponse {
+    private int insertedCount;
+    private Map<Long, BigDecimal> netBalanceChanges; // accountId -> signed delta applied
+}
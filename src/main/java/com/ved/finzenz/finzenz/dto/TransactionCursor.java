@@ -0,0 +1,45 @@
+package com.ved.finzenz.finzenz.dto;
+
+import com.ved.finzenz.finzenz.entities.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a (transaction_date DESC, id DESC) listing.
+ * Clients only ever see the encoded token, never the raw values.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime transactionDate;
+    private final Integer id;
+
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.getTransactionDate(), transaction.getId());
+    }
+
+    public String encode() {
+        String raw = transactionDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            return new TransactionCursor(
+                    LocalDateTime.parse(raw.substring(0, split)),
+                    Integer.valueOf(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
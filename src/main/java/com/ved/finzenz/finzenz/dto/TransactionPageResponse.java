@@ -0,0 +1,16 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionPageResponse {
+    private List<TransactionResponse> transactions;
+    private String nextCursor; // null when there are no more rows
+    private boolean hasMore;
+}
@@ -0,0 +1,20 @@
+package com.ved.finzenz.finzenz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionSummaryResponse {
+    private Integer userId;
+    private BigDecimal totalIncome;
+    private BigDecimal totalExpense;
+    private Map<String, BigDecimal> spendingByCategory;
+}
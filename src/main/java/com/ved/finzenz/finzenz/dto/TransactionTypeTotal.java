@@ -0,0 +1,9 @@
+package com.ved.finzenz.finzenz.dto;
+
+import java.math.BigDecimal;
+
+// Projection for SUM(amount) grouped by transaction_type
+public interface TransactionTypeTotal {
+    String getTransactionType();
+    BigDecimal getTotal();
+}
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.io.Serializable;
@@ -17,7 +19,12 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "loans")
+@Table(name = "loans", indexes = {
+        @Index(name = "idx_loans_status_next_due", columnList = "status, next_due_date"),
+        @Index(name = "idx_loans_account_status_due", columnList = "account_id, status, next_due_date")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "loans")
 public class Loan implements Serializable {
 
     public enum LoanStatus {
@@ -128,12 +135,17 @@ public class Loan implements Serializable {
         return (double) completedInstallments / totalInstallments * 100;
     }
 
-    // Get next payment date based on recurring interval
+    // Due date of installment n (1-based), fixed by the schedule: installment 1 is one interval after start
+    public LocalDate installmentDueDate(int installmentNumber) {
+        return startDate.plusDays((long) recurringIntervalDays * installmentNumber);
+    }
+
+    // Get next payment date from the schedule, so late payments don't push later installments back
     public LocalDate calculateNextDueDate() {
-        if (lastPaymentDate != null) {
-            return lastPaymentDate.plusDays(recurringIntervalDays);
+        if (isCompleted()) {
+            return null;
         }
-        return startDate.plusDays(recurringIntervalDays);
+        return installmentDueDate(completedInstallments + 1);
     }
 
     // Check if loan is overdue
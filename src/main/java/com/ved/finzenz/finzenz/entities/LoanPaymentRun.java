@@ -0,0 +1,57 @@
+package com.ved.finzenz.finzenz.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the recurring EMI job for one run date. Counters are incremented as each
+ * chunk commits, and a run left RUNNING by a crash is resumed on the next startup.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "loan_payment_runs")
+public class LoanPaymentRun {
+
+    public enum RunStatus {
+        RUNNING,
+        COMPLETED
+    }
+
+    @Id
+    @Column(name = "run_date")
+    private LocalDate runDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private RunStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "chunks_completed", nullable = false)
+    @Builder.Default
+    private Integer chunksCompleted = 0;
+
+    @Column(name = "loans_paid", nullable = false)
+    @Builder.Default
+    private Integer loansPaid = 0;
+
+    // Not due any more or insufficient balance; picked up again on a later run
+    @Column(name = "loans_skipped", nullable = false)
+    @Builder.Default
+    private Integer loansSkipped = 0;
+
+    @Column(name = "loans_failed", nullable = false)
+    @Builder.Default
+    private Integer loansFailed = 0;
+}
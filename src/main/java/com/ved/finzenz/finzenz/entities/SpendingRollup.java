@@ -0,0 +1,43 @@
+package com.ved.finzenz.finzenz.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running total of DEBIT spending per (user, category, day), maintained incrementally
+ * on every transaction write so budget and dashboard reads never scan raw transactions.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "spending_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_spending_rollups_user_category_day", columnNames = {"user_id", "category", "spend_date"})
+})
+public class SpendingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Category as written on the transaction; empty string for uncategorised spending
+    @Column(nullable = false, length = 100)
+    private String category;
+
+    @Column(name = "spend_date", nullable = false)
+    private LocalDate spendDate;
+
+    @Column(name = "total_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+}
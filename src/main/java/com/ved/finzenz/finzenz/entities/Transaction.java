@@ -26,7 +26,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_date", columnList = "account_id, transaction_date"),
+        @Index(name = "uk_transactions_account_import_hash", columnList = "account_id, import_hash", unique = true),
+        @Index(name = "uk_transactions_loan_installment", columnList = "loan_id, installment_number", unique = true)
+})
 public class Transaction implements Serializable {
 
     public enum TransactionType {
@@ -35,8 +39,10 @@ public class Transaction implements Serializable {
         RECURRING
     }
 
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts; see db/migration/transactions_id_seq_pooled.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_id_seq")
+    @SequenceGenerator(name = "transactions_id_seq", sequenceName = "transactions_id_seq", allocationSize = 50)
     private Integer id;
 
     @NotNull(message = "Account ID cannot be null")
@@ -67,12 +73,28 @@ public class Transaction implements Serializable {
     @Column(length = 100)
     private String category;
 
+    // Content hash of the statement row this came from; null for manually entered transactions
+    @Column(name = "import_hash", length = 64)
+    private String importHash;
+
+    // Set on EMI payments: (loan_id, installment_number) is unique, so an installment can't be charged twice
+    @Column(name = "loan_id")
+    private Long loanId;
+
+    @Column(name = "installment_number")
+    private Integer installmentNumber;
+
     @PrePersist
     public void prePersist() {
         if (transactionDate == null) {
             transactionDate = LocalDateTime.now();
         }
     }
+
+    // Signed effect on the account balance: credits add, debits and recurring payments subtract
+    public BigDecimal balanceDelta() {
+        return transactionType == TransactionType.CREDIT ? amount : amount.negate();
+    }
 }
 
 
@@ -0,0 +1,8 @@
+package com.ved.finzenz.finzenz.exceptions;
+
+
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
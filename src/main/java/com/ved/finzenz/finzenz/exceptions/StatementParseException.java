@@ -0,0 +1,7 @@
+package com.ved.finzenz.finzenz.exceptions;
+
+public class StatementParseException extends RuntimeException {
+    public StatementParseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ved.finzenz.finzenz.exceptions;
+
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,132 @@
+package com.ved.finzenz.finzenz.export;
+
+import com.ved.finzenz.finzenz.entities.Transaction;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented binary export, loosely modelled on Parquet row groups.
+ *
+ * <pre>
+ * file      := "FZTX" version:u8 rowGroup* endMarker:i32(0)
+ * rowGroup  := rowCount:i32
+ *              id:i32[rowCount]
+ *              accountId:i64[rowCount]
+ *              amountCents:i64[rowCount]        amount with scale 2, unscaled
+ *              transactionDate:i64[rowCount]    epoch millis, date-time taken as UTC
+ *              transactionType:u8[rowCount]     enum ordinal, 0xFF for null
+ *              categoryDictSize:i32 string[categoryDictSize] categoryIndex:i32[rowCount] (-1 for null)
+ *              description:string[rowCount]
+ * string    := length:i32 (-1 for null) utf8Bytes[length]
+ * </pre>
+ *
+ * All integers are big-endian. Each column of a row group is contiguous, so a reader that
+ * only needs amounts and dates can skip the rest. See {@link ColumnarTransactionReader}.
+ */
+public class ColumnarTransactionExportWriter implements TransactionExportWriter {
+
+    static final byte[] MAGIC = {'F', 'Z', 'T', 'X'};
+    static final int VERSION = 1;
+    static final int ROW_GROUP_SIZE = 8_192;
+    static final int NULL_MARKER = -1;
+    static final int NULL_TYPE = 0xFF;
+
+    private final DataOutputStream out;
+
+    private final int[] ids = new int[ROW_GROUP_SIZE];
+    private final long[] accountIds = new long[ROW_GROUP_SIZE];
+    private final long[] amountCents = new long[ROW_GROUP_SIZE];
+    private final long[] dates = new long[ROW_GROUP_SIZE];
+    private final byte[] types = new byte[ROW_GROUP_SIZE];
+    private final int[] categoryIndexes = new int[ROW_GROUP_SIZE];
+    private final String[] descriptions = new String[ROW_GROUP_SIZE];
+    private final Map<String, Integer> categoryDictionary = new HashMap<>();
+    private final List<String> categories = new ArrayList<>();
+    private int rows;
+
+    public ColumnarTransactionExportWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+    }
+
+    @Override
+    public void write(Transaction transaction) throws IOException {
+        ids[rows] = transaction.getId();
+        accountIds[rows] = transaction.getAccountId();
+        amountCents[rows] = transaction.getAmount().setScale(2).unscaledValue().longValueExact();
+        dates[rows] = transaction.getTransactionDate().toInstant(ZoneOffset.UTC).toEpochMilli();
+        types[rows] = (byte) (transaction.getTransactionType() == null ? NULL_TYPE : transaction.getTransactionType().ordinal());
+        categoryIndexes[rows] = dictionaryIndex(transaction.getCategory());
+        descriptions[rows] = transaction.getDescription();
+
+        if (++rows == ROW_GROUP_SIZE) {
+            flushRowGroup();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rows > 0) {
+            flushRowGroup();
+        }
+        out.writeInt(0);
+        out.flush();
+    }
+
+    private int dictionaryIndex(String category) {
+        if (category == null) {
+            return NULL_MARKER;
+        }
+        return categoryDictionary.computeIfAbsent(category, key -> {
+            categories.add(key);
+            return categories.size() - 1;
+        });
+    }
+
+    private void flushRowGroup() throws IOException {
+        out.writeInt(rows);
+        for (int i = 0; i < rows; i++) out.writeInt(ids[i]);
+        for (int i = 0; i < rows; i++) out.writeLong(accountIds[i]);
+        for (int i = 0; i < rows; i++) out.writeLong(amountCents[i]);
+        for (int i = 0; i < rows; i++) out.writeLong(dates[i]);
+        out.write(types, 0, rows);
+
+        out.writeInt(categories.size());
+        for (String category : categories) writeString(category);
+        for (int i = 0; i < rows; i++) out.writeInt(categoryIndexes[i]);
+
+        for (int i = 0; i < rows; i++) {
+            writeString(descriptions[i]);
+            descriptions[i] = null;
+        }
+
+        categoryDictionary.clear();
+        categories.clear();
+        rows = 0;
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_MARKER);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
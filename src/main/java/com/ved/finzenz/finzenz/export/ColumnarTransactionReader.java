@@ -0,0 +1,83 @@
+package com.ved.finzenz.finzenz.export;
+
+import com.ved.finzenz.finzenz.entities.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Reads files produced by {@link ColumnarTransactionExportWriter}, one row group at a time.
+ */
+public class ColumnarTransactionReader {
+
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    private final DataInputStream in;
+
+    public ColumnarTransactionReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        byte[] magic = new byte[ColumnarTransactionExportWriter.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, ColumnarTransactionExportWriter.MAGIC)) {
+            throw new IOException("Not a Finzenz columnar export");
+        }
+        int version = this.in.readUnsignedByte();
+        if (version != ColumnarTransactionExportWriter.VERSION) {
+            throw new IOException("Unsupported columnar export version " + version);
+        }
+    }
+
+    public void forEach(Consumer<Transaction> consumer) throws IOException {
+        int rows;
+        while ((rows = in.readInt()) > 0) {
+            int[] ids = new int[rows];
+            long[] accountIds = new long[rows];
+            long[] amountCents = new long[rows];
+            long[] dates = new long[rows];
+            byte[] types = new byte[rows];
+            int[] categoryIndexes = new int[rows];
+
+            for (int i = 0; i < rows; i++) ids[i] = in.readInt();
+            for (int i = 0; i < rows; i++) accountIds[i] = in.readLong();
+            for (int i = 0; i < rows; i++) amountCents[i] = in.readLong();
+            for (int i = 0; i < rows; i++) dates[i] = in.readLong();
+            in.readFully(types);
+
+            String[] categories = new String[in.readInt()];
+            for (int i = 0; i < categories.length; i++) categories[i] = readString();
+            for (int i = 0; i < rows; i++) categoryIndexes[i] = in.readInt();
+
+            for (int i = 0; i < rows; i++) {
+                int type = types[i] & 0xFF;
+                consumer.accept(Transaction.builder()
+                        .id(ids[i])
+                        .accountId(accountIds[i])
+                        .amount(ColumnarTransactionExportWriter.fromCents(amountCents[i]))
+                        .transactionDate(LocalDateTime.ofEpochSecond(Math.floorDiv(dates[i], 1000L),
+                                (int) Math.floorMod(dates[i], 1000L) * 1_000_000, ZoneOffset.UTC))
+                        .transactionType(type == ColumnarTransactionExportWriter.NULL_TYPE ? null : TYPES[type])
+                        .category(categoryIndexes[i] == ColumnarTransactionExportWriter.NULL_MARKER
+                                ? null : categories[categoryIndexes[i]])
+                        .description(readString())
+                        .build());
+            }
+        }
+    }
+
+    private String readString() throws IOException {
+        int length = in.readInt();
+        if (length == ColumnarTransactionExportWriter.NULL_MARKER) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
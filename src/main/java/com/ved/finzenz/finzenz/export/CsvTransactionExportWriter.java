@@ -0,0 +1,64 @@
+package com.ved.finzenz.finzenz.export;
+
+import com.ved.finzenz.finzenz.entities.Transaction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class CsvTransactionExportWriter implements TransactionExportWriter {
+
+    private static final String HEADER = "id,account_id,transaction_date,transaction_type,amount,category,description";
+
+    private final Writer writer;
+
+    public CsvTransactionExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(Transaction transaction) throws IOException {
+        writer.write(String.valueOf(transaction.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(transaction.getAccountId()));
+        writer.write(',');
+        writer.write(String.valueOf(transaction.getTransactionDate()));
+        writer.write(',');
+        writer.write(String.valueOf(transaction.getTransactionType()));
+        writer.write(',');
+        writer.write(transaction.getAmount().toPlainString());
+        writer.write(',');
+        writeField(transaction.getCategory());
+        writer.write(',');
+        writeField(transaction.getDescription());
+        writer.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        // Description and category come from imported statements; a leading =, +, -, @, tab or
+        // CR would make a spreadsheet evaluate the cell as a formula, so it's kept as text
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
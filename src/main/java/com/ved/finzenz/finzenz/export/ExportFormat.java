@@ -0,0 +1,22 @@
+package com.ved.finzenz.finzenz.export;
+
+public enum ExportFormat {
+    CSV("text/csv", ".csv.gz"),
+    COLUMNAR("application/octet-stream", ".fztx.gz");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
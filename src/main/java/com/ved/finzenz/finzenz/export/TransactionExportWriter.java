@@ -0,0 +1,25 @@
+package com.ved.finzenz.finzenz.export;
+
+import com.ved.finzenz.finzenz.entities.Transaction;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes transactions one at a time to an output stream. Implementations keep at most
+ * a fixed-size buffer in memory, so exports cost the same regardless of history length.
+ */
+public interface TransactionExportWriter {
+
+    void write(Transaction transaction) throws IOException;
+
+    // Flushes buffered rows and trailers; does not close the underlying stream
+    void finish() throws IOException;
+
+    static TransactionExportWriter create(ExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvTransactionExportWriter(out);
+            case COLUMNAR -> new ColumnarTransactionExportWriter(out);
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.ved.finzenz.finzenz.fx;
+
+import com.ved.finzenz.finzenz.entities.Account.CurrencyType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link FxRateSnapshot}. The rate file is parsed into a new snapshot off
+ * to the side and published with a single reference swap, so readers always see one complete
+ * table; a file that fails to parse leaves the previous snapshot in place.
+ *
+ * File format: one "CURRENCY,rate" line per currency, rate = value of one unit in INR.
+ * Blank lines and lines starting with '#' are ignored.
+ */
+@Slf4j
+@Component
+public class FxRateService {
+
+    private static final CurrencyType PIVOT = CurrencyType.INR;
+
+    private final ResourceLoader resourceLoader;
+    private final String ratesLocation;
+    private final AtomicReference<FxRateSnapshot> current = new AtomicReference<>();
+
+    public FxRateService(ResourceLoader resourceLoader,
+                         @Value("${finzenz.fx.rates-location:classpath:fx-rates.csv}") String ratesLocation) {
+        this.resourceLoader = resourceLoader;
+        this.ratesLocation = ratesLocation;
+    }
+
+    @PostConstruct
+    void loadInitialRates() {
+        current.set(load());
+    }
+
+    public FxRateSnapshot getSnapshot() {
+        return current.get();
+    }
+
+    @Scheduled(fixedDelayString = "${finzenz.fx.refresh-interval:PT1H}", initialDelayString = "${finzenz.fx.refresh-interval:PT1H}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("FX rate refresh from {} failed, keeping rates loaded at {}: {}",
+                    ratesLocation, current.get().getLoadedAt(), e.getMessage());
+        }
+    }
+
+    public FxRateSnapshot refresh() {
+        FxRateSnapshot snapshot = load();
+        current.set(snapshot);
+        log.info("Loaded FX rates from {}", ratesLocation);
+        return snapshot;
+    }
+
+    private FxRateSnapshot load() {
+        Resource resource = resourceLoader.getResource(ratesLocation);
+        Map<CurrencyType, BigDecimal> rates = new EnumMap<>(CurrencyType.class);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid FX rate line " + lineNumber + ": " + line);
+                }
+                rates.put(CurrencyType.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), new BigDecimal(parts[1].trim()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read FX rates from " + ratesLocation, e);
+        }
+        rates.putIfAbsent(PIVOT, BigDecimal.ONE);
+        return new FxRateSnapshot(PIVOT, rates, ratesLocation);
+    }
+}
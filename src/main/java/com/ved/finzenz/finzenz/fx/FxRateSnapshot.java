@@ -0,0 +1,75 @@
+package com.ved.finzenz.finzenz.fx;
+
+import com.ved.finzenz.finzenz.entities.Account.CurrencyType;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable set of FX rates. Every cross rate is computed once when the snapshot is built,
+ * so a conversion is a single multiply with no lookups or intermediate objects beyond the result.
+ */
+public final class FxRateSnapshot {
+
+    private static final CurrencyType[] CURRENCIES = CurrencyType.values();
+
+    // crossRates[from][to] = units of "to" per one unit of "from"
+    private final BigDecimal[][] crossRates;
+    private final Map<CurrencyType, BigDecimal> ratesInPivot;
+    private final CurrencyType pivot;
+    private final Instant loadedAt;
+    private final String source;
+
+    /**
+     * @param ratesInPivot value of one unit of each currency expressed in the pivot currency;
+     *                     must contain every {@link CurrencyType}
+     */
+    public FxRateSnapshot(CurrencyType pivot, Map<CurrencyType, BigDecimal> ratesInPivot, String source) {
+        for (CurrencyType currency : CURRENCIES) {
+            BigDecimal rate = ratesInPivot.get(currency);
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("Missing or non-positive FX rate for " + currency);
+            }
+        }
+        this.pivot = pivot;
+        this.ratesInPivot = new EnumMap<>(ratesInPivot);
+        this.source = source;
+        this.loadedAt = Instant.now();
+
+        this.crossRates = new BigDecimal[CURRENCIES.length][CURRENCIES.length];
+        for (CurrencyType from : CURRENCIES) {
+            for (CurrencyType to : CURRENCIES) {
+                crossRates[from.ordinal()][to.ordinal()] = from == to
+                        ? BigDecimal.ONE
+                        : ratesInPivot.get(from).divide(ratesInPivot.get(to), MathContext.DECIMAL64);
+            }
+        }
+    }
+
+    public BigDecimal convert(BigDecimal amount, CurrencyType from, CurrencyType to) {
+        return from == to ? amount : amount.multiply(crossRates[from.ordinal()][to.ordinal()], MathContext.DECIMAL64);
+    }
+
+    public BigDecimal rate(CurrencyType from, CurrencyType to) {
+        return crossRates[from.ordinal()][to.ordinal()];
+    }
+
+    public Map<CurrencyType, BigDecimal> getRatesInPivot() {
+        return Map.copyOf(ratesInPivot);
+    }
+
+    public CurrencyType getPivot() {
+        return pivot;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,160 @@
+package com.ved.finzenz.finzenz.importer;
+
+import com.ved.finzenz.finzenz.exceptions.StatementParseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Header-driven CSV parser. Recognised columns (case-insensitive):
+ * date, description/narration, amount or debit + credit, category, reference.
+ * Quoted fields may contain commas and doubled quotes but not line breaks.
+ */
+public class CsvStatementParser implements StatementParser {
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("dd MMM yyyy", Locale.ENGLISH)
+    );
+
+    @Override
+    public void parse(InputStream in, Consumer<StatementRow> sink) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        Map<String, Integer> columns = indexHeader(splitLine(stripBom(headerLine)));
+        Integer dateCol = column(columns, "date", "transaction date", "value date");
+        Integer descriptionCol = column(columns, "description", "narration", "details");
+        Integer amountCol = column(columns, "amount");
+        Integer debitCol = column(columns, "debit", "withdrawal");
+        Integer creditCol = column(columns, "credit", "deposit");
+        Integer categoryCol = column(columns, "category");
+        Integer referenceCol = column(columns, "reference", "ref no", "cheque no");
+
+        if (dateCol == null || (amountCol == null && debitCol == null && creditCol == null)) {
+            throw new StatementParseException("CSV header must contain a date column and an amount or debit/credit column");
+        }
+
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitLine(line);
+            try {
+                BigDecimal amount;
+                if (amountCol != null) {
+                    amount = parseAmount(field(fields, amountCol));
+                } else {
+                    BigDecimal debit = parseAmount(field(fields, debitCol));
+                    BigDecimal credit = parseAmount(field(fields, creditCol));
+                    amount = credit.subtract(debit);
+                }
+                sink.accept(new StatementRow(
+                        lineNumber,
+                        parseDate(field(fields, dateCol)),
+                        amount,
+                        field(fields, descriptionCol),
+                        field(fields, categoryCol),
+                        field(fields, referenceCol)));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new StatementParseException("Invalid CSV row at line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static Map<String, Integer> indexHeader(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private static Integer column(Map<String, Integer> columns, String... names) {
+        for (String name : names) {
+            Integer index = columns.get(name);
+            if (index != null) return index;
+        }
+        return null;
+    }
+
+    private static String field(List<String> fields, Integer index) {
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        if (value == null) return BigDecimal.ZERO;
+        String cleaned = value.replaceAll("[^0-9.\\-]", "");
+        return cleaned.isEmpty() ? BigDecimal.ZERO : new BigDecimal(cleaned);
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (value == null) {
+            throw new DateTimeParseException("Missing date", "", 0);
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format).atStartOfDay();
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        return LocalDateTime.parse(value);
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
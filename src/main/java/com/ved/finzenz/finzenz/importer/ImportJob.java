@@ -0,0 +1,87 @@
+package com.ved.finzenz.finzenz.importer;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one statement import. Counters are updated by the pipeline
+ * stages while the job runs and read by the progress endpoint.
+ */
+@Getter
+public class ImportJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final Long accountId;
+    private final StatementFormat format;
+    private final String fileName;
+    private final long totalBytes;
+    private final Instant submittedAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong duplicatesSkipped = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+
+    public ImportJob(String id, Long accountId, StatementFormat format, String fileName, long totalBytes) {
+        this.id = id;
+        this.accountId = accountId;
+        this.format = format;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    // First failure wins; later stages failing because of it don't overwrite the cause
+    synchronized void fail(String message) {
+        if (status == Status.FAILED) return;
+        error = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public boolean isFailed() {
+        return status == Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public double getPercentComplete() {
+        if (status == Status.COMPLETED) return 100.0;
+        if (totalBytes <= 0) return 0.0;
+        return Math.min(100.0, bytesRead.get() * 100.0 / totalBytes);
+    }
+
+    public double getRowsPerSecond() {
+        if (startedAt == null) return 0.0;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return rowsParsed.get() * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ved.finzenz.finzenz.importer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Numbers identical statement rows (same timestamp, amount and description) 1, 2, 3... so two
+ * real coffees at the same place on the same day get different import hashes.
+ *
+ * Counts are kept per calendar day, and only for days within windowDays of the row being read;
+ * days further away are dropped. Statements are written in date order (either direction), so
+ * memory is a few days of rows however large the file, and every day is still counted in full,
+ * which keeps the numbers independent of the order of rows within the window. A row for a day
+ * that was already dropped can't be numbered reliably (a restarted count could collide with a
+ * row already imported and be skipped as a duplicate), so {@link #next} refuses it.
+ */
+class OccurrenceWindow {
+
+    private final int windowDays;
+    private final TreeMap<LocalDate, Map<String, Integer>> countsByDay = new TreeMap<>();
+    // One entry per distinct day in the file, not per row
+    private final Set<LocalDate> droppedDays = new HashSet<>();
+
+    OccurrenceWindow(int windowDays) {
+        if (windowDays < 0) {
+            throw new IllegalArgumentException("finzenz.import.dedup-window-days must not be negative");
+        }
+        this.windowDays = windowDays;
+    }
+
+    /**
+     * @param content the row's identity, including its timestamp
+     * @return how many times the row has been seen so far including this one, or 0 when its
+     * day has already left the window
+     */
+    int next(LocalDateTime timestamp, String content) {
+        LocalDate day = timestamp.toLocalDate();
+        if (droppedDays.contains(day)) {
+            return 0;
+        }
+        int occurrence = countsByDay.computeIfAbsent(day, d -> new HashMap<>())
+                .merge(content, 1, Integer::sum);
+        drop(day);
+        return occurrence;
+    }
+
+    int daysHeld() {
+        return countsByDay.size();
+    }
+
+    private void drop(LocalDate current) {
+        LocalDate oldest = current.minusDays(windowDays);
+        LocalDate newest = current.plusDays(windowDays);
+        while (!countsByDay.isEmpty() && countsByDay.firstKey().isBefore(oldest)) {
+            droppedDays.add(countsByDay.pollFirstEntry().getKey());
+        }
+        while (!countsByDay.isEmpty() && countsByDay.lastKey().isAfter(newest)) {
+            droppedDays.add(countsByDay.pollLastEntry().getKey());
+        }
+    }
+}
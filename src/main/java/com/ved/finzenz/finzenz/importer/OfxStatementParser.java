@@ -0,0 +1,96 @@
+package com.ved.finzenz.finzenz.importer;
+
+import com.ved.finzenz.finzenz.exceptions.StatementParseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Tag scanner for OFX 1.x (SGML, unclosed leaf tags) and OFX 2.x (XML).
+ * Only the fields of each STMTTRN block are kept; everything else is skipped.
+ */
+public class OfxStatementParser implements StatementParser {
+
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Override
+    public void parse(InputStream in, Consumer<StatementRow> sink) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        Map<String, String> fields = null;
+        long transactionNumber = 0;
+        StringBuilder tag = new StringBuilder();
+        StringBuilder text = new StringBuilder();
+        String openTag = null;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c != '<') {
+                text.append((char) c);
+                continue;
+            }
+
+            // A new tag starts: whatever text we collected belongs to the previous open tag
+            if (fields != null && openTag != null) {
+                String value = text.toString().trim();
+                if (!value.isEmpty()) {
+                    fields.putIfAbsent(openTag, value);
+                }
+            }
+            text.setLength(0);
+
+            tag.setLength(0);
+            while ((c = reader.read()) != -1 && c != '>') {
+                tag.append((char) c);
+            }
+            String name = tag.toString().trim().toUpperCase(Locale.ROOT);
+
+            if (name.equals("STMTTRN")) {
+                fields = new HashMap<>();
+                openTag = null;
+            } else if (name.equals("/STMTTRN")) {
+                if (fields != null) {
+                    sink.accept(toRow(++transactionNumber, fields));
+                }
+                fields = null;
+                openTag = null;
+            } else {
+                openTag = name.startsWith("/") ? null : name;
+            }
+        }
+    }
+
+    private static StatementRow toRow(long transactionNumber, Map<String, String> fields) {
+        try {
+            String posted = fields.get("DTPOSTED");
+            String amount = fields.get("TRNAMT");
+            if (posted == null || amount == null) {
+                throw new StatementParseException("OFX transaction " + transactionNumber + " is missing DTPOSTED or TRNAMT");
+            }
+            String name = fields.get("NAME");
+            String memo = fields.get("MEMO");
+            String description = name == null ? memo : (memo == null ? name : name + " " + memo);
+
+            return new StatementRow(
+                    transactionNumber,
+                    LocalDate.parse(posted.substring(0, 8), OFX_DATE).atStartOfDay(),
+                    new BigDecimal(amount.replace(",", ".")),
+                    description,
+                    null,
+                    fields.get("FITID"));
+        } catch (NumberFormatException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new StatementParseException("Invalid OFX transaction " + transactionNumber + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.ved.finzenz.finzenz.importer;
+
+public enum StatementFormat {
+    CSV,
+    OFX
+}
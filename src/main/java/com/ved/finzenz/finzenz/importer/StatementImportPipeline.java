@@ -0,0 +1,277 @@
+package com.ved.finzenz.finzenz.importer;
+
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.repository.TransactionRepository;
+import com.ved.finzenz.finzenz.service.TransactionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one import as three stages connected by bounded queues:
+ * parse (file -> StatementRow), map (row -> Transaction with category and content hash)
+ * and persist (batched inserts through TransactionService). A full queue blocks the stage
+ * feeding it, so at most QUEUE_CAPACITY rows per stage are ever held in memory, plus the
+ * duplicate counts of the last few days of rows (see OccurrenceWindow).
+ */
+@Slf4j
+@Component
+public class StatementImportPipeline {
+
+    private static final int QUEUE_CAPACITY = 1_000;
+    private static final int PERSIST_BATCH_SIZE = 500;
+    private static final long POLL_MILLIS = 200;
+
+    private static final StatementRow END_OF_ROWS = new StatementRow(-1, null, null, null, null, null);
+    private static final Transaction END_OF_TRANSACTIONS = new Transaction();
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final TransactionCategorizer categorizer;
+    private final int dedupWindowDays;
+
+    public StatementImportPipeline(TransactionRepository transactionRepository,
+                                   TransactionService transactionService,
+                                   TransactionCategorizer categorizer,
+                                   @Value("${finzenz.import.dedup-window-days:7}") int dedupWindowDays) {
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.categorizer = categorizer;
+        this.dedupWindowDays = dedupWindowDays;
+    }
+
+    public void run(ImportJob job, Path file) {
+        job.start();
+        BlockingQueue<StatementRow> rows = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Transaction> transactions = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        Thread parser = startStage(job, "parse", () -> parse(job, file, rows));
+        Thread mapper = startStage(job, "map", () -> map(job, rows, transactions));
+
+        try {
+            persist(job, transactions);
+            parser.join();
+            mapper.join();
+        } catch (ImportAbortedException e) {
+            // another stage failed and already recorded the cause
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Import interrupted");
+        } catch (RuntimeException e) {
+            log.error("Import {} failed while persisting: {}", job.getId(), e.getMessage(), e);
+            job.fail(e.getMessage());
+        }
+
+        if (job.isFailed()) {
+            parser.interrupt();
+            mapper.interrupt();
+        } else {
+            job.complete();
+            log.info("Import {} completed: {} parsed, {} imported, {} duplicates, {} rejected ({} rows/s)",
+                    job.getId(), job.getRowsParsed().get(), job.getRowsImported().get(),
+                    job.getDuplicatesSkipped().get(), job.getRowsRejected().get(),
+                    String.format("%.0f", job.getRowsPerSecond()));
+        }
+    }
+
+    // ---------------- Stages ----------------
+
+    private void parse(ImportJob job, Path file, BlockingQueue<StatementRow> rows) throws Exception {
+        StatementParser parser = job.getFormat() == StatementFormat.OFX
+                ? new OfxStatementParser()
+                : new CsvStatementParser();
+
+        try (InputStream in = new CountingInputStream(Files.newInputStream(file), job)) {
+            parser.parse(in, row -> {
+                job.getRowsParsed().incrementAndGet();
+                put(rows, row, job);
+            });
+        }
+        put(rows, END_OF_ROWS, job);
+    }
+
+    private void map(ImportJob job, BlockingQueue<StatementRow> rows, BlockingQueue<Transaction> transactions)
+            throws Exception {
+        MessageDigest digest = sha256();
+        // Identical rows on the same day (two coffees at the same place) are legitimate, so the
+        // hash includes how many times the row has been seen so far in this file
+        OccurrenceWindow occurrences = new OccurrenceWindow(dedupWindowDays);
+        boolean warnedOutOfOrder = false;
+
+        StatementRow row;
+        while ((row = take(rows, job)) != END_OF_ROWS) {
+            if (row.getAmount().signum() == 0) {
+                job.getRowsRejected().incrementAndGet();
+                continue;
+            }
+
+            String key;
+            if (row.getReference() != null) {
+                key = "ref|" + row.getReference();
+            } else {
+                String content = row.getDate() + "|" + row.getAmount().stripTrailingZeros().toPlainString()
+                        + "|" + normalize(row.getDescription());
+                int occurrence = occurrences.next(row.getDate(), content);
+                if (occurrence == 0) {
+                    if (!warnedOutOfOrder) {
+                        log.warn("Import {}: line {} is dated {}, more than {} days from the rows around it; "
+                                        + "rejecting rows that far out of date order",
+                                job.getId(), row.getLineNumber(), row.getDate().toLocalDate(), dedupWindowDays);
+                        warnedOutOfOrder = true;
+                    }
+                    job.getRowsRejected().incrementAndGet();
+                    continue;
+                }
+                key = content + "|" + occurrence;
+            }
+
+            String category = row.getCategory() != null ? row.getCategory() : categorizer.categorize(row.getDescription());
+            Transaction transaction = Transaction.builder()
+                    .accountId(job.getAccountId())
+                    .amount(row.getAmount().abs())
+                    .transactionType(row.getAmount().signum() < 0
+                            ? Transaction.TransactionType.DEBIT
+                            : Transaction.TransactionType.CREDIT)
+                    .transactionDate(row.getDate())
+                    .description(row.getDescription())
+                    .category(category)
+                    .importHash(hash(digest, job.getAccountId() + "|" + key))
+                    .build();
+            put(transactions, transaction, job);
+        }
+        put(transactions, END_OF_TRANSACTIONS, job);
+    }
+
+    private void persist(ImportJob job, BlockingQueue<Transaction> transactions) throws InterruptedException {
+        List<Transaction> batch = new ArrayList<>(PERSIST_BATCH_SIZE);
+        Transaction transaction;
+        while ((transaction = take(transactions, job)) != END_OF_TRANSACTIONS) {
+            batch.add(transaction);
+            if (batch.size() == PERSIST_BATCH_SIZE) {
+                persistBatch(job, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            persistBatch(job, batch);
+        }
+    }
+
+    private void persistBatch(ImportJob job, List<Transaction> batch) {
+        Map<String, Transaction> byHash = new LinkedHashMap<>();
+        for (Transaction transaction : batch) {
+            byHash.putIfAbsent(transaction.getImportHash(), transaction);
+        }
+        Set<String> existing = transactionRepository.findExistingImportHashes(job.getAccountId(), byHash.keySet());
+        existing.forEach(byHash::remove);
+
+        job.getDuplicatesSkipped().addAndGet(batch.size() - byHash.size());
+        if (!byHash.isEmpty()) {
+            transactionService.createTransactions(new ArrayList<>(byHash.values()));
+            job.getRowsImported().addAndGet(byHash.size());
+        }
+    }
+
+    // ---------------- Plumbing ----------------
+
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    private Thread startStage(ImportJob job, String name, Stage stage) {
+        Thread thread = new Thread(() -> {
+            try {
+                stage.run();
+            } catch (ImportAbortedException | InterruptedException e) {
+                // the job already failed elsewhere, or we were told to stop
+            } catch (Exception e) {
+                log.error("Import {} failed in {} stage: {}", job.getId(), name, e.getMessage(), e);
+                job.fail(e.getMessage());
+            }
+        }, "import-" + job.getId() + "-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // Blocking put/take that give up as soon as any stage has failed
+    private static <T> void put(BlockingQueue<T> queue, T item, ImportJob job) {
+        try {
+            while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (job.isFailed()) throw new ImportAbortedException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportAbortedException();
+        }
+    }
+
+    private static <T> T take(BlockingQueue<T> queue, ImportJob job) throws InterruptedException {
+        T item;
+        while ((item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+            if (job.isFailed()) throw new ImportAbortedException();
+        }
+        return item;
+    }
+
+    private static String normalize(String description) {
+        return description == null ? "" : description.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hash(MessageDigest digest, String value) {
+        return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static class ImportAbortedException extends RuntimeException {
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final ImportJob job;
+
+        CountingInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) job.getBytesRead().incrementAndGet();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = super.read(buffer, off, len);
+            if (n > 0) job.getBytesRead().addAndGet(n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ved.finzenz.finzenz.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads a statement incrementally and hands each row to the sink as soon as it is parsed,
+ * so memory use does not depend on the size of the file.
+ */
+public interface StatementParser {
+    void parse(InputStream in, Consumer<StatementRow> sink) throws IOException;
+}
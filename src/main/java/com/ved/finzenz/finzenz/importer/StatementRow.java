@@ -0,0 +1,22 @@
+package com.ved.finzenz.finzenz.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One parsed statement line, before it is mapped to a Transaction.
+ * Amount is signed: negative for money leaving the account.
+ */
+@Getter
+@AllArgsConstructor
+public class StatementRow {
+    private final long lineNumber;
+    private final LocalDateTime date;
+    private final BigDecimal amount;
+    private final String description;
+    private final String category;  // only when the statement carries one
+    private final String reference; // bank-assigned id (OFX FITID), may be null
+}
@@ -0,0 +1,46 @@
+package com.ved.finzenz.finzenz.importer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keyword rules for assigning a category to imported rows that don't carry one.
+ * First matching rule wins, so more specific keywords come first.
+ */
+@Component
+public class TransactionCategorizer {
+
+    private static final Map<String, List<String>> RULES = new LinkedHashMap<>();
+
+    static {
+        RULES.put("Loan EMI", List.of("emi", "loan"));
+        RULES.put("Salary", List.of("salary", "payroll"));
+        RULES.put("Rent", List.of("rent"));
+        RULES.put("Food", List.of("swiggy", "zomato", "restaurant", "cafe", "starbucks"));
+        RULES.put("Groceries", List.of("bigbasket", "grocery", "supermarket", "dmart"));
+        RULES.put("Transport", List.of("uber", "ola", "metro", "fuel", "petrol", "irctc"));
+        RULES.put("Shopping", List.of("amazon", "flipkart", "myntra"));
+        RULES.put("Entertainment", List.of("netflix", "spotify", "prime video", "bookmyshow"));
+        RULES.put("Utilities", List.of("electricity", "water bill", "broadband", "recharge", "gas bill"));
+        RULES.put("Cash", List.of("atm", "cash withdrawal"));
+    }
+
+    public String categorize(String description) {
+        if (description == null) {
+            return null;
+        }
+        String text = description.toLowerCase(Locale.ROOT);
+        for (Map.Entry<String, List<String>> rule : RULES.entrySet()) {
+            for (String keyword : rule.getValue()) {
+                if (text.contains(keyword)) {
+                    return rule.getKey();
+                }
+            }
+        }
+        return null;
+    }
+}
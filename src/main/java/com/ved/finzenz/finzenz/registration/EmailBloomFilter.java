@@ -0,0 +1,249 @@
+package com.ved.finzenz.finzenz.registration;
+
+import com.ved.finzenz.finzenz.dto.EmailFilterStats;
+import com.ved.finzenz.finzenz.repository.UserEmailStreamRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloom filter of registered emails, so registration can skip the existsByEmail query for
+ * addresses that are definitely new. It only ever answers "definitely not registered" or
+ * "maybe registered"; the unique constraint on users.email stays the final arbiter.
+ *
+ * Warmed by streaming the users table once the application is ready (every check goes to the
+ * database until then) and rebuilt periodically, which resizes it as the table grows and picks
+ * up users registered on other nodes. Emails are matched case-insensitively, so the filter is
+ * never stricter than the database.
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final UserEmailStreamRepository emailStreamRepository;
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+
+    private volatile Bits current;
+    // Non-null while a rebuild streams the table; registrations meanwhile go into both filters
+    private volatile Bits building;
+    private volatile boolean ready;
+    private volatile long lastRebuildMillis;
+
+    // Not synchronized: a rebuild holds it across the whole table scan, which would pin a virtual thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder definiteNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder constraintRejections = new LongAdder();
+
+    public EmailBloomFilter(UserEmailStreamRepository emailStreamRepository,
+                            UserRepository userRepository,
+                            @Value("${finzenz.registration.email-filter.enabled:true}") boolean enabled,
+                            @Value("${finzenz.registration.email-filter.expected-emails:1000000}") long expectedEmails,
+                            @Value("${finzenz.registration.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("finzenz.registration.email-filter.false-positive-rate must be in (0, 1)");
+        }
+        this.emailStreamRepository = emailStreamRepository;
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.expectedEmails = Math.max(1, expectedEmails);
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = Bits.sizedFor(this.expectedEmails, falsePositiveRate);
+    }
+
+    /**
+     * @return false only when the email is definitely not registered
+     */
+    public boolean mightContain(String email) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        checks.increment();
+        long h1 = hash(email);
+        if (current.mightContain(h1, secondHash(h1))) {
+            return true;
+        }
+        definiteNegatives.increment();
+        return false;
+    }
+
+    public void put(String email) {
+        long h1 = hash(email);
+        long h2 = secondHash(h1);
+        current.put(h1, h2);
+        // Read after writing current: a rebuild that started later streams this row itself
+        Bits next = building;
+        if (next != null) {
+            next.put(h1, h2);
+        }
+    }
+
+    // A "maybe" the database answered with "not registered"
+    public void recordFalsePositive() {
+        if (enabled && ready) {
+            falsePositives.increment();
+        }
+    }
+
+    // The filter said "not registered" but the insert hit the unique constraint
+    public void recordConstraintRejection() {
+        constraintRejections.increment();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${finzenz.registration.email-filter.rebuild-interval:PT6H}",
+            initialDelayString = "${finzenz.registration.email-filter.rebuild-interval:PT6H}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        long started = System.nanoTime();
+        try {
+            // Headroom so the false-positive rate holds until the next rebuild
+            long registered = userRepository.count();
+            Bits next = Bits.sizedFor(Math.max(expectedEmails, registered + registered / 2), falsePositiveRate);
+            building = next;
+            emailStreamRepository.streamEmails(email -> {
+                long h1 = hash(email);
+                next.put(h1, secondHash(h1));
+            });
+            current = next;
+            ready = true;
+            lastRebuildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            log.info("Email filter built from {} users: {} bits, {} hashes in {} ms",
+                    next.insertions.sum(), next.bitCount, next.hashFunctions, lastRebuildMillis);
+        } catch (RuntimeException e) {
+            // Keep serving from the previous filter, or from the database if there never was one
+            log.warn("Email filter rebuild failed", e);
+        } finally {
+            building = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    public EmailFilterStats getStats() {
+        Bits bits = current;
+        long checked = checks.sum();
+        long negatives = definiteNegatives.sum();
+        return EmailFilterStats.builder()
+                .ready(enabled && ready)
+                .bitCount(bits.bitCount)
+                .hashFunctions(bits.hashFunctions)
+                .sizeBytes(bits.bitCount / Byte.SIZE)
+                .insertions(bits.insertions.sum())
+                .configuredFalsePositiveRate(falsePositiveRate)
+                .estimatedFalsePositiveRate(bits.estimatedFalsePositiveRate())
+                .checks(checked)
+                .definiteNegatives(negatives)
+                .maybePositives(checked - negatives)
+                .falsePositives(falsePositives.sum())
+                .constraintRejections(constraintRejections.sum())
+                .lastRebuildMillis(lastRebuildMillis)
+                .build();
+    }
+
+    // 64-bit FNV-1a over the lower-cased address, finished with the MurmurHash3 mixer
+    private static long hash(String email) {
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            h ^= normalized.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long secondHash(long h1) {
+        return mix(h1 ^ 0x9e3779b97f4a7c15L) | 1L;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashFunctions;
+        private final LongAdder insertions = new LongAdder();
+
+        private Bits(long bitCount, int hashFunctions) {
+            this.words = new AtomicLongArray(Math.toIntExact(bitCount / Long.SIZE));
+            this.bitCount = bitCount;
+            this.hashFunctions = hashFunctions;
+        }
+
+        // m = -n ln p / (ln 2)^2 bits, k = (m / n) ln 2 hashes
+        static Bits sizedFor(long expected, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (LN2 * LN2));
+            bits = Math.max(Long.SIZE, (bits + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+            int hashes = Math.max(1, (int) Math.round((double) bits / expected * LN2));
+            return new Bits(bits, hashes);
+        }
+
+        // Double hashing: index_i = h1 + i * h2 (Kirsch-Mitzenmacher)
+        void put(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Math.floorMod(combined, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value = words.get(word);
+                while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                    value = words.get(word);
+                }
+                combined += h2;
+            }
+            insertions.increment();
+        }
+
+        boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Math.floorMod(combined, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        double estimatedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / bitCount, hashFunctions);
+        }
+    }
+}
@@ -1,22 +1,61 @@
 package com.ved.finzenz.finzenz.repository;
 
+import com.ved.finzenz.finzenz.dto.AccountBalance;
+import com.ved.finzenz.finzenz.dto.AccountResponse;
 import com.ved.finzenz.finzenz.entities.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByUserId(Long userId);
     Account findByAccountId(Long accountId);
 
+    // Account listing with the owner's id and email read through one join, so Account.user is never lazily loaded
+    @Query("SELECT new com.ved.finzenz.finzenz.dto.AccountResponse(" +
+            "a.accountId, a.accountName, a.accountType, a.institutionName, a.accountNumber, " +
+            "a.balance, a.currency, a.isActive, u.id, u.email) " +
+            "FROM Account a JOIN a.user u WHERE u.id = :userId")
+    List<AccountResponse> findAccountResponsesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.ved.finzenz.finzenz.dto.AccountResponse(" +
+            "a.accountId, a.accountName, a.accountType, a.institutionName, a.accountNumber, " +
+            "a.balance, a.currency, a.isActive, u.id, u.email) " +
+            "FROM Account a JOIN a.user u WHERE a.accountId = :accountId")
+    Optional<AccountResponse> findAccountResponseById(@Param("accountId") Long accountId);
+
     @Query("SELECT a.balance FROM Account a WHERE a.accountId = :accountId")
     BigDecimal findBalanceByAccountId(@Param("accountId") Long accountId);
 
+    @Query("SELECT a.user.id FROM Account a WHERE a.accountId = :accountId")
+    Long findUserIdByAccountId(@Param("accountId") Long accountId);
+
+    @Query("SELECT COUNT(a) FROM Account a WHERE a.accountId IN :accountIds AND a.user.id = :userId")
+    long countOwnedByUser(@Param("accountIds") Collection<Long> accountIds, @Param("userId") Long userId);
+
+    @Query("SELECT a.user.id AS userId, a.accountId AS accountId, a.balance AS balance, a.currency AS currency " +
+            "FROM Account a WHERE a.user.id IN :userIds")
+    List<AccountBalance> findBalancesByUserIds(@Param("userIds") Collection<Long> userIds);
+
     boolean deleteAccountByAccountId(Long accountId);
 
+    // Applies a signed delta in a single statement so concurrent posts can't lose updates
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :delta WHERE a.accountId = :accountId AND a.isActive = true")
+    int adjustBalance(@Param("accountId") Long accountId, @Param("delta") BigDecimal delta);
+
+    // Debits only when the account is active and can cover the amount; 0 rows means neither held
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount " +
+            "WHERE a.accountId = :accountId AND a.isActive = true AND a.balance >= :amount")
+    int debitIfSufficient(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
     @Query(value = "SELECT SUM(balance) FROM accounts WHERE user_id = :userId GROUP BY user_id", nativeQuery = true)
     BigDecimal getTotalBalanceByUserId(@Param("userId") Long userId);
 
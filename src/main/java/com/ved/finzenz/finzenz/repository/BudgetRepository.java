@@ -1,9 +1,15 @@
 package com.ved.finzenz.finzenz.repository;
 
+import com.ved.finzenz.finzenz.dto.BudgetSpending;
 import com.ved.finzenz.finzenz.entities.Budget;
+import jakarta.persistence.QueryHint;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -14,6 +20,9 @@ public interface BudgetRepository extends JpaRepository<Budget, Integer> {
     List<Budget> findByUserId(Integer userId);
     List<Budget> findByCategory(String category);
     List<Budget> findByUserIdAndCategoryIgnoreCase(Integer userId, String category);
+
+    @Query("SELECT b.userId FROM Budget b WHERE b.id = :id")
+    Integer findUserIdByBudgetId(@Param("id") Integer id);
     @Query("""
     SELECT b FROM Budget b
     WHERE b.userId = :userId
@@ -23,4 +32,60 @@ public interface BudgetRepository extends JpaRepository<Budget, Integer> {
 """)
     List<Budget> findActiveBudgets(Integer userId, String category, LocalDate date);
 
+    // Budgets active on :date, each with the spending (from spending_rollups) inside its own window
+    @Query(value = """
+    SELECT b.id AS budgetId, b.category AS category, b.amount AS amount,
+           COALESCE(SUM(r.total_amount), 0) AS spent
+    FROM budgets b
+    LEFT JOIN spending_rollups r
+           ON r.user_id = b.user_id
+          AND r.category = LOWER(TRIM(b.category))
+          AND r.spend_date >= b.start_date
+          AND r.spend_date <= b.end_date
+    WHERE b.user_id = :userId
+      AND LOWER(b.category) = LOWER(:category)
+      AND b.start_date <= :date
+      AND b.end_date >= :date
+    GROUP BY b.id, b.category, b.amount
+""", nativeQuery = true)
+    List<BudgetSpending> findActiveBudgetSpending(@Param("userId") Integer userId,
+                                                  @Param("category") String category,
+                                                  @Param("date") LocalDate date);
+
+    @Query(value = """
+    SELECT b.id AS budgetId, b.category AS category, b.amount AS amount,
+           COALESCE(SUM(r.total_amount), 0) AS spent
+    FROM budgets b
+    LEFT JOIN spending_rollups r
+           ON r.user_id = b.user_id
+          AND r.category = LOWER(TRIM(b.category))
+          AND r.spend_date >= b.start_date
+          AND r.spend_date <= b.end_date
+    WHERE b.user_id = :userId
+      AND b.start_date <= :date
+      AND b.end_date >= :date
+    GROUP BY b.id, b.category, b.amount
+""", nativeQuery = true)
+    List<BudgetSpending> findAllActiveBudgetSpending(@Param("userId") Integer userId,
+                                                     @Param("date") LocalDate date);
+
+    // ------------------- Alert state (budget_alert_state, see BudgetThresholdTracker) -------------------
+
+    // Locks the budget's alert row, serialising evaluations of that budget; null if it has none yet
+    @Query(value = "SELECT threshold FROM budget_alert_state WHERE budget_id = :budgetId FOR UPDATE",
+            nativeQuery = true)
+    Integer findAlertThresholdForUpdate(@Param("budgetId") Integer budgetId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "budget_alert_state"))
+    @Query(value = "INSERT INTO budget_alert_state (budget_id, threshold) VALUES (:budgetId, 0) " +
+            "ON CONFLICT (budget_id) DO NOTHING",
+            nativeQuery = true)
+    int insertAlertState(@Param("budgetId") Integer budgetId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "budget_alert_state"))
+    @Query(value = "UPDATE budget_alert_state SET threshold = :threshold WHERE budget_id = :budgetId",
+            nativeQuery = true)
+    int updateAlertThreshold(@Param("budgetId") Integer budgetId, @Param("threshold") int threshold);
 }
@@ -0,0 +1,54 @@
+package com.ved.finzenz.finzenz.repository;
+
+import com.ved.finzenz.finzenz.entities.LoanPaymentRun;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface LoanPaymentRunRepository extends JpaRepository<LoanPaymentRun, LocalDate> {
+
+    List<LoanPaymentRun> findByStatus(LoanPaymentRun.RunStatus status);
+
+    // Every node starts the same run at midnight, so the row is upserted rather than read-then-inserted.
+    // Counters are written explicitly: a table created from the entity has no column defaults
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "loan_payment_runs"))
+    @Query(value = "INSERT INTO loan_payment_runs (run_date, status, started_at, " +
+            "chunks_completed, loans_paid, loans_skipped, loans_failed) " +
+            "VALUES (:runDate, 'RUNNING', :startedAt, 0, 0, 0, 0) " +
+            "ON CONFLICT (run_date) DO UPDATE SET status = 'RUNNING', completed_at = NULL",
+            nativeQuery = true)
+    int markRunning(@Param("runDate") LocalDate runDate, @Param("startedAt") LocalDateTime startedAt);
+
+    // Called by each chunk worker as soon as its own transaction has committed
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanPaymentRun r SET r.chunksCompleted = r.chunksCompleted + 1, " +
+            "r.loansPaid = r.loansPaid + :paid, " +
+            "r.loansSkipped = r.loansSkipped + :skipped, " +
+            "r.loansFailed = r.loansFailed + :failed " +
+            "WHERE r.runDate = :runDate")
+    int recordChunk(@Param("runDate") LocalDate runDate,
+                    @Param("paid") int paid,
+                    @Param("skipped") int skipped,
+                    @Param("failed") int failed);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanPaymentRun r SET r.status = 'COMPLETED', r.completedAt = :completedAt WHERE r.runDate = :runDate")
+    int markCompleted(@Param("runDate") LocalDate runDate, @Param("completedAt") LocalDateTime completedAt);
+}
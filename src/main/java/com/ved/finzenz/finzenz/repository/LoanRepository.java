@@ -1,13 +1,18 @@
     package com.ved.finzenz.finzenz.repository;
 
     import com.ved.finzenz.finzenz.entities.Loan;
+    import org.springframework.data.domain.Limit;
+    import jakarta.persistence.LockModeType;
     import org.springframework.data.jpa.repository.JpaRepository;
+    import org.springframework.data.jpa.repository.Lock;
     import org.springframework.data.jpa.repository.Query;
     import org.springframework.data.repository.query.Param;
     import org.springframework.stereotype.Repository;
 
     import java.time.LocalDate;
+    import java.util.Collection;
     import java.util.List;
+    import java.util.Optional;
 
     @Repository
     public interface LoanRepository extends JpaRepository<Loan, Long> {
@@ -21,6 +26,66 @@
         List<Loan> findByUserId(@Param("userId") Long userId);
 
 
+        // Status and due-date predicates run in SQL, on idx_loans_account_status_due
+        @Query(
+                value = "SELECT l.* FROM loans l " +
+                        "JOIN accounts a ON l.account_id = a.id " +
+                        "WHERE a.user_id = :userId AND l.status = 'ACTIVE'",
+                nativeQuery = true
+        )
+        List<Loan> findActiveByUserId(@Param("userId") Long userId);
+
+        // Active loans due in [from, to), soonest first
+        @Query(
+                value = "SELECT l.* FROM loans l " +
+                        "JOIN accounts a ON l.account_id = a.id " +
+                        "WHERE a.user_id = :userId AND l.status = 'ACTIVE' " +
+                        "AND l.next_due_date >= :from AND l.next_due_date < :to " +
+                        "ORDER BY l.next_due_date",
+                nativeQuery = true
+        )
+        List<Loan> findUpcomingByUserId(@Param("userId") Long userId,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+
+        @Query(
+                value = "SELECT l.* FROM loans l " +
+                        "JOIN accounts a ON l.account_id = a.id " +
+                        "WHERE a.user_id = :userId AND l.status = 'ACTIVE' " +
+                        "AND l.next_due_date < :today " +
+                        "ORDER BY l.next_due_date",
+                nativeQuery = true
+        )
+        List<Loan> findOverdueByUserId(@Param("userId") Long userId, @Param("today") LocalDate today);
+
         List<Loan> findByAccountId(Long accountId);
         List<Loan> findByStatusAndNextDueDateLessThanEqual(Loan.LoanStatus status, LocalDate date);
+
+        // Keyset page of due loan ids for the EMI job; loans already paid on :date are left out
+        @Query("SELECT l.id FROM Loan l " +
+                "WHERE l.status = :status AND l.nextDueDate <= :date " +
+                "AND (l.lastPaymentDate IS NULL OR l.lastPaymentDate < :date) " +
+                "AND l.id > :afterId " +
+                "ORDER BY l.id")
+        List<Long> findDueLoanIds(@Param("status") Loan.LoanStatus status,
+                                  @Param("date") LocalDate date,
+                                  @Param("afterId") Long afterId,
+                                  Limit limit);
+
+        // Locks the given loans that are still due; rows another node already holds are skipped, not waited on
+        @Query(value = "SELECT l.* FROM loans l " +
+                "WHERE l.id IN (:ids) " +
+                "AND l.status = 'ACTIVE' AND l.next_due_date <= :date " +
+                "AND (l.last_payment_date IS NULL OR l.last_payment_date < :date) " +
+                "ORDER BY l.id " +
+                "FOR UPDATE SKIP LOCKED",
+                nativeQuery = true)
+        List<Loan> claimDueLoans(@Param("ids") Collection<Long> ids, @Param("date") LocalDate date);
+
+        @Query("SELECT a.user.id FROM Loan l, Account a WHERE l.id = :loanId AND a.accountId = l.accountId")
+        Long findUserIdByLoanId(@Param("loanId") Long loanId);
+
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT l FROM Loan l WHERE l.id = :id")
+        Optional<Loan> findByIdForUpdate(@Param("id") Long id);
     }
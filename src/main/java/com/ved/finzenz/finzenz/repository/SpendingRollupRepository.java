@@ -0,0 +1,144 @@
+package com.ved.finzenz.finzenz.repository;
+
+import com.ved.finzenz.finzenz.dto.CategoryTotal;
+import com.ved.finzenz.finzenz.dto.RollupDiscrepancy;
+import com.ved.finzenz.finzenz.entities.SpendingRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface SpendingRollupRepository extends JpaRepository<SpendingRollup, Long> {
+
+    // Native writes name the table they touch (HINT_NATIVE_SPACES); otherwise Hibernate
+    // clears every second-level cache region after each one.
+    // Categories are stored trimmed and lower-cased (SpendingRollupServiceImpl.categoryKey), so
+    // reads compare them directly and the unique key folds "Dining" and "dining " together.
+
+    // Adds (or with negative values, removes) spending for the account owner's (category, day) bucket
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Query(value = "INSERT INTO spending_rollups (user_id, category, spend_date, total_amount, transaction_count) " +
+            "SELECT a.user_id, :category, :spendDate, :amount, :count FROM accounts a WHERE a.id = :accountId " +
+            "ON CONFLICT (user_id, category, spend_date) DO UPDATE SET " +
+            "total_amount = spending_rollups.total_amount + EXCLUDED.total_amount, " +
+            "transaction_count = spending_rollups.transaction_count + EXCLUDED.transaction_count",
+            nativeQuery = true)
+    int addSpending(@Param("accountId") Long accountId,
+                    @Param("category") String category,
+                    @Param("spendDate") LocalDate spendDate,
+                    @Param("amount") BigDecimal amount,
+                    @Param("count") long count);
+
+    // Batch form of addSpending: element i of each array is one (account, category, day) bucket.
+    // Buckets are merged per user and written in (user, category, day) order, so concurrent
+    // batches lock rollup rows in the same order and can't deadlock on them.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Query(value = "INSERT INTO spending_rollups (user_id, category, spend_date, total_amount, transaction_count) " +
+            "SELECT a.user_id, b.category, b.spend_date, SUM(b.amount), SUM(b.count) " +
+            "FROM unnest(CAST(:accountIds AS bigint[]), CAST(:categories AS text[]), CAST(:spendDates AS date[]), " +
+            "            CAST(:amounts AS numeric[]), CAST(:counts AS bigint[])) " +
+            "     AS b(account_id, category, spend_date, amount, count) " +
+            "JOIN accounts a ON a.id = b.account_id " +
+            "GROUP BY a.user_id, b.category, b.spend_date " +
+            "ORDER BY a.user_id, b.category, b.spend_date " +
+            "ON CONFLICT (user_id, category, spend_date) DO UPDATE SET " +
+            "total_amount = spending_rollups.total_amount + EXCLUDED.total_amount, " +
+            "transaction_count = spending_rollups.transaction_count + EXCLUDED.transaction_count",
+            nativeQuery = true)
+    int addSpendingBatch(@Param("accountIds") Long[] accountIds,
+                         @Param("categories") String[] categories,
+                         @Param("spendDates") LocalDate[] spendDates,
+                         @Param("amounts") BigDecimal[] amounts,
+                         @Param("counts") Long[] counts);
+
+    @Query(value = "SELECT COALESCE(SUM(r.total_amount), 0) FROM spending_rollups r " +
+            "WHERE r.user_id = :userId AND r.category = :category",
+            nativeQuery = true)
+    BigDecimal sumSpending(@Param("userId") Long userId, @Param("category") String category);
+
+    // Inclusive on both dates
+    @Query(value = "SELECT COALESCE(SUM(r.total_amount), 0) FROM spending_rollups r " +
+            "WHERE r.user_id = :userId AND r.category = :category " +
+            "AND r.spend_date >= :fromDate AND r.spend_date <= :toDate",
+            nativeQuery = true)
+    BigDecimal sumSpendingBetween(@Param("userId") Long userId,
+                                  @Param("category") String category,
+                                  @Param("fromDate") LocalDate fromDate,
+                                  @Param("toDate") LocalDate toDate);
+
+    @Query(value = "SELECT r.category AS category, SUM(r.total_amount) AS total FROM spending_rollups r " +
+            "WHERE r.user_id = :userId " +
+            "GROUP BY r.category " +
+            "HAVING SUM(r.total_amount) <> 0 " +
+            "ORDER BY total DESC",
+            nativeQuery = true)
+    List<CategoryTotal> sumSpendingGroupByCategory(@Param("userId") Long userId);
+
+    // ------------------- Rebuild / consistency -------------------
+
+    // Held by a rebuild until it commits. Writers (ROW EXCLUSIVE) queue behind it, so a posting
+    // can't land between the delete and the re-insert and be wiped out; reads still go through.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Query(value = "LOCK TABLE spending_rollups IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Query(value = "DELETE FROM spending_rollups WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Query(value = "INSERT INTO spending_rollups (user_id, category, spend_date, total_amount, transaction_count) " +
+            "SELECT a.user_id, LOWER(TRIM(COALESCE(t.category, ''))), CAST(t.transaction_date AS date), SUM(t.amount), COUNT(*) " +
+            "FROM transactions t JOIN accounts a ON t.account_id = a.id " +
+            "WHERE a.user_id = :userId AND t.transaction_type = 'DEBIT' " +
+            "GROUP BY a.user_id, LOWER(TRIM(COALESCE(t.category, ''))), CAST(t.transaction_date AS date)",
+            nativeQuery = true)
+    int rebuildForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Query(value = "DELETE FROM spending_rollups", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Query(value = "INSERT INTO spending_rollups (user_id, category, spend_date, total_amount, transaction_count) " +
+            "SELECT a.user_id, LOWER(TRIM(COALESCE(t.category, ''))), CAST(t.transaction_date AS date), SUM(t.amount), COUNT(*) " +
+            "FROM transactions t JOIN accounts a ON t.account_id = a.id " +
+            "WHERE t.transaction_type = 'DEBIT' " +
+            "GROUP BY a.user_id, LOWER(TRIM(COALESCE(t.category, ''))), CAST(t.transaction_date AS date)",
+            nativeQuery = true)
+    int rebuildAll();
+
+    @Query(value = "SELECT COALESCE(raw.category, r.category) AS category, " +
+            "COALESCE(raw.spend_date, r.spend_date) AS spendDate, " +
+            "COALESCE(raw.total, 0) AS rawTotal, " +
+            "COALESCE(r.total_amount, 0) AS rollupTotal " +
+            "FROM (SELECT LOWER(TRIM(COALESCE(t.category, ''))) AS category, CAST(t.transaction_date AS date) AS spend_date, " +
+            "             SUM(t.amount) AS total " +
+            "      FROM transactions t JOIN accounts a ON t.account_id = a.id " +
+            "      WHERE a.user_id = :userId AND t.transaction_type = 'DEBIT' " +
+            "      GROUP BY 1, 2) raw " +
+            "FULL OUTER JOIN (SELECT category, spend_date, total_amount FROM spending_rollups WHERE user_id = :userId) r " +
+            "ON r.category = raw.category AND r.spend_date = raw.spend_date " +
+            "WHERE COALESCE(raw.total, 0) <> COALESCE(r.total_amount, 0) " +
+            "ORDER BY 2, 1",
+            nativeQuery = true)
+    List<RollupDiscrepancy> findDiscrepancies(@Param("userId") Long userId);
+}
@@ -1,18 +1,34 @@
 package com.ved.finzenz.finzenz.repository;
 
 
+import com.ved.finzenz.finzenz.dto.LoanInstallmentKey;
+import com.ved.finzenz.finzenz.dto.TransactionTypeTotal;
 import com.ved.finzenz.finzenz.entities.Transaction;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
 
+    // Row lock so concurrent edits of one transaction reverse its old balance delta only once
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") Integer id);
+
+    @Query("SELECT a.user.id FROM Transaction t, Account a WHERE t.id = :id AND a.accountId = t.accountId")
+    Long findUserIdByTransactionId(@Param("id") Integer id);
+
     // Native query: find all transactions by userId
     @Query(
             value = "SELECT t.* FROM transactions t " +
@@ -22,6 +38,32 @@ public interface TransactionRepository extends JpaRepository<Transaction, Intege
     )
     List<Transaction> findByUserId(@Param("userId") Integer userId);
 
+    // Keyset pagination: newest first, ordered by (transaction_date, id)
+    @Query(
+            value = "SELECT t.* FROM transactions t " +
+                    "JOIN accounts a ON t.account_id = a.id " +
+                    "WHERE a.user_id = :userId " +
+                    "ORDER BY t.transaction_date DESC, t.id DESC " +
+                    "LIMIT :limit",
+            nativeQuery = true
+    )
+    List<Transaction> findFirstPageByUserId(@Param("userId") Integer userId, @Param("limit") int limit);
+
+    @Query(
+            value = "SELECT t.* FROM transactions t " +
+                    "JOIN accounts a ON t.account_id = a.id " +
+                    "WHERE a.user_id = :userId " +
+                    "AND (t.transaction_date, t.id) < (:cursorDate, :cursorId) " +
+                    "ORDER BY t.transaction_date DESC, t.id DESC " +
+                    "LIMIT :limit",
+            nativeQuery = true
+    )
+    List<Transaction> findPageByUserIdAfter(
+            @Param("userId") Integer userId,
+            @Param("cursorDate") LocalDateTime cursorDate,
+            @Param("cursorId") Integer cursorId,
+            @Param("limit") int limit);
+
     // Find all transactions for an account
     List<Transaction> findByAccountId(Integer accountId);
 
@@ -40,21 +82,64 @@ public interface TransactionRepository extends JpaRepository<Transaction, Intege
             Transaction.TransactionType transactionType
     );
 
-    // Search by description keyword
-    List<Transaction> findByAccountIdAndDescriptionContainingIgnoreCase(
-            Integer accountId,
-            String keyword
-    );
+    // Full-text search on description/category via the stored description_tsv column.
+    // :query is a to_tsquery expression, e.g. "uber:* & trip:*"; best matches first.
+    @Query(value = "SELECT t.* FROM transactions t " +
+            "JOIN accounts a ON t.account_id = a.id " +
+            "CROSS JOIN to_tsquery('simple', :query) q " +
+            "WHERE a.user_id = :userId " +
+            "AND t.description_tsv @@ q " +
+            "ORDER BY ts_rank(t.description_tsv, q) DESC, t.transaction_date DESC, t.id DESC " +
+            "LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<Transaction> searchByUserId(
+            @Param("userId") Integer userId,
+            @Param("query") String query,
+            @Param("limit") int limit,
+            @Param("offset") long offset);
+
+    // Which of these statement-row hashes were already imported into the account
+    @Query("SELECT t.importHash FROM Transaction t WHERE t.accountId = :accountId AND t.importHash IN :hashes")
+    Set<String> findExistingImportHashes(
+            @Param("accountId") Long accountId,
+            @Param("hashes") Collection<String> hashes);
 
+    // Installments of these loans that already have an EMI transaction
+    @Query("SELECT t.loanId AS loanId, t.installmentNumber AS installmentNumber FROM Transaction t " +
+            "WHERE t.loanId IN :loanIds")
+    List<LoanInstallmentKey> findInstallmentKeysByLoanIds(@Param("loanIds") Collection<Long> loanIds);
+
+    // Half-open range [from, to) on transaction_date; served by idx_transactions_account_date
     @Query(value = "SELECT t.* FROM transactions t " +
             "JOIN accounts a ON t.account_id = a.id " +
             "WHERE a.user_id = :userId " +
-            "AND EXTRACT(MONTH FROM t.transaction_date) = :month " +
-            "AND EXTRACT(YEAR FROM t.transaction_date) = :year",
+            "AND t.transaction_date >= :from " +
+            "AND t.transaction_date < :to " +
+            "ORDER BY t.transaction_date",
             nativeQuery = true)
-    List<Transaction> findUserMonthlyTransactions(
+    List<Transaction> findByUserIdAndTransactionDateRange(
             @Param("userId") Integer userId,
-            @Param("month") int month,
-            @Param("year") int year);
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // ------------------- Aggregates (computed in SQL) -------------------
+
+    @Query(value = "SELECT COALESCE(SUM(t.amount), 0) FROM transactions t " +
+            "JOIN accounts a ON t.account_id = a.id " +
+            "WHERE a.user_id = :userId " +
+            "AND t.transaction_type = :transactionType",
+            nativeQuery = true)
+    BigDecimal sumAmountByUserIdAndType(
+            @Param("userId") Integer userId,
+            @Param("transactionType") String transactionType);
+
+    @Query(value = "SELECT t.transaction_type AS transactionType, SUM(t.amount) AS total " +
+            "FROM transactions t " +
+            "JOIN accounts a ON t.account_id = a.id " +
+            "WHERE a.user_id = :userId " +
+            "GROUP BY t.transaction_type",
+            nativeQuery = true)
+    List<TransactionTypeTotal> sumAmountByUserIdGroupByType(@Param("userId") Integer userId);
+
 
 }
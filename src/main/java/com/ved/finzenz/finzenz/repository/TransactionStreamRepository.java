@@ -0,0 +1,56 @@
+package com.ved.finzenz.finzenz.repository;
+
+import com.ved.finzenz.finzenz.entities.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+/**
+ * Cursor-based reads that bypass the persistence context, so rows can be
+ * handed off one at a time without being held by Hibernate.
+ * Callers must run inside a transaction: the PostgreSQL driver only honours
+ * the fetch size when auto-commit is off.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionStreamRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final RowMapper<Transaction> TRANSACTION_ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp transactionDate = rs.getTimestamp("transaction_date");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        String type = rs.getString("transaction_type");
+        return Transaction.builder()
+                .id(rs.getInt("id"))
+                .accountId(rs.getLong("account_id"))
+                .amount(rs.getBigDecimal("amount"))
+                .transactionDate(transactionDate != null ? transactionDate.toLocalDateTime() : null)
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .description(rs.getString("description"))
+                .transactionType(type != null ? Transaction.TransactionType.valueOf(type) : null)
+                .category(rs.getString("category"))
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void streamByUserId(Long userId, Consumer<Transaction> consumer) {
+        String sql = "SELECT t.* FROM transactions t " +
+                "JOIN accounts a ON t.account_id = a.id " +
+                "WHERE a.user_id = ? " +
+                "ORDER BY t.transaction_date DESC, t.id DESC";
+
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, userId);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(TRANSACTION_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+}
@@ -0,0 +1,32 @@
+package com.ved.finzenz.finzenz.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+
+/**
+ * Streams every registered email with a server-side cursor, so the whole users table never
+ * has to fit in memory. Runs in its own read-only transaction because the PostgreSQL driver
+ * only honours the fetch size when auto-commit is off.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserEmailStreamRepository {
+
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public void streamEmails(Consumer<String> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT email FROM users");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getString(1)));
+    }
+}
@@ -0,0 +1,141 @@
+package com.ved.finzenz.finzenz.scheduler;
+
+import com.ved.finzenz.finzenz.alerts.TransactionPostedEvent;
+import com.ved.finzenz.finzenz.balance.BalanceCache;
+import com.ved.finzenz.finzenz.dto.LoanInstallmentKey;
+import com.ved.finzenz.finzenz.entities.Loan;
+import com.ved.finzenz.finzenz.entities.Loan.LoanStatus;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.LoanRepository;
+import com.ved.finzenz.finzenz.repository.TransactionRepository;
+import com.ved.finzenz.finzenz.service.SpendingRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pays the EMIs of one chunk of loans in a single transaction of its own, so a failure
+ * only rolls back that chunk and everything committed before it stays paid. The loan rows
+ * stay locked until that transaction commits. Each loan is brought fully up to date: after
+ * downtime all missed installments are posted in this one pass, keyed by (loan, installment).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoanPaymentChunkProcessor {
+
+    static final String EMI_CATEGORY = "Loan EMI";
+
+    private final LoanRepository loanRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final BalanceCache balanceCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public record ChunkResult(int paid, int skipped, int failed) {
+        ChunkResult plus(ChunkResult other) {
+            return new ChunkResult(paid + other.paid, skipped + other.skipped, failed + other.failed);
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public ChunkResult processChunk(Collection<Long> loanIds, LocalDate runDate) {
+        // Only loans still due once locked; the rest were paid, closed or claimed by another node
+        List<Loan> loans = new ArrayList<>(loanRepository.claimDueLoans(loanIds, runDate));
+        // Debit accounts in id order: chunks run in parallel and a user's loans can fall into
+        // different chunks, so any other order could make two chunks wait on each other's accounts
+        loans.sort(Comparator.comparing(Loan::getAccountId).thenComparing(Loan::getId));
+        Map<Long, Set<Integer>> alreadyPaid = loans.isEmpty() ? Map.of() : paidInstallments(loans);
+        List<Transaction> payments = new ArrayList<>();
+        int paidLoans = 0;
+        int skipped = loanIds.size() - loans.size();
+
+        for (Loan loan : loans) {
+            int posted = catchUp(loan, runDate, alreadyPaid.getOrDefault(loan.getId(), Set.of()), payments);
+            if (posted > 0) {
+                paidLoans++;
+            } else {
+                skipped++;
+            }
+        }
+
+        // Inserts go out in JDBC batches; the managed loans are flushed as batched updates at commit
+        transactionRepository.saveAll(payments);
+        spendingRollupService.recordTransactions(payments);
+        TransactionPostedEvent.forBatch(payments).forEach(eventPublisher::publishEvent);
+
+        return new ChunkResult(paidLoans, skipped, 0);
+    }
+
+    /**
+     * Posts every installment whose scheduled due date is on or before the run date, oldest
+     * first, stopping early if the account can't cover the next one. Installments that already
+     * have a transaction are counted as paid without charging again.
+     */
+    private int catchUp(Loan loan, LocalDate runDate, Set<Integer> alreadyPaid, List<Transaction> payments) {
+        int posted = 0;
+        int installment = loan.getCompletedInstallments() + 1;
+
+        while (installment <= loan.getTotalInstallments()) {
+            LocalDate dueDate = loan.installmentDueDate(installment);
+            if (dueDate.isAfter(runDate)) {
+                break;
+            }
+            if (!alreadyPaid.contains(installment)) {
+                if (accountRepository.debitIfSufficient(loan.getAccountId(), loan.getEmiAmount()) == 0) {
+                    log.warn("Stopping EMI catch-up for loan ID {} at installment {}: account {} is closed or has insufficient balance",
+                            loan.getId(), installment, loan.getAccountId());
+                    break;
+                }
+                balanceCache.balanceChanged(loan.getAccountId());
+                payments.add(Transaction.builder()
+                        .accountId(loan.getAccountId())
+                        .amount(loan.getEmiAmount())
+                        .transactionType(Transaction.TransactionType.DEBIT)
+                        .category(EMI_CATEGORY)
+                        .description("Recurring EMI payment for Loan ID " + loan.getId() +
+                                " (Payment " + installment + " of " + loan.getTotalInstallments() + ")")
+                        .transactionDate(dueDate.atStartOfDay())
+                        .loanId(loan.getId())
+                        .installmentNumber(installment)
+                        .build());
+            }
+            posted++;
+            installment++;
+        }
+
+        if (posted > 0) {
+            loan.setLastPaymentDate(runDate);
+            loan.setCompletedInstallments(loan.getCompletedInstallments() + posted);
+            loan.setNextDueDate(loan.calculateNextDueDate());
+            if (loan.isCompleted()) {
+                loan.setStatus(LoanStatus.CLOSED);
+            }
+        }
+        return posted;
+    }
+
+    private Map<Long, Set<Integer>> paidInstallments(List<Loan> loans) {
+        List<Long> ids = loans.stream().map(Loan::getId).toList();
+        Map<Long, Set<Integer>> paid = new HashMap<>();
+        for (LoanInstallmentKey key : transactionRepository.findInstallmentKeysByLoanIds(ids)) {
+            paid.computeIfAbsent(key.getLoanId(), id -> new HashSet<>()).add(key.getInstallmentNumber());
+        }
+        return paid;
+    }
+}
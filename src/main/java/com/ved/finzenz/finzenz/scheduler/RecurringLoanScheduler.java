@@ -1,77 +1,159 @@
 package com.ved.finzenz.finzenz.scheduler;
 
-import com.ved.finzenz.finzenz.entities.Loan;
 import com.ved.finzenz.finzenz.entities.Loan.LoanStatus;
-import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.entities.LoanPaymentRun;
+import com.ved.finzenz.finzenz.repository.LoanPaymentRunRepository;
 import com.ved.finzenz.finzenz.repository.LoanRepository;
-import com.ved.finzenz.finzenz.repository.TransactionRepository;
-import lombok.RequiredArgsConstructor;
+import com.ved.finzenz.finzenz.scheduler.LoanPaymentChunkProcessor.ChunkResult;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Daily EMI job. Due loan ids are paged by keyset (id order) and handed out in chunks to a
+ * bounded pool; each chunk is paid in its own transaction by {@link LoanPaymentChunkProcessor}.
+ * Paid loans get last_payment_date = run date and drop out of the due query, so re-running
+ * the same day (e.g. resuming after a crash) only picks up what is left.
+ *
+ * Safe to run on every node: all nodes page the same ids, but a chunk only pays the loans it
+ * manages to lock (FOR UPDATE SKIP LOCKED) and that are still unpaid once locked, so nodes
+ * split the due loans between them instead of paying any of them twice.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class RecurringLoanScheduler {
 
     private final LoanRepository loanRepository;
-    private final TransactionRepository transactionRepository;
+    private final LoanPaymentRunRepository runRepository;
+    private final LoanPaymentChunkProcessor chunkProcessor;
+    private final int chunkSize;
+    private final ThreadPoolExecutor chunkExecutor;
+
+    public RecurringLoanScheduler(LoanRepository loanRepository,
+                                  LoanPaymentRunRepository runRepository,
+                                  LoanPaymentChunkProcessor chunkProcessor,
+                                  @Value("${finzenz.loan-scheduler.chunk-size:200}") int chunkSize,
+                                  @Value("${finzenz.loan-scheduler.parallelism:4}") int parallelism) {
+        this.loanRepository = loanRepository;
+        this.runRepository = runRepository;
+        this.chunkProcessor = chunkProcessor;
+        this.chunkSize = chunkSize;
+
+        // Small queue + caller-runs: the paging thread slows down instead of buffering every id in memory
+        AtomicInteger threadCount = new AtomicInteger();
+        this.chunkExecutor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "loan-emi-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
 
     /**
      * Runs every day at midnight
      */
     @Scheduled(cron = "0 0 0 * * *")
-    @Transactional
     public void processRecurringLoanPayments() {
-        log.info("Starting recurring loan payment job...");
-
-        List<Loan> dueLoans = loanRepository.findByStatusAndNextDueDateLessThanEqual(
-                LoanStatus.ACTIVE,
-                LocalDate.now()
-        );
+        processRun(LocalDate.now());
+    }
 
-        for (Loan loan : dueLoans) {
-            try {
-                processLoanPayment(loan);
-            } catch (Exception e) {
-                log.error("Failed to process loan ID {}: {}", loan.getId(), e.getMessage(), e);
-            }
+    // Finish any run a crash or shutdown interrupted
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRuns() {
+        for (LoanPaymentRun run : runRepository.findByStatus(LoanPaymentRun.RunStatus.RUNNING)) {
+            log.info("Resuming recurring loan payment run for {}", run.getRunDate());
+            processRun(run.getRunDate());
         }
-
-        log.info("Recurring loan payment job completed.");
     }
 
-    private void processLoanPayment(Loan loan) {
-        BigDecimal emiAmount = loan.getEmiAmount();
+    private void processRun(LocalDate runDate) {
+        log.info("Starting recurring loan payment job for {}...", runDate);
+        long started = System.nanoTime();
 
-        // Create a transaction
-        Transaction transaction = Transaction.builder()
-                .accountId(loan.getAccountId())
-                .amount(emiAmount)
-                .transactionType(Transaction.TransactionType.DEBIT) // Assuming debit from borrower
-                .description("Recurring EMI payment for Loan ID " + loan.getId())
-                .transactionDate(LocalDate.now().atStartOfDay())
-                .build();
+        runRepository.markRunning(runDate, LocalDateTime.now());
 
-        transactionRepository.save(transaction);
+        List<CompletableFuture<ChunkResult>> chunks = new ArrayList<>();
+        long afterId = 0L;
+        while (true) {
+            List<Long> loanIds = loanRepository.findDueLoanIds(LoanStatus.ACTIVE, runDate, afterId, Limit.of(chunkSize));
+            if (loanIds.isEmpty()) {
+                break;
+            }
+            afterId = loanIds.get(loanIds.size() - 1);
+            if (chunkExecutor.isShutdown()) {
+                // Shutting down: leave the run RUNNING so it's resumed on the next start
+                log.warn("Recurring loan payment job for {} stopped at loan ID {}: shutting down", runDate, loanIds.get(0));
+                return;
+            }
+            // A chunk that throws past its own retry still counts as failed, so the run can complete
+            chunks.add(CompletableFuture.supplyAsync(() -> processChunk(loanIds, runDate), chunkExecutor)
+                    .exceptionally(e -> {
+                        log.error("Chunk of {} loans starting at ID {} failed: {}", loanIds.size(), loanIds.get(0), e.getMessage(), e);
+                        return new ChunkResult(0, 0, loanIds.size());
+                    }));
+        }
+
+        ChunkResult total = chunks.stream()
+                .map(CompletableFuture::join)
+                .reduce(new ChunkResult(0, 0, 0), ChunkResult::plus);
+        runRepository.markCompleted(runDate, LocalDateTime.now());
 
-        // Update loan
-        loan.setLastPaymentDate(LocalDate.now());
-        loan.setCompletedInstallments(loan.getCompletedInstallments() + 1);
-        loan.setNextDueDate(loan.calculateNextDueDate());
+        log.info("Recurring loan payment job for {} completed: {} chunks, {} paid, {} skipped, {} failed in {} ms",
+                runDate, chunks.size(), total.paid(), total.skipped(), total.failed(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
 
-        if (loan.isCompleted()) {
-            loan.setStatus(LoanStatus.CLOSED);
+    private ChunkResult processChunk(List<Long> loanIds, LocalDate runDate) {
+        long started = System.nanoTime();
+        ChunkResult result;
+        try {
+            result = chunkProcessor.processChunk(loanIds, runDate);
+        } catch (Exception e) {
+            // The chunk rolled back as a whole; retry loan by loan so one bad row only costs itself
+            log.warn("Chunk of {} loans starting at ID {} failed, retrying individually: {}",
+                    loanIds.size(), loanIds.get(0), e.getMessage());
+            result = processIndividually(loanIds, runDate);
         }
+        runRepository.recordChunk(runDate, result.paid(), result.skipped(), result.failed());
+
+        log.info("Loan chunk {}..{}: {} paid, {} skipped, {} failed in {} ms",
+                loanIds.get(0), loanIds.get(loanIds.size() - 1), result.paid(), result.skipped(), result.failed(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return result;
+    }
 
-        loanRepository.save(loan);
+    private ChunkResult processIndividually(List<Long> loanIds, LocalDate runDate) {
+        ChunkResult result = new ChunkResult(0, 0, 0);
+        for (Long loanId : loanIds) {
+            try {
+                result = result.plus(chunkProcessor.processChunk(List.of(loanId), runDate));
+            } catch (Exception e) {
+                log.error("Failed to process loan ID {}: {}", loanId, e.getMessage(), e);
+                result = result.plus(new ChunkResult(0, 0, 1));
+            }
+        }
+        return result;
+    }
 
-        log.info("Processed EMI payment for Loan ID {}", loan.getId());
+    @PreDestroy
+    void shutdown() {
+        chunkExecutor.shutdownNow();
     }
 }
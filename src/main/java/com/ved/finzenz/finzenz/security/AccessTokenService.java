@@ -0,0 +1,125 @@
+package com.ved.finzenz.finzenz.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.exceptions.InvalidTokenException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies compact HS256 JWTs ("header.payload.signature", base64url without padding).
+ * Verification is an HMAC over the first two segments plus a JSON parse of the payload: no
+ * database access, so any node holding the signing keys can authenticate any request.
+ */
+@Component
+public class AccessTokenService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static final String ROLE_USER = "USER";
+    public static final String ROLE_ADMIN = "ADMIN";
+
+    private final TokenKeyRing keyRing;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Set<String> adminEmails;
+
+    public AccessTokenService(TokenKeyRing keyRing, ObjectMapper objectMapper,
+                              @Value("${finzenz.security.token.ttl:PT1H}") Duration ttl,
+                              @Value("${finzenz.security.admin-emails:}") String adminEmails) {
+        this.keyRing = keyRing;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(email -> email.trim().toLowerCase(Locale.ROOT))
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    public IssuedToken issue(User user) {
+        String keyId = keyRing.activeKeyId();
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+
+        ObjectNode header = objectMapper.createObjectNode()
+                .put("alg", "HS256")
+                .put("typ", "JWT")
+                .put("kid", keyId);
+        ObjectNode payload = objectMapper.createObjectNode()
+                .put("sub", String.valueOf(user.getId()))
+                .put("email", user.getEmail())
+                .put("iat", now.getEpochSecond())
+                .put("exp", expiresAt.getEpochSecond());
+        ArrayNode roles = payload.putArray("roles").add(ROLE_USER);
+        // Granted at issue time: removing an admin takes effect when their current token expires
+        if (user.getEmail() != null && adminEmails.contains(user.getEmail().toLowerCase(Locale.ROOT))) {
+            roles.add(ROLE_ADMIN);
+        }
+
+        String signingInput = encode(header) + "." + encode(payload);
+        byte[] signature = keyRing.sign(keyId, signingInput.getBytes(StandardCharsets.US_ASCII));
+        return new IssuedToken(signingInput + "." + ENCODER.encodeToString(signature), expiresAt);
+    }
+
+    public AuthenticatedUser verify(String token) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || lastDot == token.length() - 1) {
+            throw new InvalidTokenException("Malformed token");
+        }
+
+        try {
+            JsonNode header = objectMapper.readTree(DECODER.decode(token.substring(0, firstDot)));
+            // Only HS256 is accepted; in particular "none" and asymmetric algorithms are rejected
+            if (!"HS256".equals(header.path("alg").asText())) {
+                throw new InvalidTokenException("Unsupported token algorithm");
+            }
+
+            byte[] expected = keyRing.signIfKnown(header.path("kid").asText(),
+                    token.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+            if (expected == null || !MessageDigest.isEqual(expected, DECODER.decode(token.substring(lastDot + 1)))) {
+                throw new InvalidTokenException("Invalid token signature");
+            }
+
+            JsonNode payload = objectMapper.readTree(DECODER.decode(token.substring(firstDot + 1, lastDot)));
+            if (Instant.now().getEpochSecond() >= payload.path("exp").asLong(0)) {
+                throw new InvalidTokenException("Token has expired");
+            }
+            List<String> roles = new ArrayList<>();
+            payload.path("roles").forEach(role -> roles.add(role.asText()));
+            return new AuthenticatedUser(Long.valueOf(payload.path("sub").asText()), payload.path("email").asText(null),
+                    List.copyOf(roles));
+        } catch (IOException | IllegalArgumentException e) {
+            // Bad base64, bad JSON or a non-numeric subject
+            throw new InvalidTokenException("Malformed token");
+        }
+    }
+
+    private String encode(JsonNode node) {
+        try {
+            return ENCODER.encodeToString(objectMapper.writeValueAsBytes(node));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialise token", e);
+        }
+    }
+}
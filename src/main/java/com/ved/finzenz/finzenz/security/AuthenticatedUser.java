@@ -0,0 +1,10 @@
+package com.ved.finzenz.finzenz.security;
+
+import java.util.List;
+
+/**
+ * Principal placed in the security context for requests carrying a valid access token.
+ * Roles come from the token's "roles" claim (e.g. "USER", "ADMIN").
+ */
+public record AuthenticatedUser(Long userId, String email, List<String> roles) {
+}
@@ -0,0 +1,59 @@
+package com.ved.finzenz.finzenz.security;
+
+import com.ved.finzenz.finzenz.exceptions.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs CPU-bound password hashing on a small dedicated pool so a burst of logins can't take
+ * every request thread. The queue is bounded; when it is full new work is rejected with
+ * {@link TooManyRequestsException} (429) instead of queueing without limit.
+ */
+@Component
+public class CredentialVerificationPool {
+
+    private final ThreadPoolExecutor executor;
+
+    public CredentialVerificationPool(
+            @Value("${finzenz.security.login.threads:0}") int threads,
+            @Value("${finzenz.security.login.queue-capacity:200}") int queueCapacity) {
+        // Default to half the cores so hashing never starves the rest of the API
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "credential-verify-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Too many login attempts in progress, please retry shortly");
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ved.finzenz.finzenz.security;
+
+import com.ved.finzenz.finzenz.importer.ImportJob;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.BudgetRepository;
+import com.ved.finzenz.finzenz.repository.LoanRepository;
+import com.ved.finzenz.finzenz.repository.TransactionRepository;
+import com.ved.finzenz.finzenz.service.StatementImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Ownership rules for @PreAuthorize, e.g. {@code @PreAuthorize("@ownership.ownsAccount(#accountId)")}.
+ * Each check compares the caller's user id (from the access token) with the owner of the path or
+ * body id, at the cost of one indexed lookup. Ids that don't exist fail the check like ids owned by
+ * someone else, so the 403 doesn't tell a caller which ids are in use.
+ */
+@Component("ownership")
+@RequiredArgsConstructor
+public class OwnershipChecker {
+
+    private final AccountRepository accountRepository;
+    private final LoanRepository loanRepository;
+    private final TransactionRepository transactionRepository;
+    private final BudgetRepository budgetRepository;
+    private final StatementImportService statementImportService;
+
+    public boolean isUser(Number userId) {
+        Long caller = callerId();
+        return caller != null && userId != null && caller == userId.longValue();
+    }
+
+    public boolean ownsAccount(Long accountId) {
+        return accountId != null && isUser(accountRepository.findUserIdByAccountId(accountId));
+    }
+
+    // Every account in the collection; used for batch requests
+    public boolean ownsAccounts(Collection<Long> accountIds) {
+        Long caller = callerId();
+        if (caller == null || accountIds == null || accountIds.contains(null)) {
+            return false;
+        }
+        Set<Long> distinct = new HashSet<>(accountIds);
+        return distinct.isEmpty() || accountRepository.countOwnedByUser(distinct, caller) == distinct.size();
+    }
+
+    public boolean ownsLoan(Long loanId) {
+        return loanId != null && isUser(loanRepository.findUserIdByLoanId(loanId));
+    }
+
+    public boolean ownsTransaction(Integer transactionId) {
+        return transactionId != null && isUser(transactionRepository.findUserIdByTransactionId(transactionId));
+    }
+
+    public boolean ownsBudget(Integer budgetId) {
+        return budgetId != null && isUser(budgetRepository.findUserIdByBudgetId(budgetId));
+    }
+
+    // Import jobs live in memory; a finished job is owned through the account it imported into
+    public boolean ownsImport(String jobId) {
+        ImportJob job = jobId == null ? null : statementImportService.getImport(jobId);
+        return job != null && ownsAccount(job.getAccountId());
+    }
+
+    private static Long callerId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Objects.requireNonNull(user.userId());
+        }
+        return null;
+    }
+}
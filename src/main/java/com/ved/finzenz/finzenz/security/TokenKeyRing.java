@@ -0,0 +1,134 @@
+package com.ved.finzenz.finzenz.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * HMAC-SHA256 signing keys for access tokens, identified by key id ("kid").
+ *
+ * Tokens are signed with the active key and verified with whichever key their header names,
+ * so rotation is: add the new key to finzenz.security.token.keys, make it active, and drop the
+ * old key once the longest token TTL has passed. {@link #rotate} does the same at runtime.
+ * Initialised Mac instances are pooled per key, so verifying costs no key setup. (Not per
+ * thread: with virtual threads every request runs on a new thread and a thread-local would
+ * never be reused.)
+ */
+@Slf4j
+@Component
+public class TokenKeyRing {
+
+    static final String ALGORITHM = "HmacSHA256";
+
+    private record Keys(String activeKeyId, Map<String, SecretKeySpec> byId) {
+    }
+
+    private final AtomicReference<Keys> keys = new AtomicReference<>();
+    // Keyed by the key itself, so a rotation that replaces the secret behind a kid gets fresh Macs
+    private final Map<SecretKeySpec, Queue<Mac>> macs = new ConcurrentHashMap<>();
+
+    /**
+     * @param configuredKeys comma-separated "kid:base64-secret" pairs; when empty a random key is
+     *                       generated, which only works for a single node and doesn't survive restarts
+     */
+    public TokenKeyRing(@Value("${finzenz.security.token.keys:}") String configuredKeys,
+                        @Value("${finzenz.security.token.active-key-id:}") String activeKeyId) {
+        Map<String, SecretKeySpec> byId = new HashMap<>();
+        for (String entry : configuredKeys.split(",")) {
+            if (entry.isBlank()) continue;
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Token keys must be written as kid:base64-secret");
+            }
+            byId.put(entry.substring(0, separator).trim(), toKey(Base64.getDecoder().decode(entry.substring(separator + 1).trim())));
+        }
+
+        if (byId.isEmpty()) {
+            log.warn("No finzenz.security.token.keys configured; generated an ephemeral signing key for this node");
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            byId.put("ephemeral", toKey(secret));
+            activeKeyId = "ephemeral";
+        } else if (activeKeyId.isBlank()) {
+            activeKeyId = byId.keySet().iterator().next();
+        }
+        if (!byId.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("Active token key " + activeKeyId + " is not in finzenz.security.token.keys");
+        }
+        keys.set(new Keys(activeKeyId, Map.copyOf(byId)));
+    }
+
+    public String activeKeyId() {
+        return keys.get().activeKeyId();
+    }
+
+    public byte[] sign(String keyId, byte[] data) {
+        byte[] signature = signIfKnown(keyId, data);
+        if (signature == null) {
+            throw new IllegalStateException("Unknown token key " + keyId);
+        }
+        return signature;
+    }
+
+    // Null when the key id is unknown (never issued here, or already retired)
+    public byte[] signIfKnown(String keyId, byte[] data) {
+        SecretKeySpec key = keys.get().byId().get(keyId);
+        if (key == null) {
+            return null;
+        }
+        Queue<Mac> pool = macs.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>());
+        Mac mac = pool.poll();
+        if (mac == null) {
+            mac = newMac(key);
+        }
+        byte[] signature = mac.doFinal(data);
+        pool.offer(mac);
+        return signature;
+    }
+
+    /**
+     * Adds (or replaces) a key and makes it the signing key. Keys listed in retireKeyIds stop
+     * verifying immediately.
+     */
+    public void rotate(String newKeyId, byte[] secret, String... retireKeyIds) {
+        keys.updateAndGet(current -> {
+            Map<String, SecretKeySpec> byId = new HashMap<>(current.byId());
+            byId.put(newKeyId, toKey(secret));
+            for (String retired : retireKeyIds) {
+                if (!retired.equals(newKeyId)) byId.remove(retired);
+            }
+            return new Keys(newKeyId, Map.copyOf(byId));
+        });
+        macs.keySet().retainAll(keys.get().byId().values());
+        log.info("Token signing key rotated to {}", newKeyId);
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static SecretKeySpec toKey(byte[] secret) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("Token signing keys must be at least 256 bits");
+        }
+        return new SecretKeySpec(secret, ALGORITHM);
+    }
+}
@@ -13,7 +13,10 @@ public interface AccountService {
     Account getAccountbyID(Long accountId);
     BigDecimal getAccountBalance(Long accountId);
     List<Account> getAllAccountsforUser(Long userID);
+    AccountResponse getAccountResponse(Long accountId);
+    List<AccountResponse> getAccountResponsesForUser(Long userId);
     BigDecimal getNetWorth(Long UserID);
+    BigDecimal getNetWorth(Long userId, Account.CurrencyType baseCurrency);
     boolean deleteAccount(Long accountId);
 
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.ved.finzenz.finzenz.service;
 
+import com.ved.finzenz.finzenz.balance.BalanceCache;
 import com.ved.finzenz.finzenz.dto.AccountResponse;
 import com.ved.finzenz.finzenz.entities.Account;
 import com.ved.finzenz.finzenz.entities.User;
 import com.ved.finzenz.finzenz.exceptions.AccountNotFoundException;
 import com.ved.finzenz.finzenz.exceptions.UserNotFoundException;
+import com.ved.finzenz.finzenz.fx.FxRateService;
 import com.ved.finzenz.finzenz.repository.AccountRepository;
 import com.ved.finzenz.finzenz.repository.UserRepository;
 import com.ved.finzenz.finzenz.request.AccountRequest;
@@ -18,10 +20,15 @@ public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
+    private final BalanceCache balanceCache;
+    private final FxRateService fxRateService;
 
-    public AccountServiceImpl(AccountRepository accountRepository, UserRepository userRepository) {
+    public AccountServiceImpl(AccountRepository accountRepository, UserRepository userRepository,
+                              BalanceCache balanceCache, FxRateService fxRateService) {
         this.accountRepository = accountRepository;
         this.userRepository = userRepository;
+        this.balanceCache = balanceCache;
+        this.fxRateService = fxRateService;
     }
 
     @Override
@@ -40,6 +47,7 @@ public class AccountServiceImpl implements AccountService {
         account.setUser(user);
 
         Account saved = accountRepository.save(account);
+        balanceCache.accountsChanged(user.getId());
         return toResponse(saved);
     }
 
@@ -51,6 +59,7 @@ public class AccountServiceImpl implements AccountService {
         account.setCurrency(request.getCurrency());
         account.setInstitutionName(request.getInstitutionName());
         accountRepository.save(account);
+        balanceCache.balanceChanged(accountId);
 
         return toResponse(account);
     }
@@ -81,10 +90,7 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public BigDecimal getAccountBalance(Long accountId) {
-        if(!accountRepository.existsById(accountId)) {
-            throw new AccountNotFoundException("Account with id: " + accountId + "not found");
-        }
-        return accountRepository.findBalanceByAccountId(accountId);
+        return balanceCache.getAccountBalance(accountId);
     }
 
     @Override
@@ -92,9 +98,25 @@ public class AccountServiceImpl implements AccountService {
         return accountRepository.findByUserId(userID);
     }
 
+    @Override
+    public AccountResponse getAccountResponse(Long accountId) {
+        return accountRepository.findAccountResponseById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account with id: " + accountId + " not found"));
+    }
+
+    @Override
+    public List<AccountResponse> getAccountResponsesForUser(Long userId) {
+        return accountRepository.findAccountResponsesByUserId(userId);
+    }
+
     @Override
     public BigDecimal getNetWorth(Long UserID) {
-        return accountRepository.getTotalBalanceByUserId(UserID);
+        return getNetWorth(UserID, Account.CurrencyType.INR);
+    }
+
+    @Override
+    public BigDecimal getNetWorth(Long userId, Account.CurrencyType baseCurrency) {
+        return balanceCache.getNetWorth(userId, fxRateService.getSnapshot(), baseCurrency);
     }
 
     @Override
@@ -102,6 +124,8 @@ public class AccountServiceImpl implements AccountService {
         if(!accountRepository.existsById(accountId)) {
             throw new AccountNotFoundException("Account with id: " + accountId + "not found");
         }
-        return accountRepository.deleteAccountByAccountId(accountId);
+        boolean deleted = accountRepository.deleteAccountByAccountId(accountId);
+        balanceCache.balanceChanged(accountId);
+        return deleted;
     }
 }
\ No newline at end of file
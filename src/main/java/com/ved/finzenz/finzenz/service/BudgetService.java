@@ -1,5 +1,6 @@
 package com.ved.finzenz.finzenz.service;
 
+import com.ved.finzenz.finzenz.dto.BudgetRemainingResponse;
 import com.ved.finzenz.finzenz.entities.Budget;
 
 import java.math.BigDecimal;
@@ -14,4 +15,5 @@ public interface BudgetService {
     List<Budget> getBudgetsByUserId(Integer userId);
     List<Budget> getBudgetsByCategory(Integer userId, String category);
     BigDecimal getRemainingBudget(Integer userId, String category, LocalDate date);
+    List<BudgetRemainingResponse> getRemainingBudgets(Integer userId, LocalDate date);
 }
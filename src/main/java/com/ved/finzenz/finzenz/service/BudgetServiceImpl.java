@@ -1,29 +1,33 @@
 package com.ved.finzenz.finzenz.service;
 
+import com.ved.finzenz.finzenz.alerts.BudgetAlertEngine;
+import com.ved.finzenz.finzenz.dto.BudgetRemainingResponse;
+import com.ved.finzenz.finzenz.dto.BudgetSpending;
 import com.ved.finzenz.finzenz.entities.Budget;
-import com.ved.finzenz.finzenz.entities.Transaction;
 import com.ved.finzenz.finzenz.repository.BudgetRepository;
-import com.ved.finzenz.finzenz.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BudgetServiceImpl implements BudgetService{
 
     private final BudgetRepository budgetRepository;
-    private final TransactionRepository transactionRepository;
-    private final TransactionServiceImpl transactionService;
+    private final BudgetAlertEngine budgetAlertEngine;
 
     @Override
     public Budget createBudget(Budget budget) {
-        return budgetRepository.save(budget);
+        Budget saved = budgetRepository.save(budget);
+        budgetAlertEngine.invalidate(saved.getUserId());
+        return saved;
     }
 
     @Override
@@ -45,37 +49,47 @@ public class BudgetServiceImpl implements BudgetService{
         existing.setAmount(budget.getAmount());
         existing.setStartDate(budget.getStartDate());
         existing.setEndDate(budget.getEndDate());
-        return budgetRepository.save(existing);
+        Budget saved = budgetRepository.save(existing);
+        budgetAlertEngine.invalidate(saved.getUserId());
+        return saved;
     }
 
     @Override
     public void deleteBudget(Integer id) {
-        budgetRepository.deleteById(id);
+        budgetRepository.findById(id).ifPresent(budget -> {
+            budgetRepository.delete(budget);
+            budgetAlertEngine.invalidate(budget.getUserId());
+        });
     }
 
-//    Needs fix
     @Override
     public BigDecimal getRemainingBudget(Integer userId, String category, LocalDate date) {
-        List<Budget> budgets = budgetRepository.findByUserIdAndCategoryIgnoreCase(userId, category);
-
-        // Filter to active budgets on the given date
-        budgets = budgets.stream()
-                .filter(b -> !date.isBefore(b.getStartDate()) && !date.isAfter(b.getEndDate()))
-                .toList();
-
+        List<BudgetSpending> budgets = budgetRepository.findActiveBudgetSpending(userId, category, date);
         if (budgets.isEmpty()) {
             throw new RuntimeException("No active budget found for category: " + category);
         }
+        return summarize(category, budgets).getRemaining();
+    }
 
-        // Sum all matching budgets
-        BigDecimal totalBudget = budgets.stream()
-                .map(Budget::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Override
+    public List<BudgetRemainingResponse> getRemainingBudgets(Integer userId, LocalDate date) {
+        Map<String, List<BudgetSpending>> byCategory = budgetRepository.findAllActiveBudgetSpending(userId, date).stream()
+                .collect(Collectors.groupingBy(b -> b.getCategory().toLowerCase(Locale.ROOT),
+                        LinkedHashMap::new, Collectors.toList()));
 
-        // ✅ Use existing method from TransactionService
-        BigDecimal totalSpent = transactionService.getTotalSpendingByCategoryForUser(userId, category);
-        System.out.println("Total spent for "+category + " is " + totalSpent);
+        return byCategory.values().stream()
+                .map(budgets -> summarize(budgets.get(0).getCategory(), budgets))
+                .toList();
+    }
 
-        return totalBudget.subtract(totalSpent);
+    // Each budget only counts spending inside its own window; overlapping budgets are summed
+    private static BudgetRemainingResponse summarize(String category, List<BudgetSpending> budgets) {
+        BigDecimal budgeted = BigDecimal.ZERO;
+        BigDecimal spent = BigDecimal.ZERO;
+        for (BudgetSpending budget : budgets) {
+            budgeted = budgeted.add(budget.getAmount());
+            spent = spent.add(budget.getSpent());
+        }
+        return new BudgetRemainingResponse(category, budgeted, spent, budgeted.subtract(spent));
     }
 }
@@ -0,0 +1,13 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.dto.CacheRegionStats;
+
+import java.util.List;
+
+public interface CacheStatisticsService {
+
+    /**
+     * Hit/miss counters of each second-level cache region since startup
+     */
+    List<CacheRegionStats> getRegionStats();
+}
@@ -0,0 +1,61 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.balance.BalanceCache;
+import com.ved.finzenz.finzenz.dto.CacheRegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsServiceImpl implements CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final BalanceCache balanceCache;
+
+    @Override
+    public List<CacheRegionStats> getRegionStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionStats> regions = new ArrayList<>();
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toStats(region, statistics.getDomainDataRegionStatistics(region)))
+                .forEach(regions::add);
+        regions.add(balanceStats());
+        return regions;
+    }
+
+    // The per-user balance read model; every miss is a load, so loads are reported as puts
+    private CacheRegionStats balanceStats() {
+        long hits = balanceCache.getHitCount();
+        long misses = balanceCache.getMissCount();
+        return CacheRegionStats.builder()
+                .region("balances")
+                .hitCount(hits)
+                .missCount(misses)
+                .putCount(misses)
+                .hitRatio(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses))
+                .elementCount(balanceCache.size())
+                .build();
+    }
+
+    private static CacheRegionStats toStats(String region, CacheRegionStatistics stats) {
+        long hits = stats.getHitCount();
+        long misses = stats.getMissCount();
+        return CacheRegionStats.builder()
+                .region(region)
+                .hitCount(hits)
+                .missCount(misses)
+                .putCount(stats.getPutCount())
+                .hitRatio(hits + misses == 0 ? 0.0 : (double) hits / (hits + misses))
+                .elementCount(stats.getElementCountInMemory())
+                .build();
+    }
+}
@@ -1,5 +1,8 @@
 package com.ved.finzenz.finzenz.service;
 
+import com.ved.finzenz.finzenz.dto.AmortizationScheduleResponse;
+import com.ved.finzenz.finzenz.dto.LoanDashboardResponse;
+import com.ved.finzenz.finzenz.dto.LoanResponse;
 import com.ved.finzenz.finzenz.dto.LoanSummaryDto;
 import com.ved.finzenz.finzenz.dto.UpcomingEmiDto;
 import com.ved.finzenz.finzenz.entities.Loan;
@@ -23,6 +26,11 @@ public interface LoanService {
      */
     List<UpcomingEmiDto> getUpcomingEmis(Long userId);
 
+    /**
+     * Get upcoming EMIs, overdue EMIs and total outstanding for a user in one call
+     */
+    LoanDashboardResponse getLoanDashboard(Long userId);
+
     /**
      * Record an EMI payment
      */
@@ -43,5 +51,13 @@ public interface LoanService {
      */
     BigDecimal getTotalOutstanding(Long userId);
 
-    Loan getLoanById(Long loanId);
+    /**
+     * One loan with its outstanding principal, without the entity's internals
+     */
+    LoanResponse getLoanById(Long loanId);
+
+    /**
+     * Get one page of a loan's amortization schedule (principal, interest, balance per installment)
+     */
+    AmortizationScheduleResponse getAmortizationSchedule(Long loanId, int page, int size);
 }
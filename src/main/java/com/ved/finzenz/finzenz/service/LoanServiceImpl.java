@@ -1,8 +1,16 @@
 package com.ved.finzenz.finzenz.service;
 
+import com.ved.finzenz.finzenz.alerts.TransactionPostedEvent;
+import com.ved.finzenz.finzenz.amortization.AmortizationCalculator;
+import com.ved.finzenz.finzenz.amortization.AmortizationSchedule;
+import com.ved.finzenz.finzenz.amortization.AmortizationScheduleCache;
+import com.ved.finzenz.finzenz.balance.BalanceCache;
+import com.ved.finzenz.finzenz.dto.AmortizationEntry;
+import com.ved.finzenz.finzenz.dto.AmortizationScheduleResponse;
+import com.ved.finzenz.finzenz.dto.LoanDashboardResponse;
+import com.ved.finzenz.finzenz.dto.LoanResponse;
 import com.ved.finzenz.finzenz.dto.LoanSummaryDto;
 import com.ved.finzenz.finzenz.dto.UpcomingEmiDto;
-import com.ved.finzenz.finzenz.entities.Account;
 import com.ved.finzenz.finzenz.entities.Loan;
 import com.ved.finzenz.finzenz.entities.Transaction;
 import com.ved.finzenz.finzenz.repository.AccountRepository;
@@ -10,12 +18,15 @@ import com.ved.finzenz.finzenz.repository.LoanRepository;
 import com.ved.finzenz.finzenz.repository.TransactionRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,19 +36,33 @@ public class LoanServiceImpl implements LoanService{
     private final LoanRepository loanRepository;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final AmortizationScheduleCache scheduleCache;
+    private final BalanceCache balanceCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public LoanServiceImpl(LoanRepository loanRepository, AccountRepository accountRepository, TransactionRepository transactionRepository){
+    private static final int MAX_SCHEDULE_PAGE_SIZE = 500;
+    private static final int UPCOMING_WINDOW_DAYS = 7;
+
+    public LoanServiceImpl(LoanRepository loanRepository, AccountRepository accountRepository, TransactionRepository transactionRepository,
+                           SpendingRollupService spendingRollupService, AmortizationScheduleCache scheduleCache,
+                           BalanceCache balanceCache, ApplicationEventPublisher eventPublisher){
         this.accountRepository = accountRepository;
         this.loanRepository = loanRepository;
         this.transactionRepository = transactionRepository;
+        this.spendingRollupService = spendingRollupService;
+        this.scheduleCache = scheduleCache;
+        this.balanceCache = balanceCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional
     public Loan createLoan(Loan loan) {
         // Validate account exists
-        Account account = accountRepository.findById(loan.getAccountId())
-                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+        if (!accountRepository.existsById(loan.getAccountId())) {
+            throw new EntityNotFoundException("Account not found");
+        }
 
         // Validate required fields for all recurring loans
         if (loan.getRecurringIntervalDays() == null || loan.getRecurringIntervalDays() <= 0) {
@@ -95,11 +120,18 @@ public class LoanServiceImpl implements LoanService{
             loan.setTenureMonths((int) Math.ceil(loan.getStartDate().until(loan.getEndDate()).toTotalMonths()));
         }
 
+        // Credit in SQL so a concurrent posting to the same account isn't overwritten. Only active
+        // accounts are updated; failing here rolls back the loan and the disbursement row with it
+        if (accountRepository.adjustBalance(loan.getAccountId(), loan.getPrincipalAmount()) == 0) {
+            throw new IllegalStateException("Account is closed, can't disburse the loan");
+        }
+        balanceCache.balanceChanged(loan.getAccountId());
+
         Loan savedLoan = loanRepository.save(loan);
 
         // Create loan disbursement transaction
         Transaction disbursement = Transaction.builder()
-                .accountId(account.getAccountId())
+                .accountId(loan.getAccountId())
                 .amount(loan.getPrincipalAmount())
                 .transactionType(Transaction.TransactionType.CREDIT)
                 .transactionDate(LocalDateTime.now())
@@ -109,33 +141,13 @@ public class LoanServiceImpl implements LoanService{
                 .build();
         transactionRepository.save(disbursement);
 
-        // Update account balance
-        account.setBalance(account.getBalance().add(loan.getPrincipalAmount()));
-        accountRepository.save(account);
-
         return savedLoan;
     }
 
     private BigDecimal calculateRecurringEmi(BigDecimal principal, BigDecimal annualRate,
                                              int totalInstallments, int intervalDays) {
-        if (annualRate.compareTo(BigDecimal.ZERO) == 0) {
-            // Zero interest - simple division
-            return principal.divide(BigDecimal.valueOf(totalInstallments), 2, RoundingMode.HALF_UP);
-        }
-
-        // Calculate period interest rate
-        double periodsPerYear = 365.0 / intervalDays;
-        BigDecimal periodRate = annualRate
-                .divide(BigDecimal.valueOf(periodsPerYear * 100), 10, RoundingMode.HALF_UP);
-
-        // EMI calculation: P * r * (1+r)^n / ((1+r)^n - 1)
-        BigDecimal onePlusR = periodRate.add(BigDecimal.ONE);
-        BigDecimal onePlusRPowerN = onePlusR.pow(totalInstallments);
-
-        return principal
-                .multiply(periodRate)
-                .multiply(onePlusRPowerN)
-                .divide(onePlusRPowerN.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+        return AmortizationCalculator.emi(principal,
+                AmortizationCalculator.periodRate(annualRate, intervalDays), totalInstallments);
     }
 
     @Override
@@ -161,31 +173,61 @@ public class LoanServiceImpl implements LoanService{
     @Override
     public List<UpcomingEmiDto> getUpcomingEmis(Long userid) {
         LocalDate today = LocalDate.now();
-        LocalDate upcomingLimit = today.plusDays(7);
-
-        return loanRepository.findByUserId(userid).stream()
-                .filter(loan -> loan.getStatus() == Loan.LoanStatus.ACTIVE)
-                .filter(loan -> loan.getNextDueDate() != null &&
-                        !loan.getNextDueDate().isBefore(today) &&
-                        loan.getNextDueDate().isBefore(upcomingLimit))
-                .map(loan -> UpcomingEmiDto.builder()
-                        .loanId(loan.getId())
-                        .lender(loan.getLenderName())
-                        .amount(loan.getEmiAmount())
-                        .dueDate(loan.getNextDueDate())
-                        .build())
+
+        return loanRepository.findUpcomingByUserId(userid, today, today.plusDays(UPCOMING_WINDOW_DAYS)).stream()
+                .map(this::toEmiDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public LoanDashboardResponse getLoanDashboard(Long userId) {
+        LocalDate today = LocalDate.now();
+        LocalDate upcomingLimit = today.plusDays(UPCOMING_WINDOW_DAYS);
+
+        // One indexed query for the active loans; closed loans never leave the database
+        List<Loan> activeLoans = loanRepository.findActiveByUserId(userId);
+
+        List<UpcomingEmiDto> upcoming = new ArrayList<>();
+        List<UpcomingEmiDto> overdue = new ArrayList<>();
+        BigDecimal totalOutstanding = BigDecimal.ZERO;
+        for (Loan loan : activeLoans) {
+            LocalDate due = loan.getNextDueDate();
+            if (due != null && due.isBefore(today)) {
+                overdue.add(toEmiDto(loan));
+            } else if (due != null && due.isBefore(upcomingLimit)) {
+                upcoming.add(toEmiDto(loan));
+            }
+            totalOutstanding = totalOutstanding.add(calculateOutstanding(loan));
+        }
+        Comparator<UpcomingEmiDto> byDueDate = Comparator.comparing(UpcomingEmiDto::getDueDate);
+        upcoming.sort(byDueDate);
+        overdue.sort(byDueDate);
+
+        return LoanDashboardResponse.builder()
+                .userId(userId)
+                .activeLoans(activeLoans.size())
+                .upcoming(upcoming)
+                .overdue(overdue)
+                .totalOutstanding(totalOutstanding)
+                .build();
+    }
+
+    private UpcomingEmiDto toEmiDto(Loan loan) {
+        return UpcomingEmiDto.builder()
+                .loanId(loan.getId())
+                .lender(loan.getLenderName())
+                .amount(loan.getEmiAmount())
+                .dueDate(loan.getNextDueDate())
+                .build();
+    }
+
     @Override
     @Transactional
     public void recordEmiPayment(Long loanId) {
-        Loan loan = loanRepository.findById(loanId)
+        // Row lock so a manual payment can't race the scheduler paying the same installment
+        Loan loan = loanRepository.findByIdForUpdate(loanId)
                 .orElseThrow(() -> new EntityNotFoundException("Loan not found"));
 
-        Account account = accountRepository.findById(loan.getAccountId())
-                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
-
         if (loan.getStatus() != Loan.LoanStatus.ACTIVE) {
             throw new IllegalStateException("Cannot make payment on inactive loan");
         }
@@ -194,17 +236,18 @@ public class LoanServiceImpl implements LoanService{
             throw new IllegalStateException("Loan is already fully paid");
         }
 
-        if (account.getBalance().compareTo(loan.getEmiAmount()) < 0) {
-            throw new IllegalStateException("Insufficient balance");
+        // Check and deduct in one statement; other postings to the account don't hold the loan lock
+        if (accountRepository.debitIfSufficient(loan.getAccountId(), loan.getEmiAmount()) == 0) {
+            if (!accountRepository.existsById(loan.getAccountId())) {
+                throw new EntityNotFoundException("Account not found");
+            }
+            throw new IllegalStateException("Insufficient balance or inactive account");
         }
-
-        // Deduct balance
-        account.setBalance(account.getBalance().subtract(loan.getEmiAmount()));
-        accountRepository.save(account);
+        balanceCache.balanceChanged(loan.getAccountId());
 
         // Create EMI transaction
         Transaction emiTransaction = Transaction.builder()
-                .accountId(account.getAccountId())
+                .accountId(loan.getAccountId())
                 .amount(loan.getEmiAmount())
                 .transactionType(Transaction.TransactionType.DEBIT)
                 .transactionDate(LocalDateTime.now())
@@ -212,8 +255,12 @@ public class LoanServiceImpl implements LoanService{
                 .description("EMI payment to " + loan.getLenderName() +
                         " (Payment " + (loan.getCompletedInstallments() + 1) +
                         " of " + loan.getTotalInstallments() + ")")
+                .loanId(loan.getId())
+                .installmentNumber(loan.getCompletedInstallments() + 1)
                 .build();
         transactionRepository.save(emiTransaction);
+        spendingRollupService.recordTransaction(emiTransaction);
+        eventPublisher.publishEvent(TransactionPostedEvent.of(emiTransaction));
 
         // Update loan payment tracking
         loan.setLastPaymentDate(LocalDate.now());
@@ -225,19 +272,55 @@ public class LoanServiceImpl implements LoanService{
             loan.setNextDueDate(null);
         } else {
             // Calculate next due date
-            loan.setNextDueDate(LocalDate.now().plusDays(loan.getRecurringIntervalDays()));
+            loan.setNextDueDate(loan.calculateNextDueDate());
         }
 
         loanRepository.save(loan);
     }
 
+    // Principal still owed according to the amortization schedule (future interest excluded)
     public BigDecimal calculateOutstanding(Loan loan) {
         if (loan.getStatus() == Loan.LoanStatus.CLOSED || loan.isCompleted()) {
             return BigDecimal.ZERO;
         }
 
-        int remainingInstallments = loan.getRemainingInstallments();
-        return loan.getEmiAmount().multiply(BigDecimal.valueOf(remainingInstallments));
+        return scheduleCache.get(loan).outstandingAfter(loan.getCompletedInstallments());
+    }
+
+    @Override
+    public AmortizationScheduleResponse getAmortizationSchedule(Long loanId, int page, int size) {
+        Loan loan = loanRepository.findById(loanId)
+                .orElseThrow(() -> new EntityNotFoundException("Loan not found"));
+        AmortizationSchedule schedule = scheduleCache.get(loan);
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_SCHEDULE_PAGE_SIZE);
+        int first = Math.max(page, 0) * pageSize + 1;
+        int last = Math.min(first + pageSize - 1, schedule.size());
+
+        List<AmortizationEntry> entries = new ArrayList<>(Math.max(last - first + 1, 0));
+        for (int n = first; n <= last; n++) {
+            entries.add(AmortizationEntry.builder()
+                    .installmentNumber(n)
+                    .dueDate(loan.installmentDueDate(n))
+                    .payment(schedule.payment(n))
+                    .principal(schedule.principal(n))
+                    .interest(schedule.interest(n))
+                    .balance(schedule.balanceAfter(n))
+                    .paid(n <= loan.getCompletedInstallments())
+                    .build());
+        }
+
+        return AmortizationScheduleResponse.builder()
+                .loanId(loan.getId())
+                .emiAmount(loan.getEmiAmount())
+                .totalInstallments(loan.getTotalInstallments())
+                .completedInstallments(loan.getCompletedInstallments())
+                .totalInterest(schedule.totalInterest())
+                .outstandingPrincipal(calculateOutstanding(loan))
+                .page(Math.max(page, 0))
+                .size(pageSize)
+                .installments(entries)
+                .build();
     }
 
     private String getPaymentFrequencyDescription(Integer intervalDays) {
@@ -256,20 +339,32 @@ public class LoanServiceImpl implements LoanService{
 
     // Additional utility methods for loan management
     public List<Loan> getOverdueLoans(Long userId) {
-        return loanRepository.findByUserId(userId).stream()
-                .filter(Loan::isOverdue)
-                .collect(Collectors.toList());
+        return loanRepository.findOverdueByUserId(userId, LocalDate.now());
     }
 
     public BigDecimal getTotalOutstanding(Long userId) {
-        return loanRepository.findByUserId(userId).stream()
-                .filter(loan -> loan.getStatus() == Loan.LoanStatus.ACTIVE)
+        return loanRepository.findActiveByUserId(userId).stream()
                 .map(this::calculateOutstanding)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    // findById goes through the "loans" second-level cache region
     @Override
-    public Loan getLoanById(Long loanId) {
-        return null;
+    public LoanResponse getLoanById(Long loanId) {
+        Loan loan = loanRepository.findById(loanId)
+                .orElseThrow(() -> new EntityNotFoundException("Loan not found"));
+        return LoanResponse.builder()
+                .loanId(loan.getId())
+                .accountId(loan.getAccountId())
+                .loanAmount(loan.getPrincipalAmount())
+                .interestRate(loan.getInterestRate())
+                .termInDays((int) ChronoUnit.DAYS.between(loan.getStartDate(), loan.getEndDate()))
+                .emiAmount(loan.getEmiAmount())
+                .recurringDays(loan.getRecurringIntervalDays())
+                .remainingBalance(calculateOutstanding(loan))
+                .startDate(loan.getStartDate())
+                .nextPaymentDate(loan.getNextDueDate())
+                .active(loan.getStatus() == Loan.LoanStatus.ACTIVE)
+                .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.dto.CategoryTotal;
+import com.ved.finzenz.finzenz.dto.RollupDiscrepancy;
+import com.ved.finzenz.finzenz.entities.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface SpendingRollupService {
+
+    // ------------------- Incremental maintenance -------------------
+    // Must be called in the same transaction as the write they mirror. Non-DEBIT transactions are ignored.
+
+    void recordTransaction(Transaction transaction);
+
+    void recordTransactions(Collection<Transaction> transactions);
+
+    void reverseTransaction(Transaction transaction);
+
+    // ------------------- Reads -------------------
+
+    BigDecimal getTotalSpending(Long userId, String category);
+
+    // Spending between two dates, both inclusive
+    BigDecimal getSpending(Long userId, String category, LocalDate fromDate, LocalDate toDate);
+
+    List<CategoryTotal> getSpendingByCategory(Long userId);
+
+    // ------------------- Maintenance -------------------
+
+    int rebuildForUser(Long userId);
+
+    int rebuildAll();
+
+    List<RollupDiscrepancy> checkConsistency(Long userId);
+}
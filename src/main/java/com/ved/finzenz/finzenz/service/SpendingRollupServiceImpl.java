@@ -0,0 +1,136 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.dto.CategoryTotal;
+import com.ved.finzenz.finzenz.dto.RollupDiscrepancy;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.repository.SpendingRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SpendingRollupServiceImpl implements SpendingRollupService {
+
+    private final SpendingRollupRepository spendingRollupRepository;
+
+    // Bucket key for folding a batch into one upsert per (account, category, day)
+    private record Bucket(Long accountId, String category, LocalDate day) {
+    }
+
+    @Override
+    public void recordTransaction(Transaction transaction) {
+        apply(transaction, 1);
+    }
+
+    @Override
+    public void recordTransactions(Collection<Transaction> transactions) {
+        Map<Bucket, BigDecimal> amounts = new HashMap<>();
+        Map<Bucket, Long> counts = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            if (!isSpending(transaction)) continue;
+            Bucket bucket = new Bucket(transaction.getAccountId(),
+                    categoryKey(transaction.getCategory()),
+                    transaction.getTransactionDate().toLocalDate());
+            amounts.merge(bucket, transaction.getAmount(), BigDecimal::add);
+            counts.merge(bucket, 1L, Long::sum);
+        }
+        if (amounts.isEmpty()) {
+            return;
+        }
+
+        // One statement for the whole batch; it orders its row locks (see addSpendingBatch)
+        int size = amounts.size();
+        Long[] accountIds = new Long[size];
+        String[] categories = new String[size];
+        LocalDate[] days = new LocalDate[size];
+        BigDecimal[] totals = new BigDecimal[size];
+        Long[] bucketCounts = new Long[size];
+        int i = 0;
+        for (Map.Entry<Bucket, BigDecimal> entry : amounts.entrySet()) {
+            Bucket bucket = entry.getKey();
+            accountIds[i] = bucket.accountId();
+            categories[i] = bucket.category();
+            days[i] = bucket.day();
+            totals[i] = entry.getValue();
+            bucketCounts[i] = counts.get(bucket);
+            i++;
+        }
+        spendingRollupRepository.addSpendingBatch(accountIds, categories, days, totals, bucketCounts);
+    }
+
+    @Override
+    public void reverseTransaction(Transaction transaction) {
+        apply(transaction, -1);
+    }
+
+    @Override
+    public BigDecimal getTotalSpending(Long userId, String category) {
+        return spendingRollupRepository.sumSpending(userId, categoryKey(category));
+    }
+
+    @Override
+    public BigDecimal getSpending(Long userId, String category, LocalDate fromDate, LocalDate toDate) {
+        return spendingRollupRepository.sumSpendingBetween(userId, categoryKey(category), fromDate, toDate);
+    }
+
+    @Override
+    public List<CategoryTotal> getSpendingByCategory(Long userId) {
+        return spendingRollupRepository.sumSpendingGroupByCategory(userId);
+    }
+
+    @Override
+    @Transactional
+    public int rebuildForUser(Long userId) {
+        spendingRollupRepository.lockForRebuild();
+        spendingRollupRepository.deleteByUserId(userId);
+        int rows = spendingRollupRepository.rebuildForUser(userId);
+        log.info("Rebuilt spending rollup for user {}: {} buckets", userId, rows);
+        return rows;
+    }
+
+    @Override
+    @Transactional
+    public int rebuildAll() {
+        spendingRollupRepository.lockForRebuild();
+        spendingRollupRepository.deleteAllRows();
+        int rows = spendingRollupRepository.rebuildAll();
+        log.info("Rebuilt spending rollup for all users: {} buckets", rows);
+        return rows;
+    }
+
+    @Override
+    public List<RollupDiscrepancy> checkConsistency(Long userId) {
+        return spendingRollupRepository.findDiscrepancies(userId);
+    }
+
+    private void apply(Transaction transaction, int sign) {
+        if (!isSpending(transaction)) return;
+        BigDecimal amount = sign < 0 ? transaction.getAmount().negate() : transaction.getAmount();
+        spendingRollupRepository.addSpending(
+                transaction.getAccountId(),
+                categoryKey(transaction.getCategory()),
+                transaction.getTransactionDate().toLocalDate(),
+                amount,
+                sign);
+    }
+
+    private static boolean isSpending(Transaction transaction) {
+        return transaction.getTransactionType() == Transaction.TransactionType.DEBIT;
+    }
+
+    // Same normalisation as the rebuild queries: LOWER(TRIM(COALESCE(category, '')))
+    private static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.importer.ImportJob;
+import com.ved.finzenz.finzenz.importer.StatementFormat;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface StatementImportService {
+
+    /**
+     * Queue a statement file for import into the account; returns immediately with the job to poll
+     */
+    ImportJob startImport(Long accountId, StatementFormat format, MultipartFile file);
+
+    /**
+     * Current progress of an import, or null if the job is unknown or has expired
+     */
+    ImportJob getImport(String jobId);
+}
@@ -0,0 +1,119 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.exceptions.AccountNotFoundException;
+import com.ved.finzenz.finzenz.importer.ImportJob;
+import com.ved.finzenz.finzenz.importer.StatementFormat;
+import com.ved.finzenz.finzenz.importer.StatementImportPipeline;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class StatementImportServiceImpl implements StatementImportService {
+
+    private static final int MAX_CONCURRENT_IMPORTS = 2;
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private final AccountRepository accountRepository;
+    private final StatementImportPipeline pipeline;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService jobExecutor;
+
+    public StatementImportServiceImpl(AccountRepository accountRepository, StatementImportPipeline pipeline) {
+        this.accountRepository = accountRepository;
+        this.pipeline = pipeline;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.jobExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_IMPORTS, runnable -> {
+            Thread thread = new Thread(runnable, "statement-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ImportJob startImport(Long accountId, StatementFormat format, MultipartFile file) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException("Account with id: " + accountId + " not found");
+        }
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Statement file is empty");
+        }
+        StatementFormat resolvedFormat = format != null ? format : detectFormat(file.getOriginalFilename());
+
+        // The multipart temp file is removed when the request ends, so keep our own copy
+        Path copy;
+        try {
+            copy = Files.createTempFile("finzenz-import-", "." + resolvedFormat.name().toLowerCase(Locale.ROOT));
+            file.transferTo(copy);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store uploaded statement", e);
+        }
+
+        evictFinishedJobs();
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), accountId, resolvedFormat,
+                file.getOriginalFilename(), file.getSize());
+        jobs.put(job.getId(), job);
+
+        jobExecutor.submit(() -> {
+            try {
+                pipeline.run(job, copy);
+            } finally {
+                deleteQuietly(copy);
+            }
+        });
+        return job;
+    }
+
+    @Override
+    public ImportJob getImport(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    private static StatementFormat detectFormat(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ofx") || name.endsWith(".qfx")) {
+            return StatementFormat.OFX;
+        }
+        if (name.endsWith(".csv")) {
+            return StatementFormat.CSV;
+        }
+        throw new IllegalArgumentException("Cannot detect statement format from file name; pass format=CSV or format=OFX");
+    }
+
+    private void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary statement file {}", path, e);
+        }
+    }
+}
@@ -2,16 +2,21 @@ package com.ved.finzenz.finzenz.service;
 
 
 
+import com.ved.finzenz.finzenz.dto.TransactionBatchResponse;
+import com.ved.finzenz.finzenz.dto.TransactionPageResponse;
+import com.ved.finzenz.finzenz.dto.TransactionSummaryResponse;
 import com.ved.finzenz.finzenz.entities.Transaction;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TransactionService {
 
     // ------------------- CRUD -------------------
     Transaction createTransaction(Transaction transaction);
+    TransactionBatchResponse createTransactions(List<Transaction> transactions);
     Transaction getTransactionById(Integer id);
     Transaction updateTransaction(Integer id, Transaction transaction);
     void deleteTransaction(Integer id);
@@ -21,10 +26,16 @@ public interface TransactionService {
 
     // Get all transactions for all accounts of a user (native query)
     List<Transaction> getTransactionsByUserId(Integer userId);
+
+    // Keyset-paginated listing; cursor is the opaque token from the previous page (null for the first page)
+    TransactionPageResponse getTransactionsPageByUserId(Integer userId, String cursor, int limit);
+
+    // Hands rows to the consumer as they are read from a server-side cursor
+    void streamTransactionsByUserId(Integer userId, Consumer<Transaction> consumer);
     List<Transaction> getUserMonthlyTransactions(Integer userId, int month, int year);
 
 
-    // Get all transactions for a user in a date range
+    // Get all transactions for a user in the half-open range [startDate, endDate)
     List<Transaction> getTransactionsByUserIdAndDateRange(Integer userId, LocalDateTime startDate, LocalDateTime endDate);
 
 
@@ -37,5 +48,10 @@ public interface TransactionService {
     BigDecimal getTotalExpenseForUser(Integer userId);
 
 
-    List<Transaction> searchTransactionsByDescriptionForUser(Integer userId, String keyword);
+    // Income, expense and per-category spending in one call (aggregated in SQL)
+    TransactionSummaryResponse getTransactionSummaryForUser(Integer userId);
+
+
+    // Ranked full-text search with prefix matching; page is zero-based
+    List<Transaction> searchTransactionsByDescriptionForUser(Integer userId, String keyword, int page, int size);
 }
@@ -1,47 +1,117 @@
 package com.ved.finzenz.finzenz.service;
-import com.ved.finzenz.finzenz.dto.AccountResponse;
+import com.ved.finzenz.finzenz.alerts.TransactionPostedEvent;
+import com.ved.finzenz.finzenz.balance.BalanceCache;
+import com.ved.finzenz.finzenz.dto.CategoryTotal;
+import com.ved.finzenz.finzenz.dto.TransactionBatchResponse;
+import com.ved.finzenz.finzenz.dto.TransactionCursor;
+import com.ved.finzenz.finzenz.dto.TransactionPageResponse;
+import com.ved.finzenz.finzenz.dto.TransactionResponse;
+import com.ved.finzenz.finzenz.dto.TransactionSummaryResponse;
+import com.ved.finzenz.finzenz.dto.TransactionTypeTotal;
 import com.ved.finzenz.finzenz.entities.Account;
 import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.exceptions.AccountNotFoundException;
 import com.ved.finzenz.finzenz.repository.AccountRepository;
 import com.ved.finzenz.finzenz.repository.TransactionRepository;
-import com.ved.finzenz.finzenz.request.AccountRequest;
+import com.ved.finzenz.finzenz.repository.TransactionStreamRepository;
 import com.ved.finzenz.finzenz.service.TransactionService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
-    private final AccountServiceImpl accountService;
+    private final TransactionStreamRepository transactionStreamRepository;
+    private final AccountRepository accountRepository;
+    private final EntityManager entityManager;
+    private final SpendingRollupService spendingRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BalanceCache balanceCache;
+
+    private static final String UNCATEGORIZED = "Uncategorized";
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int INSERT_CHUNK_SIZE = 500;
 
     // ------------------- CRUD -------------------
 
     @Override
+    @Transactional
     public Transaction createTransaction(Transaction transaction) {
-        Account account = accountService.getAccountbyID(transaction.getAccountId());
-        account.setBalance(account.getBalance().subtract(transaction.getAmount()));
+        // Balance update and insert commit together
+        applyBalanceDelta(transaction.getAccountId(), transaction.balanceDelta());
+        Transaction saved = transactionRepository.save(transaction);
+        spendingRollupService.recordTransaction(saved);
+        // Budget alerts are evaluated asynchronously after commit
+        eventPublisher.publishEvent(TransactionPostedEvent.of(saved));
+        return saved;
+    }
 
-        AccountRequest request = new AccountRequest(account.getAccountName(),
-                account.getAccountType(),
-                account.getInstitutionName(),
-                account.getAccountNumber(),
-                account.getBalance(),
-                account.getCurrency(),
-                account.getIsActive(),
-                account.getUser().getId());
+    @Override
+    @Transactional
+    public TransactionBatchResponse createTransactions(List<Transaction> transactions) {
+        // Validate every referenced account in one query before touching anything
+        Set<Long> accountIds = transactions.stream()
+                .map(Transaction::getAccountId)
+                .collect(Collectors.toSet());
+        Map<Long, Account> accounts = accountRepository.findAllById(accountIds).stream()
+                .collect(Collectors.toMap(Account::getAccountId, Function.identity()));
+        for (Long accountId : accountIds) {
+            Account account = accounts.get(accountId);
+            if (account == null) {
+                throw new AccountNotFoundException("Account with id: " + accountId + " not found");
+            }
+            if (!Boolean.TRUE.equals(account.getIsActive())) {
+                throw new RuntimeException("Account " + accountId + " is closed, can't update");
+            }
+        }
 
-        System.out.println(transaction.getAmount());
-        System.out.println(account.getBalance());
+        // One net balance update per account, in id order to keep lock ordering consistent
+        Map<Long, BigDecimal> netDeltas = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            netDeltas.merge(transaction.getAccountId(), transaction.balanceDelta(), BigDecimal::add);
+        }
+        netDeltas.forEach(this::applyBalanceDelta);
+
+        // Insert in chunks, clearing the persistence context so it doesn't grow with the batch
+        for (int from = 0; from < transactions.size(); from += INSERT_CHUNK_SIZE) {
+            int to = Math.min(from + INSERT_CHUNK_SIZE, transactions.size());
+            transactionRepository.saveAll(transactions.subList(from, to));
+            transactionRepository.flush();
+            entityManager.clear();
+        }
+        spendingRollupService.recordTransactions(transactions);
+        TransactionPostedEvent.forBatch(transactions).forEach(eventPublisher::publishEvent);
 
-        accountService.updateAccount(request, account.getAccountId());
+        return new TransactionBatchResponse(transactions.size(), netDeltas);
+    }
 
-        return transactionRepository.save(transaction);
+    private void applyBalanceDelta(Long accountId, BigDecimal delta) {
+        if (accountRepository.adjustBalance(accountId, delta) == 0) {
+            if (!accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException("Account with id: " + accountId + " not found");
+            }
+            throw new RuntimeException("Account is closed, can't update");
+        }
+        balanceCache.balanceChanged(accountId);
     }
 
     @Override
@@ -51,8 +121,19 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     @Override
+    @Transactional
     public Transaction updateTransaction(Integer id, Transaction transaction) {
-        Transaction existing = getTransactionById(id);
+        Transaction existing = transactionRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
+        TransactionPostedEvent previous = TransactionPostedEvent.of(existing);
+
+        // Undo the old posting and apply the new one, netted per account and in id order.
+        // Accounts before rollups, the same lock order as createTransaction.
+        Map<Long, BigDecimal> netDeltas = new TreeMap<>();
+        netDeltas.merge(existing.getAccountId(), existing.balanceDelta().negate(), BigDecimal::add);
+        netDeltas.merge(transaction.getAccountId(), transaction.balanceDelta(), BigDecimal::add);
+        netDeltas.forEach(this::applyBalanceDelta);
+        spendingRollupService.reverseTransaction(existing);
 
         existing.setAccountId(transaction.getAccountId());
         existing.setAmount(transaction.getAmount());
@@ -61,15 +142,23 @@ public class TransactionServiceImpl implements TransactionService {
         existing.setTransactionType(transaction.getTransactionType());
         existing.setCategory(transaction.getCategory());
 
-        return transactionRepository.save(existing);
+        Transaction saved = transactionRepository.save(existing);
+        spendingRollupService.recordTransaction(saved);
+        // Re-evaluate the budgets on both sides: the old bucket may have dropped back under a threshold
+        eventPublisher.publishEvent(previous);
+        eventPublisher.publishEvent(TransactionPostedEvent.of(saved));
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteTransaction(Integer id) {
-        if (!transactionRepository.existsById(id)) {
-            throw new RuntimeException("Transaction not found with id: " + id);
-        }
-        transactionRepository.deleteById(id);
+        Transaction existing = transactionRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
+        applyBalanceDelta(existing.getAccountId(), existing.balanceDelta().negate());
+        spendingRollupService.reverseTransaction(existing);
+        transactionRepository.delete(existing);
+        eventPublisher.publishEvent(TransactionPostedEvent.of(existing));
     }
 
     // ------------------- Finance App Specific -------------------
@@ -84,57 +173,120 @@ public class TransactionServiceImpl implements TransactionService {
         return transactionRepository.findByUserId(userId); // native query
     }
 
+    @Override
+    public TransactionPageResponse getTransactionsPageByUserId(Integer userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Fetch one extra row to know whether another page exists
+        List<Transaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findFirstPageByUserId(userId, pageSize + 1);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findPageByUserIdAfter(
+                    userId, position.getTransactionDate(), position.getId(), pageSize + 1);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? TransactionCursor.after(page.get(page.size() - 1)).encode() : null;
+
+        return new TransactionPageResponse(
+                page.stream().map(TransactionResponse::new).toList(),
+                nextCursor,
+                hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTransactionsByUserId(Integer userId, Consumer<Transaction> consumer) {
+        transactionStreamRepository.streamByUserId(userId.longValue(), consumer);
+    }
+
     @Override
     public List<Transaction> getUserMonthlyTransactions(Integer userId, int month, int year) {
-        return transactionRepository.findUserMonthlyTransactions(userId, month, year);
+        LocalDateTime monthStart = YearMonth.of(year, month).atDay(1).atStartOfDay();
+        return transactionRepository.findByUserIdAndTransactionDateRange(userId, monthStart, monthStart.plusMonths(1));
     }
 
 
 
     @Override
     public List<Transaction> getTransactionsByUserIdAndDateRange(Integer userId, LocalDateTime startDate, LocalDateTime endDate) {
-        // Could also use a native query, but here we fetch first then filter
-        return getTransactionsByUserId(userId).stream()
-                .filter(t -> !t.getTransactionDate().isBefore(startDate) && !t.getTransactionDate().isAfter(endDate))
-                .toList();
+        return transactionRepository.findByUserIdAndTransactionDateRange(userId, startDate, endDate);
     }
 
 
 
     @Override
     public BigDecimal getTotalSpendingByCategoryForUser(Integer userId, String category) {
-        return getTransactionsByUserId(userId).stream()
-                .filter(t -> category.equalsIgnoreCase(t.getCategory()) && t.getTransactionType() == Transaction.TransactionType.DEBIT)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return spendingRollupService.getTotalSpending(userId.longValue(), category);
     }
 
 
 
     @Override
     public BigDecimal getTotalIncomeForUser(Integer userId) {
-        return getTransactionsByUserId(userId).stream()
-                .filter(t -> t.getTransactionType() == Transaction.TransactionType.CREDIT)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return transactionRepository.sumAmountByUserIdAndType(userId, Transaction.TransactionType.CREDIT.name());
     }
 
 
 
     @Override
     public BigDecimal getTotalExpenseForUser(Integer userId) {
-        return getTransactionsByUserId(userId).stream()
-                .filter(t -> t.getTransactionType() == Transaction.TransactionType.DEBIT)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return transactionRepository.sumAmountByUserIdAndType(userId, Transaction.TransactionType.DEBIT.name());
     }
 
 
 
     @Override
-    public List<Transaction> searchTransactionsByDescriptionForUser(Integer userId, String keyword) {
-        return getTransactionsByUserId(userId).stream()
-                .filter(t -> t.getDescription() != null && t.getDescription().toLowerCase().contains(keyword.toLowerCase()))
-                .toList();
+    public TransactionSummaryResponse getTransactionSummaryForUser(Integer userId) {
+        BigDecimal totalIncome = BigDecimal.ZERO;
+        BigDecimal totalExpense = BigDecimal.ZERO;
+        for (TransactionTypeTotal row : transactionRepository.sumAmountByUserIdGroupByType(userId)) {
+            if (Transaction.TransactionType.CREDIT.name().equals(row.getTransactionType())) {
+                totalIncome = row.getTotal();
+            } else if (Transaction.TransactionType.DEBIT.name().equals(row.getTransactionType())) {
+                totalExpense = row.getTotal();
+            }
+        }
+
+        Map<String, BigDecimal> spendingByCategory = new LinkedHashMap<>();
+        for (CategoryTotal row : spendingRollupService.getSpendingByCategory(userId.longValue())) {
+            String category = row.getCategory() == null || row.getCategory().isEmpty() ? UNCATEGORIZED : row.getCategory();
+            spendingByCategory.merge(category, row.getTotal(), BigDecimal::add);
+        }
+
+        return TransactionSummaryResponse.builder()
+                .userId(userId)
+                .totalIncome(totalIncome)
+                .totalExpense(totalExpense)
+                .spendingByCategory(spendingByCategory)
+                .build();
+    }
+
+
+
+    @Override
+    public List<Transaction> searchTransactionsByDescriptionForUser(Integer userId, String keyword, int page, int size) {
+        String query = toPrefixTsQuery(keyword);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // long: a large page number times the page size would overflow int into a negative OFFSET
+        return transactionRepository.searchByUserId(userId, query, pageSize, (long) Math.max(0, page) * pageSize);
+    }
+
+    // "Uber tr" -> "uber:* & tr:*": every word must match, each as a prefix.
+    // Only letters and digits survive, so user input can't inject tsquery operators.
+    private static String toPrefixTsQuery(String keyword) {
+        if (keyword == null) {
+            return "";
+        }
+        return Arrays.stream(keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
     }
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package com.ved.finzenz.finzenz.service;
 
 
+import com.ved.finzenz.finzenz.dto.EmailFilterStats;
 import com.ved.finzenz.finzenz.entities.User;
 import com.ved.finzenz.finzenz.request.RegisterRequest;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface UserService {
     User registerUser(RegisterRequest request);
     User loginUser(String email, String password);
+    CompletableFuture<User> loginUserAsync(String email, String password);
+    EmailFilterStats getEmailFilterStats();
 }
 
@@ -1,33 +1,52 @@
 package com.ved.finzenz.finzenz.service;
 
+import com.ved.finzenz.finzenz.dto.EmailFilterStats;
 import com.ved.finzenz.finzenz.entities.User;
 import com.ved.finzenz.finzenz.exceptions.InvalidCredentialsException;
 import com.ved.finzenz.finzenz.exceptions.UserAlreadyExistsException;
+import com.ved.finzenz.finzenz.registration.EmailBloomFilter;
 import com.ved.finzenz.finzenz.repository.UserRepository;
 import com.ved.finzenz.finzenz.request.RegisterRequest;
+import com.ved.finzenz.finzenz.security.CredentialVerificationPool;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CredentialVerificationPool verificationPool;
+    private final EmailBloomFilter emailFilter;
+    // Checked against when the email is unknown, so that path costs the same hash as a wrong password
+    private final String unknownUserHash;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           CredentialVerificationPool verificationPool, EmailBloomFilter emailFilter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.verificationPool = verificationPool;
+        this.emailFilter = emailFilter;
+        this.unknownUserHash = passwordEncoder.encode(UUID.randomUUID().toString());
     }
 
     @Override
     public User registerUser(RegisterRequest request) {
-        // 1. Check for duplicate email
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new UserAlreadyExistsException("User with email already exists.");
+        // 1. Check for duplicate email; the query is skipped when the filter says "definitely new"
+        boolean maybeRegistered = emailFilter.mightContain(request.getEmail());
+        if (maybeRegistered) {
+            if (userRepository.existsByEmail(request.getEmail())) {
+                throw new UserAlreadyExistsException("User with email already exists.");
+            }
+            emailFilter.recordFalsePositive();
         }
 
         // 2. Build User entity
@@ -48,15 +67,59 @@ public class UserServiceImpl implements UserService {
         user.setKycVerified(false);                       // or true if auto-verified
         user.setLastLoginAt(null);                        // initially null
 
-        // 4. Save user
-        return userRepository.save(user);
+        // 4. Save user; the unique constraint on email is the final arbiter
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!maybeRegistered) {
+                emailFilter.recordConstraintRejection();
+            }
+            throw new UserAlreadyExistsException("User with email already exists.");
+        }
+        emailFilter.put(saved.getEmail());
+        return saved;
     }
 
 
     @Override
     public User loginUser(String email, String password) {
-        return userRepository.findByEmail(email)
-                .filter(user -> passwordEncoder.matches(password, user.getPasswordHash()))
-                .orElseThrow(() -> new InvalidCredentialsException("Invalid email or password"));
+        try {
+            return loginUserAsync(email, password).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<User> loginUserAsync(String email, String password) {
+        User user = userRepository.findByEmail(email).orElse(null);
+
+        // Hashing runs on the bounded verification pool, not the request thread. Unknown emails
+        // are hashed too and fail the same way: answering faster would reveal who has an account
+        return verificationPool.submit(() -> {
+            if (user == null) {
+                passwordEncoder.matches(password, unknownUserHash);
+                throw new InvalidCredentialsException("Invalid email or password");
+            }
+            if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+                throw new InvalidCredentialsException("Invalid email or password");
+            }
+            // Legacy or lower-cost hash: re-encode with the current settings while we have the raw password
+            if (passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+                user.setPasswordHash(passwordEncoder.encode(password));
+                user.setUpdatedAt(LocalDateTime.now());
+                return userRepository.save(user);
+            }
+            return user;
+        });
+    }
+
+    @Override
+    public EmailFilterStats getEmailFilterStats() {
+        return emailFilter.getStats();
     }
 }
@@ -0,0 +1,73 @@
+package com.ved.finzenz.finzenz.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many requests run at once when requests are served on virtual threads. With a
+ * thread per request there is no pool size to bound concurrency any more, so without this a
+ * burst would pile thousands of requests onto the Hikari pool and fail them on its connection
+ * timeout. Requests wait for a permit for up to the acquire timeout (parking a virtual thread
+ * is cheap) and are answered with 503 and Retry-After after that.
+ *
+ * Runs after the security chain, so requests rejected there never take a permit. The permit is
+ * held by the initial dispatch only: async handlers (login, SSE streams) release it when the
+ * handler method returns.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public AdmissionControlFilter(
+            @Value("${finzenz.web.admission.max-concurrent-requests:200}") int maxConcurrentRequests,
+            @Value("${finzenz.web.admission.acquire-timeout:PT2S}") Duration acquireTimeout) {
+        if (maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("finzenz.web.admission.max-concurrent-requests must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        log.info("Virtual-thread request mode: admitting at most {} concurrent requests", maxConcurrentRequests);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy, please retry shortly");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- Highest alert threshold (percent) already sent for each budget (BudgetThresholdTracker).
+-- Evaluations lock the row before reading spending, so concurrent debits and other nodes
+-- send each threshold once. Lowered again when spending falls back below it.
+
+CREATE TABLE IF NOT EXISTS budget_alert_state (
+    budget_id INTEGER PRIMARY KEY REFERENCES budgets (id) ON DELETE CASCADE,
+    threshold INTEGER NOT NULL
+);
@@ -0,0 +1,13 @@
+-- One row per run date of the recurring EMI job (RecurringLoanScheduler).
+-- A row left in RUNNING after a crash is resumed when the application starts.
+
+CREATE TABLE IF NOT EXISTS loan_payment_runs (
+    run_date         DATE        PRIMARY KEY,
+    status           VARCHAR(20) NOT NULL,
+    started_at       TIMESTAMP   NOT NULL,
+    completed_at     TIMESTAMP,
+    chunks_completed INTEGER     NOT NULL DEFAULT 0,
+    loans_paid       INTEGER     NOT NULL DEFAULT 0,
+    loans_skipped    INTEGER     NOT NULL DEFAULT 0,
+    loans_failed     INTEGER     NOT NULL DEFAULT 0
+);
@@ -0,0 +1,5 @@
+-- Due-date lookups: the EMI scheduler scans by (status, next_due_date); per-user loan
+-- queries join accounts on user_id (idx_accounts_user_id) and then filter by account.
+
+CREATE INDEX IF NOT EXISTS idx_loans_status_next_due ON loans (status, next_due_date);
+CREATE INDEX IF NOT EXISTS idx_loans_account_status_due ON loans (account_id, status, next_due_date);
@@ -0,0 +1,12 @@
+-- Per-user, per-category, per-day DEBIT totals maintained by SpendingRollupService.
+-- After creating the table, seed it with POST /api/rollups/rebuild.
+
+CREATE TABLE IF NOT EXISTS spending_rollups (
+    id                BIGSERIAL PRIMARY KEY,
+    user_id           BIGINT         NOT NULL,
+    category          VARCHAR(100)   NOT NULL,
+    spend_date        DATE           NOT NULL,
+    total_amount      NUMERIC(15, 2) NOT NULL,
+    transaction_count BIGINT         NOT NULL,
+    CONSTRAINT uk_spending_rollups_user_category_day UNIQUE (user_id, category, spend_date)
+);
@@ -0,0 +1,16 @@
+-- Rollup categories are stored trimmed and lower-cased (SpendingRollupServiceImpl.categoryKey).
+-- Folds rows written before that into their normalised bucket. Safe to re-run: once every
+-- category is normalised the DELETE matches nothing.
+
+WITH moved AS (
+    DELETE FROM spending_rollups
+    WHERE category <> LOWER(TRIM(category))
+    RETURNING user_id, category, spend_date, total_amount, transaction_count
+)
+INSERT INTO spending_rollups (user_id, category, spend_date, total_amount, transaction_count)
+SELECT user_id, LOWER(TRIM(category)), spend_date, SUM(total_amount), SUM(transaction_count)
+FROM moved
+GROUP BY user_id, LOWER(TRIM(category)), spend_date
+ON CONFLICT (user_id, category, spend_date) DO UPDATE SET
+    total_amount = spending_rollups.total_amount + EXCLUDED.total_amount,
+    transaction_count = spending_rollups.transaction_count + EXCLUDED.transaction_count;
@@ -0,0 +1,13 @@
+-- Full-text search over transaction descriptions (TransactionRepository.searchByUserId).
+-- The column is generated, so PostgreSQL keeps it in sync on every insert, update and delete.
+-- 'simple' config: no stemming or stop words, which suits merchant names and prefix matching.
+-- Punctuation is folded to spaces first: the parser would otherwise keep "UPI/Swiggy/123" as a
+-- single file-path token and a search for "swiggy" would never match it.
+--
+-- No GIN index: search is always scoped to one user, whose rows are found through the account
+-- indexes and then filtered on the stored vector. A global GIN index made the planner intersect
+-- every user's matches for a common prefix first (~50x slower; see SqlBenchmark --suite=search).
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS description_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', regexp_replace(
+        coalesce(description, '') || ' ' || coalesce(category, ''), '[^[:alnum:]]+', ' ', 'g'))) STORED;
@@ -0,0 +1,10 @@
+-- Transaction.id moved from IDENTITY to a pooled sequence (allocationSize = 50).
+-- The sequence behind the old identity/serial column must hand out blocks of 50,
+-- otherwise Hibernate's pooled optimizer would reuse ids. Run once before deploying.
+
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS transactions_id_seq;
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+ALTER TABLE transactions ALTER COLUMN id SET DEFAULT nextval('transactions_id_seq');
+ALTER SEQUENCE transactions_id_seq INCREMENT BY 50;
+SELECT setval('transactions_id_seq', COALESCE((SELECT MAX(id) FROM transactions), 0) + 50);
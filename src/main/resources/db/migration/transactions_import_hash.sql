@@ -0,0 +1,5 @@
+-- Content hash used to make statement imports idempotent (see StatementImportPipeline).
+-- NULL for manually entered transactions; the unique index ignores NULLs.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS import_hash VARCHAR(64);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_transactions_account_import_hash ON transactions (account_id, import_hash);
@@ -0,0 +1,6 @@
+-- Idempotency key for EMI payments (see LoanPaymentChunkProcessor / LoanServiceImpl.recordEmiPayment).
+-- NULL on every other transaction; the unique index ignores NULLs.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS loan_id BIGINT;
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS installment_number INTEGER;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_transactions_loan_installment ON transactions (loan_id, installment_number);
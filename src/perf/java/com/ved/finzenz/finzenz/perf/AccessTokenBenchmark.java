@@ -0,0 +1,87 @@
+package com.ved.finzenz.finzenz.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.security.AccessTokenService;
+import com.ved.finzenz.finzenz.security.AuthenticatedUser;
+import com.ved.finzenz.finzenz.security.TokenKeyRing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authentication: verifying a bearer token (HMAC plus payload parse) for a
+ * plain user and for an admin, whose token carries one more role, and the same plus building the
+ * Authentication that AccessTokenFilter puts in the security context. Issuing is measured for
+ * comparison; it only happens at login.
+ *
+ * Run: ./mvnw -Pperf compile exec:exec@jmh -Djmh.args="AccessTokenBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessTokenBenchmark {
+
+    private AccessTokenService tokens;
+    private User user;
+    private String userToken;
+    private String adminToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TokenKeyRing keyRing = new TokenKeyRing("k1:" + Base64.getEncoder().encodeToString(new byte[32]), "k1");
+        tokens = new AccessTokenService(keyRing, new ObjectMapper(), Duration.ofHours(1), "admin@finzenz.test");
+        user = user(1L, "user@finzenz.test");
+        userToken = tokens.issue(user).token();
+        adminToken = tokens.issue(user(2L, "admin@finzenz.test")).token();
+    }
+
+    @Benchmark
+    public AuthenticatedUser verifyUser() {
+        return tokens.verify(userToken);
+    }
+
+    @Benchmark
+    public AuthenticatedUser verifyAdmin() {
+        return tokens.verify(adminToken);
+    }
+
+    @Benchmark
+    public UsernamePasswordAuthenticationToken verifyAndAuthenticate() {
+        AuthenticatedUser principal = tokens.verify(userToken);
+        List<SimpleGrantedAuthority> authorities = principal.roles().stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+    }
+
+    @Benchmark
+    public String issue() {
+        return tokens.issue(user).token();
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+}
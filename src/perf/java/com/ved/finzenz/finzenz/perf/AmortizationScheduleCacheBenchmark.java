@@ -0,0 +1,122 @@
+package com.ved.finzenz.finzenz.perf;
+
+import com.ved.finzenz.finzenz.amortization.AmortizationCalculator;
+import com.ved.finzenz.finzenz.amortization.AmortizationSchedule;
+import com.ved.finzenz.finzenz.amortization.AmortizationScheduleCache;
+import com.ved.finzenz.finzenz.entities.Loan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Amortization costs per loan size:
+ * <ul>
+ *   <li>compute: building the full schedule, which is what a cache miss costs;</li>
+ *   <li>cachedHit: reading the schedule from {@link AmortizationScheduleCache};</li>
+ *   <li>outstandingAfterPayment: a cache read with completedInstallments advanced by one
+ *       before each call, plus the outstanding balance lookup;</li>
+ *   <li>emiBaseline: the EMI formula as LoanServiceImpl computed it before
+ *       {@link AmortizationCalculator}, with an exact (1+r)^n at scale 10;</li>
+ *   <li>emi: {@link AmortizationCalculator#emi} on the same loan.</li>
+ * </ul>
+ *
+ * Run: ./mvnw -Pperf compile exec:exec@jmh -Djmh.args="AmortizationScheduleCacheBenchmark"
+ *
+ * Any JMH option can follow the pattern, e.g. -Djmh.args="AmortizationScheduleCacheBenchmark -p installments=360 -rf json".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AmortizationScheduleCacheBenchmark {
+
+    // Monthly for a year, monthly for 30 years, daily for 10 years
+    @Param({"12", "360", "3650"})
+    public int installments;
+
+    private Loan loan;
+    private AmortizationScheduleCache cache;
+    private BigDecimal periodRate;
+    private int intervalDays;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        intervalDays = installments == 3650 ? 1 : 30;
+        BigDecimal principal = new BigDecimal("2500000.00");
+        BigDecimal annualRate = new BigDecimal("8.50");
+        periodRate = AmortizationCalculator.periodRate(annualRate, intervalDays);
+        loan = Loan.builder()
+                .id(1L)
+                .principalAmount(principal)
+                .interestRate(annualRate)
+                .recurringIntervalDays(intervalDays)
+                .totalInstallments(installments)
+                .emiAmount(AmortizationCalculator.emi(principal, periodRate, installments))
+                .startDate(LocalDate.of(2026, 1, 1))
+                .completedInstallments(0)
+                .build();
+        cache = new AmortizationScheduleCache(200_000);
+        cache.get(loan);
+    }
+
+    @Benchmark
+    public AmortizationSchedule compute() {
+        return AmortizationCalculator.schedule(loan.getPrincipalAmount(), periodRate,
+                loan.getEmiAmount(), loan.getTotalInstallments());
+    }
+
+    @Benchmark
+    public AmortizationSchedule cachedHit() {
+        return cache.get(loan);
+    }
+
+    @Benchmark
+    public BigDecimal outstandingAfterPayment() {
+        loan.setCompletedInstallments((loan.getCompletedInstallments() + 1) % installments);
+        return cache.get(loan).outstandingAfter(loan.getCompletedInstallments());
+    }
+
+    @Benchmark
+    public BigDecimal emiBaseline() {
+        return calculateRecurringEmi(loan.getPrincipalAmount(), loan.getInterestRate(), installments, intervalDays);
+    }
+
+    @Benchmark
+    public BigDecimal emi() {
+        return AmortizationCalculator.emi(loan.getPrincipalAmount(),
+                AmortizationCalculator.periodRate(loan.getInterestRate(), intervalDays), installments);
+    }
+
+    // LoanServiceImpl.calculateRecurringEmi as it was before AmortizationCalculator
+    private static BigDecimal calculateRecurringEmi(BigDecimal principal, BigDecimal annualRate,
+                                                    int totalInstallments, int intervalDays) {
+        if (annualRate.compareTo(BigDecimal.ZERO) == 0) {
+            return principal.divide(BigDecimal.valueOf(totalInstallments), 2, RoundingMode.HALF_UP);
+        }
+        double periodsPerYear = 365.0 / intervalDays;
+        BigDecimal periodRate = annualRate
+                .divide(BigDecimal.valueOf(periodsPerYear * 100), 10, RoundingMode.HALF_UP);
+        BigDecimal onePlusR = periodRate.add(BigDecimal.ONE);
+        BigDecimal onePlusRPowerN = onePlusR.pow(totalInstallments);
+        return principal
+                .multiply(periodRate)
+                .multiply(onePlusRPowerN)
+                .divide(onePlusRPowerN.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ved.finzenz.finzenz.perf;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps every latency sample of one scenario, so percentiles are exact rather than bucketed.
+ * A minute at 20k requests/s is ~10 MB of samples, which is fine for a load-test process.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[4096];
+    private int size;
+    private long errors;
+    private final Map<Integer, Long> statusCodes = new TreeMap<>();
+
+    // status -1: the request failed without a response (timeout, connection refused)
+    synchronized void record(long latencyNanos, int status) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = latencyNanos;
+        if (status < 200 || status >= 400) {
+            errors++;
+        }
+        statusCodes.merge(status, 1L, Long::sum);
+    }
+
+    // Only called once the run is over, with a target no other thread uses
+    synchronized void mergeInto(LatencyRecorder target) {
+        target.samples = Arrays.copyOf(target.samples, Math.max(target.samples.length, target.size + size));
+        System.arraycopy(samples, 0, target.samples, target.size, size);
+        target.size += size;
+        target.errors += errors;
+        statusCodes.forEach((status, count) -> target.statusCodes.merge(status, count, Long::sum));
+    }
+
+    synchronized PerfReport.ScenarioResult result(String name, double measuredSeconds) {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        double mean = size == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1_000_000.0;
+        PerfReport.LatencyMillis latency = new PerfReport.LatencyMillis(round(mean),
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.95),
+                percentile(sorted, 0.99), percentile(sorted, 0.999), size == 0 ? 0 : round(sorted[size - 1] / 1_000_000.0));
+
+        Map<String, Long> codes = new TreeMap<>();
+        statusCodes.forEach((status, count) -> codes.put(String.valueOf(status), count));
+        return new PerfReport.ScenarioResult(name, size, errors, round(size / measuredSeconds), latency, codes);
+    }
+
+    // Nearest-rank percentile, in milliseconds
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return round(sorted[Math.max(0, rank - 1)] / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,298 @@
+package com.ved.finzenz.finzenz.perf;
+
+import com.ved.finzenz.finzenz.amortization.AmortizationCalculator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Loads a synthetic dataset for load tests into a local PostgreSQL database: users, accounts,
+ * transactions, loans, budgets, and the spending rollups and balances derived from them.
+ *
+ * The data is a pure function of the options (seed, sizes and --as-of), so two runs with the same
+ * options produce the same rows and benchmark results stay comparable. Rows are written with
+ * COPY, which loads millions of transactions in well under a minute.
+ *
+ * The schema must already exist: start the application once against the database (with
+ * spring.jpa.hibernate.ddl-auto=update) and apply src/main/resources/db/migration. Every seeded
+ * user can log in as perf-user-N@finzenz.test (N from 1) with --user-password.
+ *
+ * Run: ./mvnw -Pperf compile exec:java -Dperf.main=com.ved.finzenz.finzenz.perf.PerfDataGenerator
+ *          -Dperf.args="--users=1000 --transactions=2000000"
+ *
+ * Options (all optional):
+ *   --jdbc-url=jdbc:postgresql://localhost:5432/finzenz_perf --db-user=postgres --db-password=postgres
+ *   --users=1000 --accounts-per-user=3 --transactions=2000000 --loans-per-user=1 --budgets-per-user=5
+ *   --history-days=730 --seed=42 --as-of=YYYY-MM-DD (default today) --user-password=perf-password
+ *   --reset=true  required when the database already holds users; truncates every table loaded here
+ */
+public final class PerfDataGenerator {
+
+    static final String EMAIL_PATTERN = "perf-user-%d@finzenz.test";
+    static final String DEFAULT_PASSWORD = "perf-password";
+    static final String[] CATEGORIES = {
+            "Groceries", "Dining", "Transport", "Fuel", "Rent", "Utilities", "Shopping",
+            "Entertainment", "Health", "Travel", "Education", "Insurance"
+    };
+    static final String[] MERCHANTS = {
+            "Swiggy", "Zomato", "Uber", "Ola", "Amazon", "Flipkart", "BigBasket", "DMart", "Netflix",
+            "Spotify", "IndianOil", "Airtel", "Jio", "Apollo", "IRCTC", "MakeMyTrip", "Myntra", "Starbucks"
+    };
+
+    private static final String[] ACCOUNT_TYPES = {"SAVINGS", "CURRENT", "CREDIT", "INVESTMENTS"};
+    private static final String[] INSTITUTIONS = {"HDFC Bank", "ICICI Bank", "SBI", "Axis Bank", "Kotak"};
+    private static final String[] LENDERS = {"HDFC Bank", "Bajaj Finance", "SBI", "Tata Capital"};
+    private static final int[] LOAN_TENURES = {12, 24, 36, 60};
+    private static final int LOAN_INTERVAL_DAYS = 30;
+    private static final int COPY_BUFFER_CHARS = 1 << 20;
+
+    private final int users;
+    private final int accountsPerUser;
+    private final long transactions;
+    private final int loansPerUser;
+    private final int budgetsPerUser;
+    private final int historyDays;
+    private final long seed;
+    private final LocalDate asOf;
+    private final String userPassword;
+
+    private PerfDataGenerator(PerfArgs args) {
+        this.users = args.getInt("users", 1000);
+        this.accountsPerUser = args.getInt("accounts-per-user", 3);
+        this.transactions = args.getLong("transactions", 2_000_000L);
+        this.loansPerUser = Math.min(args.getInt("loans-per-user", 1), accountsPerUser);
+        this.budgetsPerUser = Math.min(args.getInt("budgets-per-user", 5), CATEGORIES.length);
+        this.historyDays = args.getInt("history-days", 730);
+        this.seed = args.getLong("seed", 42L);
+        this.asOf = LocalDate.parse(args.get("as-of", LocalDate.now().toString()));
+        this.userPassword = args.get("user-password", DEFAULT_PASSWORD);
+    }
+
+    public static void main(String[] argv) throws Exception {
+        PerfArgs args = new PerfArgs(argv);
+        PerfDataGenerator generator = new PerfDataGenerator(args);
+        try (Connection connection = DriverManager.getConnection(
+                args.get("jdbc-url", "jdbc:postgresql://localhost:5432/finzenz_perf"),
+                args.get("db-user", "postgres"),
+                args.get("db-password", "postgres"))) {
+            generator.run(connection, args.getBoolean("reset", false));
+        }
+    }
+
+    private void run(Connection connection, boolean reset) throws SQLException {
+        long started = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM users)")) {
+                rs.next();
+                if (rs.getBoolean(1) && !reset) {
+                    throw new IllegalStateException("Database already has users; rerun with --reset=true to replace them");
+                }
+            }
+            statement.execute("TRUNCATE users, accounts, transactions, loans, budgets, spending_rollups, loan_payment_runs "
+                    + "RESTART IDENTITY CASCADE");
+        }
+
+        PGConnection pg = connection.unwrap(PGConnection.class);
+        copyUsers(pg);
+        copyAccounts(pg);
+        copyTransactions(pg);
+        copyLoans(pg);
+        copyBudgets(pg);
+
+        log("Deriving balances, spending rollups and sequences");
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE accounts a SET balance = a.balance + s.delta FROM ("
+                    + "SELECT account_id, SUM(CASE WHEN transaction_type = 'CREDIT' THEN amount ELSE -amount END) AS delta "
+                    + "FROM transactions GROUP BY account_id) s WHERE a.id = s.account_id");
+            // Same rows SpendingRollupRepository.rebuildAll would produce
+            statement.executeUpdate("INSERT INTO spending_rollups (user_id, category, spend_date, total_amount, transaction_count) "
+                    + "SELECT a.user_id, LOWER(TRIM(COALESCE(t.category, ''))), CAST(t.transaction_date AS date), SUM(t.amount), COUNT(*) "
+                    + "FROM transactions t JOIN accounts a ON t.account_id = a.id WHERE t.transaction_type = 'DEBIT' "
+                    + "GROUP BY a.user_id, LOWER(TRIM(COALESCE(t.category, ''))), CAST(t.transaction_date AS date)");
+            for (String table : new String[]{"users", "accounts", "loans", "budgets"}) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                        + "COALESCE((SELECT MAX(id) FROM " + table + "), 0) + 1, false)");
+            }
+            // Pooled sequence (allocationSize = 50), as in transactions_id_seq_pooled.sql
+            statement.execute("SELECT setval('transactions_id_seq', COALESCE((SELECT MAX(id) FROM transactions), 0) + 50)");
+            statement.execute("ANALYZE");
+        }
+        log("Done in " + (System.nanoTime() - started) / 1_000_000_000 + " s");
+    }
+
+    private void copyUsers(PGConnection pg) throws SQLException {
+        log("Users: " + users);
+        // One hash for everyone: hashing a million passwords would dominate the load time
+        String passwordHash = "{bcrypt}" + new BCryptPasswordEncoder(10).encode(userPassword);
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime createdAt = asOf.minusDays(historyDays).atStartOfDay();
+        try (CopyWriter out = new CopyWriter(pg, "users (id, full_name, email, phone, password_hash, address, "
+                + "date_of_birth, gender, kyc_verified, is_active, is_deleted, created_at, updated_at)")) {
+            for (int id = 1; id <= users; id++) {
+                out.row(id, "Perf User " + id, String.format(EMAIL_PATTERN, id),
+                        String.valueOf(9_000_000_000L + id), passwordHash, "Perf Street " + id,
+                        LocalDate.of(1960, 1, 1).plusDays(random.nextInt(15_000)),
+                        random.nextBoolean() ? "MALE" : "FEMALE", true, true, false, createdAt, createdAt);
+            }
+        }
+    }
+
+    private void copyAccounts(PGConnection pg) throws SQLException {
+        int accounts = users * accountsPerUser;
+        log("Accounts: " + accounts);
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        LocalDateTime createdAt = asOf.minusDays(historyDays).atStartOfDay();
+        try (CopyWriter out = new CopyWriter(pg, "accounts (id, account_name, account_type, institution_name, "
+                + "account_number, balance, currency, is_active, created_at, user_id)")) {
+            for (long id = 1; id <= accounts; id++) {
+                long userId = (id - 1) / accountsPerUser + 1;
+                // Mostly INR, with some foreign-currency accounts for the FX net-worth path
+                int currency = random.nextInt(10);
+                out.row(id, "Account " + id, ACCOUNT_TYPES[random.nextInt(ACCOUNT_TYPES.length)],
+                        INSTITUTIONS[random.nextInt(INSTITUTIONS.length)], String.format("PERF%012d", id),
+                        money(10_000 + random.nextInt(490_000)),
+                        currency < 8 ? "INR" : currency == 8 ? "USD" : "EUR", true, createdAt, userId);
+            }
+        }
+    }
+
+    private void copyTransactions(PGConnection pg) throws SQLException {
+        long accounts = (long) users * accountsPerUser;
+        log("Transactions: " + transactions);
+        LocalDateTime historyStart = asOf.minusDays(historyDays).atStartOfDay();
+        long historySeconds = historyDays * 86_400L;
+        long id = 0;
+        try (CopyWriter out = new CopyWriter(pg, "transactions (id, account_id, amount, transaction_date, created_at, "
+                + "description, transaction_type, category)")) {
+            for (long accountId = 1; accountId <= accounts; accountId++) {
+                // Per-account stream, so an account's rows don't depend on the sizes of the others
+                SplittableRandom random = new SplittableRandom(seed * 31 + accountId);
+                long count = transactions / accounts + (accountId <= transactions % accounts ? 1 : 0);
+                for (long i = 0; i < count; i++) {
+                    LocalDateTime date = historyStart.plusSeconds(random.nextLong(historySeconds));
+                    boolean credit = random.nextInt(10) == 0;
+                    String merchant = MERCHANTS[random.nextInt(MERCHANTS.length)];
+                    String category = credit ? "Salary" : CATEGORIES[random.nextInt(CATEGORIES.length)];
+                    BigDecimal amount = credit ? money(20_000 + random.nextInt(80_000)) : money(50 + random.nextInt(5_000));
+                    out.row(++id, accountId, amount, date, date,
+                            credit ? "Salary credit" : "UPI/" + merchant + "/" + random.nextInt(1_000_000),
+                            credit ? "CREDIT" : "DEBIT", category);
+                    if (id % 500_000 == 0) {
+                        log("  " + id + " transactions");
+                    }
+                }
+            }
+        }
+    }
+
+    private void copyLoans(PGConnection pg) throws SQLException {
+        log("Loans: " + (long) users * loansPerUser);
+        SplittableRandom random = new SplittableRandom(seed + 2);
+        long id = 0;
+        try (CopyWriter out = new CopyWriter(pg, "loans (id, account_id, lender_name, principal_amount, interest_rate, "
+                + "tenure_months, emi_amount, start_date, end_date, next_due_date, status, recurring_interval_days, "
+                + "last_payment_date, total_installments, completed_installments, created_at)")) {
+            for (long userId = 1; userId <= users; userId++) {
+                for (int n = 0; n < loansPerUser; n++) {
+                    long accountId = (userId - 1) * accountsPerUser + 1 + n;
+                    int installments = LOAN_TENURES[random.nextInt(LOAN_TENURES.length)];
+                    int completed = random.nextInt(installments);
+                    BigDecimal principal = money(100_000 + random.nextInt(2_900_000));
+                    BigDecimal rate = BigDecimal.valueOf(700 + random.nextInt(900), 2);
+                    BigDecimal emi = AmortizationCalculator.emi(principal,
+                            AmortizationCalculator.periodRate(rate, LOAN_INTERVAL_DAYS), installments)
+                            .setScale(2, RoundingMode.HALF_UP);
+                    // Installment n falls due on start + n * interval (Loan.installmentDueDate);
+                    // about one loan in ten is overdue, the rest fall due within the next interval
+                    int daysUntilDue = random.nextInt(10) == 0 ? -(1 + random.nextInt(20)) : 1 + random.nextInt(LOAN_INTERVAL_DAYS);
+                    LocalDate nextDue = asOf.plusDays(daysUntilDue);
+                    LocalDate start = nextDue.minusDays((long) LOAN_INTERVAL_DAYS * (completed + 1));
+                    out.row(++id, accountId, LENDERS[random.nextInt(LENDERS.length)], principal, rate,
+                            installments, emi, start,
+                            start.plusDays((long) LOAN_INTERVAL_DAYS * installments), nextDue, "ACTIVE",
+                            LOAN_INTERVAL_DAYS, completed > 0 ? start.plusDays((long) LOAN_INTERVAL_DAYS * completed) : null,
+                            installments, completed, start);
+                }
+            }
+        }
+    }
+
+    private void copyBudgets(PGConnection pg) throws SQLException {
+        log("Budgets: " + (long) users * budgetsPerUser * 2);
+        SplittableRandom random = new SplittableRandom(seed + 3);
+        LocalDate thisMonth = asOf.withDayOfMonth(1);
+        long id = 0;
+        try (CopyWriter out = new CopyWriter(pg, "budgets (id, user_id, category, amount, start_date, end_date, created_at)")) {
+            for (long userId = 1; userId <= users; userId++) {
+                int firstCategory = random.nextInt(CATEGORIES.length);
+                for (int n = 0; n < budgetsPerUser; n++) {
+                    String category = CATEGORIES[(firstCategory + n) % CATEGORIES.length];
+                    // Last month and this month, so remaining-budget queries see both closed and open periods
+                    for (LocalDate month : new LocalDate[]{thisMonth.minusMonths(1), thisMonth}) {
+                        out.row(++id, userId, category, money(5_000 + random.nextInt(45_000)),
+                                month, month.plusMonths(1).minusDays(1), month);
+                    }
+                }
+            }
+        }
+    }
+
+    private static BigDecimal money(int rupees) {
+        return BigDecimal.valueOf(rupees).setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    private static void log(String message) {
+        System.out.println("[" + LocalDateTime.now().withNano(0) + "] " + message);
+    }
+
+    /**
+     * COPY ... FROM STDIN in text format. Generated values never contain tabs, newlines or
+     * backslashes, so no escaping is needed; null is written as \N.
+     */
+    private static final class CopyWriter implements AutoCloseable {
+
+        private final CopyIn copy;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 4096);
+
+        CopyWriter(PGConnection pg, String tableAndColumns) throws SQLException {
+            this.copy = pg.getCopyAPI().copyIn("COPY " + tableAndColumns + " FROM STDIN");
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                buffer.append(values[i] == null ? "\\N" : values[i].toString());
+            }
+            buffer.append('\n');
+            if (buffer.length() >= COPY_BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copy.endCopy();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ved.finzenz.finzenz.perf;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON report written by {@link WorkloadDriver} and read back by {@link PerfReportCompare}.
+ * Only requests started inside the measurement window are counted; warm-up is excluded.
+ */
+record PerfReport(
+        String label,
+        String startedAt,
+        String baseUrl,
+        int concurrency,
+        int users,
+        double warmupSeconds,
+        double durationSeconds,
+        long seed,
+        String javaVersion,
+        int availableProcessors,
+        ScenarioResult total,
+        List<ScenarioResult> scenarios) {
+
+    record ScenarioResult(
+            String name,
+            long requests,
+            long errors,
+            double throughputPerSecond,
+            LatencyMillis latencyMillis,
+            // HTTP status -> count; "-1" counts requests that failed without a response
+            Map<String, Long> statusCodes) {
+    }
+
+    record LatencyMillis(double mean, double p50, double p90, double p95, double p99, double p999, double max) {
+    }
+}
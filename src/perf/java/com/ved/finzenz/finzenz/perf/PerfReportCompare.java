@@ -0,0 +1,86 @@
+package com.ved.finzenz.finzenz.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares two {@link WorkloadDriver} reports scenario by scenario, e.g. a branch against main or
+ * virtual-thread against platform-thread mode. Exits with status 1 when the candidate's p99
+ * grew, or its throughput fell, by more than the allowed fraction in any scenario with enough
+ * samples, so it can gate a CI job.
+ *
+ * Run: ./mvnw -Pperf compile exec:java -Dperf.main=com.ved.finzenz.finzenz.perf.PerfReportCompare
+ *          -Dperf.args="--baseline=target/perf/report-platform.json --candidate=target/perf/report-virtual.json"
+ *
+ * Options: --baseline=report-a.json --candidate=report-b.json
+ *          --max-p99-regression=0.10 --max-throughput-drop=0.10 --min-requests=100
+ */
+public final class PerfReportCompare {
+
+    public static void main(String[] argv) throws IOException {
+        PerfArgs args = new PerfArgs(argv);
+        ObjectMapper json = new ObjectMapper();
+        PerfReport baseline = json.readValue(new File(args.get("baseline", "target/perf/report-baseline.json")), PerfReport.class);
+        PerfReport candidate = json.readValue(new File(args.get("candidate", "target/perf/report-run.json")), PerfReport.class);
+        double maxP99Regression = args.getDouble("max-p99-regression", 0.10);
+        double maxThroughputDrop = args.getDouble("max-throughput-drop", 0.10);
+        long minRequests = args.getLong("min-requests", 100);
+
+        Map<String, PerfReport.ScenarioResult> before = baseline.scenarios().stream()
+                .collect(Collectors.toMap(PerfReport.ScenarioResult::name, Function.identity()));
+
+        System.out.printf("%s (baseline) vs %s (candidate)%n", baseline.label(), candidate.label());
+        System.out.printf("%-24s %12s %12s %8s %10s %10s %8s%n",
+                "scenario", "req/s before", "req/s after", "change", "p99 before", "p99 after", "change");
+        int regressions = 0;
+        for (PerfReport.ScenarioResult after : candidate.scenarios()) {
+            PerfReport.ScenarioResult previous = before.get(after.name());
+            if (previous == null) {
+                System.out.printf("%-24s %s%n", after.name(), "(not in baseline)");
+                continue;
+            }
+            double throughputChange = change(previous.throughputPerSecond(), after.throughputPerSecond());
+            double p99Change = change(previous.latencyMillis().p99(), after.latencyMillis().p99());
+            boolean comparable = previous.requests() >= minRequests && after.requests() >= minRequests;
+            boolean regressed = comparable && (p99Change > maxP99Regression || throughputChange < -maxThroughputDrop);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-24s %12.1f %12.1f %+7.1f%% %10.2f %10.2f %+7.1f%%%s%n",
+                    after.name(), previous.throughputPerSecond(), after.throughputPerSecond(), throughputChange * 100,
+                    previous.latencyMillis().p99(), after.latencyMillis().p99(), p99Change * 100,
+                    regressed ? "  REGRESSION" : comparable ? "" : "  (too few samples)");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d scenario(s) regressed beyond p99 +%.0f%% / throughput -%.0f%%%n",
+                    regressions, maxP99Regression * 100, maxThroughputDrop * 100);
+            System.exit(1);
+        }
+    }
+
+    // One report as a table, printed by the driver at the end of a run
+    static void print(PerfReport report) {
+        System.out.printf("%-24s %10s %8s %10s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (PerfReport.ScenarioResult result : report.scenarios()) {
+            printRow(result);
+        }
+        printRow(report.total());
+    }
+
+    private static void printRow(PerfReport.ScenarioResult result) {
+        PerfReport.LatencyMillis latency = result.latencyMillis();
+        System.out.printf("%-24s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", result.name(), result.requests(),
+                result.errors(), result.throughputPerSecond(), latency.p50(), latency.p90(), latency.p99(), latency.max());
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before;
+    }
+}
@@ -0,0 +1,202 @@
+package com.ved.finzenz.finzenz.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Times the SQL behind one feature against a database seeded by {@link PerfDataGenerator}, with
+ * the query shape the code used before the change next to the one it uses now. Each query runs
+ * with the same pseudo-random parameters and reads every row it returns, as the service would.
+ * Results go to the same JSON report format as {@link WorkloadDriver}, one scenario per query.
+ *
+ * Run: ./mvnw -Pperf compile exec:java -Dperf.main=com.ved.finzenz.finzenz.perf.SqlBenchmark
+ *          -Dperf.args="--suite=date-range --users=1000"
+ *
+ * Suites: date-range (findByUserIdAndTransactionDateRange), search (searchByUserId).
+ *
+ * Options (all optional):
+ *   --suite=date-range|search --jdbc-url=jdbc:postgresql://localhost:5432/finzenz_perf --db-user=postgres
+ *   --db-password=postgres --users=1000 (as seeded) --history-days=730 (as seeded) --as-of=YYYY-MM-DD
+ *   --warmup-iterations=20 --iterations=200 --seed=42 --explain=true --output=target/perf/sql-<suite>.json
+ */
+public final class SqlBenchmark {
+
+    private record Params(long userId, LocalDateTime from, LocalDateTime to, String term) {
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement, Params params) throws SQLException;
+    }
+
+    private record Query(String name, String sql, Binder binder) {
+    }
+
+    private static final String USER_TRANSACTIONS = "SELECT t.* FROM transactions t "
+            + "JOIN accounts a ON t.account_id = a.id WHERE a.user_id = ?";
+
+    private static final Binder USER_ONLY = (statement, p) -> statement.setLong(1, p.userId());
+    private static final Binder USER_AND_RANGE = (statement, p) -> {
+        statement.setLong(1, p.userId());
+        statement.setTimestamp(2, Timestamp.valueOf(p.from()));
+        statement.setTimestamp(3, Timestamp.valueOf(p.to()));
+    };
+
+    private static Map<String, List<Query>> suites() {
+        Map<String, List<Query>> suites = new LinkedHashMap<>();
+        // TransactionRepository.findByUserIdAndTransactionDateRange vs what it replaced: every user
+        // transaction loaded and filtered in Java, and an EXTRACT(MONTH/YEAR) predicate no index serves
+        String range = USER_TRANSACTIONS + " AND t.transaction_date >= ? AND t.transaction_date < ? "
+                + "ORDER BY t.transaction_date";
+        suites.put("date-range", List.of(
+                new Query("custom-range.before (all rows, filter in Java)", USER_TRANSACTIONS, USER_ONLY),
+                new Query("custom-range.after (range predicate)", range, USER_AND_RANGE),
+                new Query("monthly.before (EXTRACT)", USER_TRANSACTIONS
+                        + " AND EXTRACT(MONTH FROM t.transaction_date) = ? AND EXTRACT(YEAR FROM t.transaction_date) = ?",
+                        (statement, p) -> {
+                            statement.setLong(1, p.userId());
+                            statement.setInt(2, p.from().getMonthValue());
+                            statement.setInt(3, p.from().getYear());
+                        }),
+                new Query("monthly.after (range predicate)", range, (statement, p) -> {
+                    LocalDateTime monthStart = p.from().toLocalDate().withDayOfMonth(1).atStartOfDay();
+                    USER_AND_RANGE.bind(statement, new Params(p.userId(), monthStart, monthStart.plusMonths(1), p.term()));
+                })));
+
+        // TransactionRepository.searchByUserId vs what it replaced: every user transaction loaded and
+        // matched with contains() in Java, and the unindexable LIKE '%term%' of the account variant
+        suites.put("search", List.of(
+                new Query("search.before (all rows, contains in Java)", USER_TRANSACTIONS, USER_ONLY),
+                new Query("search.before (ILIKE '%term%')", USER_TRANSACTIONS
+                        + " AND (t.description ILIKE ? OR t.category ILIKE ?) "
+                        + "ORDER BY t.transaction_date DESC, t.id DESC LIMIT 50",
+                        (statement, p) -> {
+                            statement.setLong(1, p.userId());
+                            statement.setString(2, "%" + p.term() + "%");
+                            statement.setString(3, "%" + p.term() + "%");
+                        }),
+                new Query("search.after (tsvector prefix)", "SELECT t.* FROM transactions t "
+                        + "JOIN accounts a ON t.account_id = a.id "
+                        + "CROSS JOIN to_tsquery('simple', ?) q "
+                        + "WHERE a.user_id = ? AND t.description_tsv @@ q "
+                        + "ORDER BY ts_rank(t.description_tsv, q) DESC, t.transaction_date DESC, t.id DESC "
+                        + "LIMIT 50 OFFSET 0",
+                        (statement, p) -> {
+                            statement.setString(1, p.term() + ":*");
+                            statement.setLong(2, p.userId());
+                        })));
+        return suites;
+    }
+
+    public static void main(String[] argv) throws Exception {
+        PerfArgs args = new PerfArgs(argv);
+        String suiteName = args.get("suite", "date-range");
+        List<Query> suite = suites().get(suiteName);
+        if (suite == null) {
+            throw new IllegalArgumentException("Unknown --suite " + suiteName + "; suites are " + suites().keySet());
+        }
+        int users = args.getInt("users", 1000);
+        int historyDays = args.getInt("history-days", 730);
+        LocalDate asOf = LocalDate.parse(args.get("as-of", LocalDate.now().toString()));
+        int warmupIterations = args.getInt("warmup-iterations", 20);
+        int iterations = args.getInt("iterations", 200);
+        long seed = args.getLong("seed", 42L);
+        Path output = Path.of(args.get("output", "target/perf/sql-" + suiteName + ".json"));
+
+        // Same parameters for every query, so the before/after rows are directly comparable
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Params> params = new ArrayList<>();
+        for (int i = 0; i < warmupIterations + iterations; i++) {
+            // A 30-day window inside the seeded history
+            LocalDateTime from = asOf.minusDays(30 + random.nextInt(Math.max(1, historyDays - 30))).atStartOfDay();
+            // Search term: the first four letters of a seeded merchant name, as a user would type it
+            String merchant = PerfDataGenerator.MERCHANTS[random.nextInt(PerfDataGenerator.MERCHANTS.length)];
+            String term = merchant.substring(0, Math.min(4, merchant.length())).toLowerCase(Locale.ROOT);
+            params.add(new Params(1 + random.nextInt(users), from, from.plusDays(30), term));
+        }
+
+        String startedAt = Instant.now().toString();
+        List<PerfReport.ScenarioResult> results = new ArrayList<>();
+        LatencyRecorder total = new LatencyRecorder();
+        double totalSeconds = 0;
+        try (Connection connection = DriverManager.getConnection(
+                args.get("jdbc-url", "jdbc:postgresql://localhost:5432/finzenz_perf"),
+                args.get("db-user", "postgres"),
+                args.get("db-password", "postgres"))) {
+            for (Query query : suite) {
+                if (args.getBoolean("explain", true)) {
+                    explain(connection, query, params.get(0));
+                }
+                LatencyRecorder recorder = new LatencyRecorder();
+                long started = 0;
+                for (int i = 0; i < params.size(); i++) {
+                    if (i == warmupIterations) {
+                        started = System.nanoTime();
+                    }
+                    long begin = System.nanoTime();
+                    run(connection, query, params.get(i));
+                    if (i >= warmupIterations) {
+                        recorder.record(System.nanoTime() - begin, 200);
+                    }
+                }
+                double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+                totalSeconds += seconds;
+                recorder.mergeInto(total);
+                results.add(recorder.result(query.name(), seconds));
+            }
+        }
+
+        PerfReport report = new PerfReport("sql-" + suiteName, startedAt, args.get("jdbc-url", "jdbc:postgresql://localhost:5432/finzenz_perf"),
+                1, users, 0, totalSeconds, seed, System.getProperty("java.version"),
+                Runtime.getRuntime().availableProcessors(), total.result("total", totalSeconds), results);
+        output.toAbsolutePath().getParent().toFile().mkdirs();
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        PerfReportCompare.print(report);
+        System.out.println("Report written to " + output.toAbsolutePath());
+    }
+
+    private static int run(Connection connection, Query query, Params params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(query.sql())) {
+            query.binder().bind(statement, params);
+            int rows = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        rs.getObject(column);
+                    }
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static void explain(Connection connection, Query query, Params params) throws SQLException {
+        System.out.println("== " + query.name());
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + query.sql())) {
+            query.binder().bind(statement, params);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    System.out.println("   " + rs.getString(1));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.ved.finzenz.finzenz.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP workload against a running server seeded by {@link PerfDataGenerator}.
+ *
+ * Logs in as the seeded users, then runs --concurrency clients that each send a request, wait
+ * for the response and immediately send the next, picking the endpoint from a weighted mix of
+ * the main /api/* reads and writes. Requests are asynchronous, so thousands of clients need no
+ * thread each. Requests started during --warmup are discarded; throughput and latency
+ * percentiles of the rest are written per scenario to a JSON report (see {@link PerfReport}).
+ *
+ * Run (WorkloadDriver is the profile's default main class):
+ *   ./mvnw -Pperf compile exec:java -Dperf.args="--label=platform --concurrency=200 --duration=PT60S"
+ *
+ * Options (all optional):
+ *   --base-url=http://localhost:8080 --users=100 (seeded users to log in as) --concurrency=200
+ *   --warmup=PT10S --duration=PT60S --request-timeout=PT30S --seed=42 --user-password=perf-password
+ *   --mix=transactions.page:30,transactions.create:10,... (weights; 0 disables; unlisted keep defaults)
+ *   Budget alert overhead: run the same load once with only transactions.create.budgeted and once
+ *   with only transactions.create.unbudgeted, then compare the two reports with PerfReportCompare.
+ *   Login: --mix=users.login:20,users.login.wrong-password:5,users.login.unknown-email:5 next to the
+ *   default reads gives logins/s, the other endpoints' tail latency under hashing load, and the two
+ *   failure paths' latencies side by side.
+ *   Batch vs single writes: with every other scenario at 0, run once with transactions.batch:10 and
+ *   once with transactions.create:10; a batch request posts 50 rows, so compare rows/s, not req/s.
+ *   Platform vs virtual threads: run --concurrency=5000 --mix=users.login:0 against the server
+ *   started without and with --spring.threads.virtual.enabled=true; in virtual mode 503s are the
+ *   admission limit's rejections, status -1 is a client-side timeout in either mode.
+ *   --label=platform --output=target/perf/report-<label>.json
+ *
+ * Runs must be shorter than the server's token TTL (finzenz.security.token.ttl, 1 hour by default).
+ */
+public final class WorkloadDriver {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int LOGIN_PARALLELISM = 8;
+    private static final int MAX_SCENARIO_PICKS = 10;
+    private static final int BATCH_ROWS = 50;
+
+    private record Session(long userId, String email, String token, List<Long> accountIds, List<Long> loanIds,
+                           List<String> budgetCategories, List<String> otherCategories) {
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        // null when the scenario doesn't apply to this session (e.g. a user without loans)
+        HttpRequest.Builder create(Session session, SplittableRandom random);
+    }
+
+    private record Scenario(String name, int weight, RequestFactory factory, LatencyRecorder recorder) {
+    }
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final String password;
+    private final Duration requestTimeout;
+    private final LocalDate today = LocalDate.now();
+
+    private WorkloadDriver(URI baseUrl, String password, Duration requestTimeout) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+        this.password = password;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public static void main(String[] argv) throws Exception {
+        PerfArgs args = new PerfArgs(argv);
+        String label = args.get("label", "run");
+        int users = args.getInt("users", 100);
+        int concurrency = args.getInt("concurrency", 200);
+        Duration warmup = args.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = args.getDuration("duration", Duration.ofSeconds(60));
+        long seed = args.getLong("seed", 42L);
+        Path output = Path.of(args.get("output", "target/perf/report-" + label + ".json"));
+
+        WorkloadDriver driver = new WorkloadDriver(URI.create(args.get("base-url", "http://localhost:8080")),
+                args.get("user-password", PerfDataGenerator.DEFAULT_PASSWORD),
+                args.getDuration("request-timeout", Duration.ofSeconds(30)));
+        List<Scenario> scenarios = driver.scenarios(args.get("mix", ""));
+
+        String startedAt = Instant.now().toString();
+        List<Session> sessions = driver.openSessions(users);
+        System.out.printf("Logged in %d users; running %d clients for %s after %s warm-up%n",
+                sessions.size(), concurrency, duration, warmup);
+        driver.run(scenarios, sessions, concurrency, warmup, duration, seed);
+
+        double seconds = duration.toNanos() / 1_000_000_000.0;
+        LatencyRecorder total = new LatencyRecorder();
+        List<PerfReport.ScenarioResult> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            scenario.recorder().mergeInto(total);
+            results.add(scenario.recorder().result(scenario.name(), seconds));
+        }
+        PerfReport report = new PerfReport(label, startedAt, driver.baseUrl.toString(), concurrency, sessions.size(),
+                warmup.toNanos() / 1_000_000_000.0, seconds, seed, System.getProperty("java.version"),
+                Runtime.getRuntime().availableProcessors(), total.result("total", seconds), results);
+
+        output.toAbsolutePath().getParent().toFile().mkdirs();
+        JSON.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        PerfReportCompare.print(report);
+        System.out.println("Report written to " + output.toAbsolutePath());
+    }
+
+    private List<Scenario> scenarios(String mix) {
+        Map<String, RequestFactory> factories = new LinkedHashMap<>();
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        define(factories, weights, "accounts.list", 10, (s, r) -> get("/api/accounts/user/" + s.userId(), s));
+        define(factories, weights, "accounts.balance", 10, (s, r) ->
+                get("/api/accounts/balance/" + pick(s.accountIds(), r), s));
+        define(factories, weights, "accounts.networth", 5, (s, r) ->
+                get("/api/accounts/networth/" + s.userId() + "?base=" + (r.nextBoolean() ? "INR" : "USD"), s));
+        define(factories, weights, "transactions.page", 20, (s, r) ->
+                get("/api/transactions/user/" + s.userId() + "?limit=50", s));
+        define(factories, weights, "transactions.summary", 5, (s, r) ->
+                get("/api/transactions/user/" + s.userId() + "/summary", s));
+        define(factories, weights, "transactions.monthly", 5, (s, r) -> {
+            LocalDate month = today.minusMonths(r.nextInt(12));
+            return get("/api/transactions/user/" + s.userId() + "/monthly?month=" + month.getMonthValue()
+                    + "&year=" + month.getYear(), s);
+        });
+        define(factories, weights, "transactions.search", 5, (s, r) ->
+                get("/api/transactions/user/" + s.userId() + "/search?keyword="
+                        + PerfDataGenerator.MERCHANTS[r.nextInt(PerfDataGenerator.MERCHANTS.length)] + "&size=20", s));
+        define(factories, weights, "transactions.create", 10, (s, r) -> createDebit(s, r,
+                PerfDataGenerator.CATEGORIES[r.nextInt(PerfDataGenerator.CATEGORIES.length)]));
+        // Off by default. Run alone to measure what budget alert evaluation adds to a write: same
+        // request, but only the first category has active budgets for the alert engine to evaluate
+        define(factories, weights, "transactions.create.budgeted", 0, (s, r) -> s.budgetCategories().isEmpty() ? null
+                : createDebit(s, r, s.budgetCategories().get(r.nextInt(s.budgetCategories().size()))));
+        define(factories, weights, "transactions.create.unbudgeted", 0, (s, r) -> s.otherCategories().isEmpty() ? null
+                : createDebit(s, r, s.otherCategories().get(r.nextInt(s.otherCategories().size()))));
+        // Off by default. POST /api/transactions/batch with BATCH_ROWS debits spread over the user's accounts
+        define(factories, weights, "transactions.batch", 0, this::createBatch);
+        define(factories, weights, "loans.dashboard", 5, (s, r) -> get("/api/loans/user/" + s.userId() + "/dashboard", s));
+        define(factories, weights, "loans.schedule", 3, (s, r) -> s.loanIds().isEmpty() ? null
+                : get("/api/loans/" + pick(s.loanIds(), r) + "/schedule?page=0&size=12", s));
+        define(factories, weights, "budgets.list", 5, (s, r) -> get("/api/budgets/user/" + s.userId(), s));
+        define(factories, weights, "budgets.remaining", 5, (s, r) ->
+                get("/api/budgets/user/" + s.userId() + "/remaining?date=" + today, s));
+        // BCrypt-bound: exercises the login verification pool alongside the JPA reads
+        define(factories, weights, "users.login", 1, (s, r) -> loginRequest(s.email()));
+        // Failed logins (401 by design): a wrong password and an unknown email should take equally long
+        define(factories, weights, "users.login.wrong-password", 0, (s, r) -> loginRequest(s.email(), "not-" + password));
+        define(factories, weights, "users.login.unknown-email", 0, (s, r) ->
+                loginRequest("nobody-" + r.nextInt(1_000_000) + "@finzenz.test", password));
+
+        for (String entry : mix.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.split(":");
+            if (parts.length != 2 || !weights.containsKey(parts[0].trim())) {
+                throw new IllegalArgumentException("Unknown --mix entry " + entry + "; scenarios are " + weights.keySet());
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+
+        List<Scenario> scenarios = new ArrayList<>();
+        weights.forEach((name, weight) -> {
+            if (weight > 0) {
+                scenarios.add(new Scenario(name, weight, factories.get(name), new LatencyRecorder()));
+            }
+        });
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("--mix disables every scenario");
+        }
+        return scenarios;
+    }
+
+    private static void define(Map<String, RequestFactory> factories, Map<String, Integer> weights,
+                               String name, int weight, RequestFactory factory) {
+        factories.put(name, factory);
+        weights.put(name, weight);
+    }
+
+    private List<Session> openSessions(int users) throws InterruptedException {
+        List<Session> sessions = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int worker = 0; worker < LOGIN_PARALLELISM; worker++) {
+            int first = worker + 1;
+            Thread thread = new Thread(() -> {
+                for (int userNumber = first; userNumber <= users; userNumber += LOGIN_PARALLELISM) {
+                    Session session = openSession(String.format(PerfDataGenerator.EMAIL_PATTERN, userNumber));
+                    synchronized (sessions) {
+                        sessions.add(session);
+                    }
+                }
+            }, "perf-login-" + worker);
+            thread.start();
+            workers.add(thread);
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        if (sessions.size() < users) {
+            throw new IllegalStateException("Only " + sessions.size() + " of " + users + " users could log in");
+        }
+        sessions.sort((a, b) -> Long.compare(a.userId(), b.userId()));
+        return sessions;
+    }
+
+    private Session openSession(String email) {
+        try {
+            JsonNode login = null;
+            // The login pool answers 429 while its queue is full; back off and retry
+            for (int attempt = 0; login == null; attempt++) {
+                HttpResponse<String> response = client.send(loginRequest(email).build(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    login = JSON.readTree(response.body());
+                } else if ((response.statusCode() == 429 || response.statusCode() == 503) && attempt < 10) {
+                    Thread.sleep(200L << Math.min(attempt, 4));
+                } else {
+                    throw new IllegalStateException("Login failed for " + email + ": HTTP " + response.statusCode());
+                }
+            }
+            long userId = login.path("user").path("id").asLong();
+            Session partial = new Session(userId, email, login.path("accessToken").asText(),
+                    List.of(), List.of(), List.of(), List.of());
+
+            List<Long> accountIds = new ArrayList<>();
+            for (JsonNode account : fetch("/api/accounts/user/" + userId, partial)) {
+                accountIds.add(account.path("id").asLong());
+            }
+            List<Long> loanIds = new ArrayList<>();
+            JsonNode dashboard = fetch("/api/loans/user/" + userId + "/dashboard", partial);
+            for (String list : new String[]{"upcoming", "overdue"}) {
+                for (JsonNode emi : dashboard.path(list)) {
+                    loanIds.add(emi.path("loanId").asLong());
+                }
+            }
+            Set<String> budgetCategories = new TreeSet<>();
+            for (JsonNode budget : fetch("/api/budgets/user/" + userId, partial)) {
+                if (!LocalDate.parse(budget.path("endDate").asText()).isBefore(today)) {
+                    budgetCategories.add(budget.path("category").asText());
+                }
+            }
+            List<String> otherCategories = new ArrayList<>();
+            for (String category : PerfDataGenerator.CATEGORIES) {
+                if (!budgetCategories.contains(category)) {
+                    otherCategories.add(category);
+                }
+            }
+            if (accountIds.isEmpty()) {
+                throw new IllegalStateException(email + " has no accounts; was the database seeded with PerfDataGenerator?");
+            }
+            return new Session(userId, email, partial.token(), List.copyOf(accountIds), List.copyOf(loanIds),
+                    List.copyOf(budgetCategories), List.copyOf(otherCategories));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open a session for " + email, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode fetch(String path, Session session) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(get(path, session).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned HTTP " + response.statusCode());
+        }
+        return JSON.readTree(response.body());
+    }
+
+    private void run(List<Scenario> scenarios, List<Session> sessions, int concurrency,
+                     Duration warmup, Duration duration, long seed) throws InterruptedException {
+        int totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        CountDownLatch finished = new CountDownLatch(concurrency);
+
+        for (int clientIndex = 0; clientIndex < concurrency; clientIndex++) {
+            Session session = sessions.get(clientIndex % sessions.size());
+            SplittableRandom random = new SplittableRandom(seed * 1_000_003 + clientIndex);
+            new Runnable() {
+                @Override
+                public void run() {
+                    if (System.nanoTime() >= measureUntil) {
+                        finished.countDown();
+                        return;
+                    }
+                    Scenario scenario = null;
+                    HttpRequest.Builder builder = null;
+                    for (int attempt = 0; builder == null && attempt < MAX_SCENARIO_PICKS; attempt++) {
+                        scenario = pickScenario(scenarios, totalWeight, random);
+                        builder = scenario.factory().create(session, random);
+                    }
+                    if (builder == null) {
+                        // Nothing in the mix applies to this session's user
+                        finished.countDown();
+                        return;
+                    }
+                    Scenario picked = scenario;
+                    HttpRequest request = builder.timeout(requestTimeout).build();
+                    long started = System.nanoTime();
+                    // Async continuation: a request that fails immediately must not recurse on this stack
+                    client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenCompleteAsync((response, error) -> {
+                        if (started >= measureFrom && started < measureUntil) {
+                            picked.recorder().record(System.nanoTime() - started, error != null ? -1 : response.statusCode());
+                        }
+                        run();
+                    });
+                }
+            }.run();
+        }
+
+        long remaining = measureUntil - System.nanoTime() + requestTimeout.toNanos() + TimeUnit.SECONDS.toNanos(5);
+        if (!finished.await(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+            System.out.println("Warning: " + finished.getCount() + " clients still had requests in flight at the end");
+        }
+    }
+
+    private static Scenario pickScenario(List<Scenario> scenarios, int totalWeight, SplittableRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            ticket -= scenario.weight();
+            if (ticket < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private HttpRequest.Builder get(String path, Session session) {
+        return authorized(session).uri(baseUrl.resolve(path)).GET();
+    }
+
+    private HttpRequest.Builder authorized(Session session) {
+        return HttpRequest.newBuilder().header("Authorization", "Bearer " + session.token());
+    }
+
+    private HttpRequest.Builder loginRequest(String email) {
+        return loginRequest(email, password);
+    }
+
+    private HttpRequest.Builder loginRequest(String email, String password) {
+        return HttpRequest.newBuilder(baseUrl.resolve("/api/users/login"))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+    }
+
+    private HttpRequest.Builder createDebit(Session session, SplittableRandom random, String category) {
+        return authorized(session)
+                .uri(baseUrl.resolve("/api/transactions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(debitJson(session, random, category)));
+    }
+
+    private HttpRequest.Builder createBatch(Session session, SplittableRandom random) {
+        StringJoiner rows = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < BATCH_ROWS; i++) {
+            rows.add(debitJson(session, random,
+                    PerfDataGenerator.CATEGORIES[random.nextInt(PerfDataGenerator.CATEGORIES.length)]));
+        }
+        return authorized(session)
+                .uri(baseUrl.resolve("/api/transactions/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(rows.toString()));
+    }
+
+    private static String debitJson(Session session, SplittableRandom random, String category) {
+        return String.format(
+                "{\"accountId\":%d,\"amount\":%d.%02d,\"transactionType\":\"DEBIT\",\"category\":\"%s\",\"description\":\"UPI/%s/perf\"}",
+                pick(session.accountIds(), random), 50 + random.nextInt(2_000), random.nextInt(100), category,
+                PerfDataGenerator.MERCHANTS[random.nextInt(PerfDataGenerator.MERCHANTS.length)]);
+    }
+
+    private static long pick(List<Long> ids, SplittableRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
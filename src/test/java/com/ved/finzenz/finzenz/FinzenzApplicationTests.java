@@ -1,9 +1,14 @@
 package com.ved.finzenz.finzenz;
 
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
 class FinzenzApplicationTests {
 
 	@Test
@@ -0,0 +1,141 @@
+package com.ved.finzenz.finzenz.alerts;
+
+import com.ved.finzenz.finzenz.dto.BudgetAlert;
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Budget;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.service.BudgetService;
+import com.ved.finzenz.finzenz.service.TransactionService;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class BudgetAlertEngineTest {
+
+    @MockitoBean
+    private BudgetAlertPublisher publisher;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private BudgetService budgetService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<BudgetAlert> alerts = Collections.synchronizedList(new ArrayList<>());
+    private Account account;
+
+    @BeforeEach
+    void seed() {
+        doAnswer(invocation -> alerts.add(invocation.getArgument(0))).when(publisher).publish(any());
+        User user = TestFixtures.user(userRepository);
+        account = TestFixtures.account(accountRepository, user, "100000.00");
+        LocalDate today = LocalDate.now();
+        budgetService.createBudget(Budget.builder()
+                .userId(user.getId().intValue())
+                .category("Dining")
+                .amount(new BigDecimal("100.00"))
+                .startDate(today.withDayOfMonth(1))
+                .endDate(today.withDayOfMonth(1).plusMonths(1).minusDays(1))
+                .build());
+    }
+
+    @Test
+    void concurrentDebitsSendEachThresholdAtMostOnce() throws Exception {
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            workers.add(() -> {
+                transactionService.createTransaction(debit("15.00"));
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+        try {
+            for (Future<Void> future : executor.invokeAll(workers)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        awaitQuiet();
+        List<Integer> thresholds = alerts.stream().map(BudgetAlert::getThresholdPercent).toList();
+        // Evaluations may see several debits at once and skip straight past 50 or 80, but never repeat one
+        assertThat(thresholds).doesNotHaveDuplicates().contains(100).isSorted();
+    }
+
+    @Test
+    void batchIngestTriggersAlerts() {
+        transactionService.createTransactions(List.of(debit("40.00"), debit("45.00")));
+
+        awaitQuiet();
+        assertThat(alerts).extracting(BudgetAlert::getThresholdPercent).containsExactly(80);
+    }
+
+    @Test
+    void thresholdRearmsAfterSpendingFallsBack() {
+        Transaction first = transactionService.createTransaction(debit("60.00"));
+        awaitQuiet();
+        transactionService.deleteTransaction(first.getId());
+        awaitQuiet();
+        transactionService.createTransaction(debit("55.00"));
+
+        awaitQuiet();
+        assertThat(alerts).extracting(BudgetAlert::getThresholdPercent).containsExactly(50, 50);
+    }
+
+    // Alerts arrive on the async executor: wait until none has arrived for a while
+    private void awaitQuiet() {
+        int[] last = {-1};
+        await().atMost(Duration.ofSeconds(10)).pollInterval(Duration.ofMillis(300)).until(() -> {
+            int now = alerts.size();
+            boolean quiet = now == last[0];
+            last[0] = now;
+            return quiet;
+        });
+    }
+
+    private Transaction debit(String amount) {
+        LocalDateTime now = LocalDateTime.now();
+        return Transaction.builder()
+                .accountId(account.getAccountId())
+                .amount(new BigDecimal(amount))
+                .transactionDate(now)
+                .createdAt(now)
+                .transactionType(Transaction.TransactionType.DEBIT)
+                .category("Dining")
+                .description("Alert test")
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ved.finzenz.finzenz.amortization;
+
+import com.ved.finzenz.finzenz.entities.Loan;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmortizationScheduleCacheTest {
+
+    @Test
+    void paymentKeepsTheCachedSchedule() {
+        AmortizationScheduleCache cache = new AmortizationScheduleCache(1_000);
+        Loan loan = loan(1L, 12);
+        AmortizationSchedule first = cache.get(loan);
+
+        loan.setCompletedInstallments(5);
+
+        assertThat(cache.get(loan)).isSameAs(first);
+    }
+
+    @Test
+    void changedTermsAreRecomputed() {
+        AmortizationScheduleCache cache = new AmortizationScheduleCache(1_000);
+        Loan loan = loan(1L, 12);
+        AmortizationSchedule first = cache.get(loan);
+
+        loan.setInterestRate(new BigDecimal("9.00"));
+
+        assertThat(cache.get(loan)).isNotSameAs(first);
+    }
+
+    @Test
+    void boundIsTotalInstallmentsNotEntries() {
+        AmortizationScheduleCache cache = new AmortizationScheduleCache(500);
+        Loan small = loan(1L, 12);
+        Loan large = loan(2L, 360);
+        AmortizationSchedule smallSchedule = cache.get(small);
+        AmortizationSchedule largeSchedule = cache.get(large);
+
+        // 12 + 360 fits; another 360 pushes out the least recently used (the small loan)
+        cache.get(large);
+        cache.get(loan(3L, 360));
+
+        assertThat(cache.get(small)).isNotSameAs(smallSchedule);
+        assertThat(cache.get(loan(4L, 600)).size()).isEqualTo(600);
+        assertThat(cache.get(large)).isNotSameAs(largeSchedule);
+    }
+
+    private static Loan loan(Long id, int installments) {
+        BigDecimal principal = new BigDecimal("100000.00");
+        BigDecimal rate = new BigDecimal("8.50");
+        return Loan.builder()
+                .id(id)
+                .principalAmount(principal)
+                .interestRate(rate)
+                .recurringIntervalDays(30)
+                .totalInstallments(installments)
+                .emiAmount(AmortizationCalculator.emi(principal, AmortizationCalculator.periodRate(rate, 30), installments))
+                .startDate(LocalDate.of(2026, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,222 @@
+package com.ved.finzenz.finzenz.balance;
+
+import com.ved.finzenz.finzenz.dto.AccountBalance;
+import com.ved.finzenz.finzenz.entities.Account.CurrencyType;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Invalidation and reconciliation of {@link BalanceCache} against a fake accounts table: a load
+ * that overlaps a commit isn't cached, a rollback keeps the entry, LRU eviction forgets the
+ * evicted user's accounts, and reconcile() drops entries the database no longer agrees with.
+ */
+class BalanceCacheTest {
+
+    private static final long ALICE = 1L;
+    private static final long BOB = 2L;
+    private static final long ALICE_ACCOUNT = 11L;
+    private static final long BOB_ACCOUNT = 21L;
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // userId -> accountId -> balance: what the accounts table holds right now
+    private final Map<Long, Map<Long, BigDecimal>> table = new ConcurrentHashMap<>();
+    // When set, the next load reads the table, then waits between the two latches before returning
+    private volatile CountDownLatch[] pauseNextLoad;
+
+    @BeforeEach
+    void stubRepository() {
+        table.put(ALICE, new ConcurrentHashMap<>(Map.of(ALICE_ACCOUNT, new BigDecimal("100.00"))));
+        table.put(BOB, new ConcurrentHashMap<>(Map.of(BOB_ACCOUNT, new BigDecimal("500.00"))));
+
+        when(accountRepository.findUserIdByAccountId(anyLong())).thenAnswer(invocation -> {
+            Long accountId = invocation.getArgument(0);
+            return table.entrySet().stream()
+                    .filter(entry -> entry.getValue().containsKey(accountId))
+                    .map(Map.Entry::getKey)
+                    .findFirst().orElse(null);
+        });
+        when(accountRepository.findBalancesByUserIds(any())).thenAnswer(invocation -> {
+            List<AccountBalance> rows = rows(invocation.getArgument(0));
+            CountDownLatch[] pause = pauseNextLoad;
+            if (pause != null) {
+                pauseNextLoad = null;
+                pause[0].countDown();
+                pause[1].await(5, TimeUnit.SECONDS);
+            }
+            return rows;
+        });
+    }
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void loadOverlappingACommitIsReturnedButNotCached() throws Exception {
+        BalanceCache cache = new BalanceCache(accountRepository, 10);
+        // Warm, then evict by a committed write, so the next load is a miss for a known account
+        assertThat(cache.getAccountBalance(ALICE_ACCOUNT)).isEqualByComparingTo("100.00");
+        setBalance(ALICE, ALICE_ACCOUNT, "90.00");
+        inTransaction(() -> cache.balanceChanged(ALICE_ACCOUNT), true);
+
+        Future<BigDecimal> racingRead = readWhileCommitting(() -> cache.getAccountBalance(ALICE_ACCOUNT), () -> {
+            setBalance(ALICE, ALICE_ACCOUNT, "40.00");
+            inTransaction(() -> cache.balanceChanged(ALICE_ACCOUNT), true);
+        });
+
+        assertThat(racingRead.get(5, TimeUnit.SECONDS)).isEqualByComparingTo("90.00");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getAccountBalance(ALICE_ACCOUNT)).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void firstLoadOverlappingACommitIsNotCached() throws Exception {
+        BalanceCache cache = new BalanceCache(accountRepository, 10);
+
+        // The account isn't mapped to a user yet, so the write can only bump the global stamp
+        Future<BigDecimal> racingRead = readWhileCommitting(() -> cache.getNetWorth(ALICE), () -> {
+            setBalance(ALICE, ALICE_ACCOUNT, "40.00");
+            inTransaction(() -> cache.balanceChanged(ALICE_ACCOUNT), true);
+        });
+
+        assertThat(racingRead.get(5, TimeUnit.SECONDS)).isEqualByComparingTo("100.00");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getNetWorth(ALICE)).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void rolledBackWriteLeavesTheEntryInPlace() {
+        BalanceCache cache = new BalanceCache(accountRepository, 10);
+        cache.getAccountBalance(ALICE_ACCOUNT);
+
+        inTransaction(() -> cache.balanceChanged(ALICE_ACCOUNT), false);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getAccountBalance(ALICE_ACCOUNT)).isEqualByComparingTo("100.00");
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        verify(accountRepository, times(1)).findBalancesByUserIds(any());
+    }
+
+    @Test
+    void lruEvictionAlsoForgetsTheEvictedUsersAccounts() {
+        BalanceCache cache = new BalanceCache(accountRepository, 1);
+        cache.getAccountBalance(ALICE_ACCOUNT);
+        cache.getAccountBalance(BOB_ACCOUNT);
+        assertThat(cache.size()).isEqualTo(1);
+
+        // Alice's account must be looked up again rather than resolved to an entry that is gone
+        setBalance(ALICE, ALICE_ACCOUNT, "75.00");
+        assertThat(cache.getAccountBalance(ALICE_ACCOUNT)).isEqualByComparingTo("75.00");
+        verify(accountRepository, times(2)).findUserIdByAccountId(ALICE_ACCOUNT);
+    }
+
+    @Test
+    void reconcileEvictsOnlyEntriesThatDifferFromTheDatabase() {
+        BalanceCache cache = new BalanceCache(accountRepository, 10);
+        cache.getNetWorth(ALICE);
+        cache.getNetWorth(BOB);
+
+        // Written by another node: nothing here was told
+        setBalance(BOB, BOB_ACCOUNT, "450.00");
+        cache.reconcile();
+
+        assertThat(cache.getReconcileMismatchCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getNetWorth(BOB)).isEqualByComparingTo("450.00");
+        assertThat(cache.getNetWorth(ALICE)).isEqualByComparingTo("100.00");
+        verify(accountRepository, times(1)).findBalancesByUserIds(List.of(ALICE));
+    }
+
+    // Runs read on another thread and performs write after the read has loaded but before it caches
+    private Future<BigDecimal> readWhileCommitting(Callable<BigDecimal> read, Runnable write)
+            throws InterruptedException {
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        pauseNextLoad = new CountDownLatch[]{loaded, committed};
+        Future<BigDecimal> result = executor.submit(read);
+        assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+        write.run();
+        committed.countDown();
+        return result;
+    }
+
+    // Drives the synchronizations registered by work the way the transaction manager would
+    private static void inTransaction(Runnable work, boolean commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                if (commit) {
+                    synchronization.afterCommit();
+                }
+                synchronization.afterCompletion(commit
+                        ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void setBalance(long userId, long accountId, String balance) {
+        table.get(userId).put(accountId, new BigDecimal(balance));
+    }
+
+    private List<AccountBalance> rows(Collection<Long> userIds) {
+        List<AccountBalance> rows = new ArrayList<>();
+        for (Long userId : userIds) {
+            table.getOrDefault(userId, Map.of()).forEach((accountId, balance) ->
+                    rows.add(new Row(userId, accountId, balance)));
+        }
+        return rows;
+    }
+
+    private record Row(Long userId, Long accountId, BigDecimal balance) implements AccountBalance {
+        @Override
+        public Long getUserId() {
+            return userId;
+        }
+
+        @Override
+        public Long getAccountId() {
+            return accountId;
+        }
+
+        @Override
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        @Override
+        public CurrencyType getCurrency() {
+            return CurrencyType.INR;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ved.finzenz.finzenz.export;
+
+import com.ved.finzenz.finzenz.entities.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * What {@link ColumnarTransactionExportWriter} writes, {@link ColumnarTransactionReader} reads
+ * back unchanged: nulls, unicode, extreme amounts and dates, across several row groups with
+ * their own category dictionaries.
+ */
+class ColumnarTransactionExportTest {
+
+    private static final String[] DESCRIPTIONS = {
+            null, "", "Coffee", "Café crème", "東京 ラーメン", "Pizza 🍕 night", "tab\tnew\nline", "\"quoted\", comma"
+    };
+    private static final BigDecimal[] AMOUNTS = {
+            new BigDecimal("0.00"), new BigDecimal("0.01"), new BigDecimal("-12.50"), new BigDecimal("123456.7"),
+            new BigDecimal("9999999999999.99"), new BigDecimal("-9999999999999.99")
+    };
+
+    @Test
+    void rowsSurviveARoundTripAcrossRowGroups() throws IOException {
+        // Two full row groups and a partial third one
+        int count = ColumnarTransactionExportWriter.ROW_GROUP_SIZE * 2 + 1_234;
+        List<Transaction> written = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            written.add(Transaction.builder()
+                    .id(i == 0 ? Integer.MAX_VALUE : i)
+                    .accountId(i % 2 == 0 ? i : Long.MAX_VALUE - i)
+                    .amount(AMOUNTS[i % AMOUNTS.length])
+                    .transactionDate(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000).plusMinutes(i * 37L))
+                    .transactionType(i % 4 == 3 ? null : Transaction.TransactionType.values()[i % 3])
+                    // Categories change between row groups, so each group needs its own dictionary
+                    .category(i % 5 == 0 ? null : "Category " + (i / 1_000) + " ü")
+                    .description(DESCRIPTIONS[i % DESCRIPTIONS.length])
+                    .build());
+        }
+
+        List<Transaction> read = roundTrip(written);
+
+        assertThat(read).hasSize(count);
+        assertThat(read.stream().map(ColumnarTransactionExportTest::columns).toList())
+                .containsExactlyElementsOf(written.stream().map(ColumnarTransactionExportTest::columns).toList());
+        assertThat(read.get(4).getAmount()).isEqualTo("9999999999999.99");
+    }
+
+    @Test
+    void emptyExportReadsBackEmpty() throws IOException {
+        assertThat(roundTrip(List.of())).isEmpty();
+    }
+
+    @Test
+    void otherFilesAreRejected() {
+        assertThatThrownBy(() -> new ColumnarTransactionReader(new ByteArrayInputStream("id,amount\n".getBytes())))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a Finzenz columnar export");
+    }
+
+    // Every exported column; amounts are compared at the export's scale of 2
+    private static List<Object> columns(Transaction transaction) {
+        return Arrays.asList(transaction.getId(), transaction.getAccountId(),
+                transaction.getAmount().setScale(2).toPlainString(), transaction.getTransactionDate(),
+                transaction.getTransactionType(), transaction.getCategory(), transaction.getDescription());
+    }
+
+    private static List<Transaction> roundTrip(List<Transaction> transactions) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarTransactionExportWriter writer = new ColumnarTransactionExportWriter(out);
+        for (Transaction transaction : transactions) {
+            writer.write(transaction);
+        }
+        writer.finish();
+
+        List<Transaction> read = new ArrayList<>();
+        new ColumnarTransactionReader(new ByteArrayInputStream(out.toByteArray())).forEach(read::add);
+        return read;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ved.finzenz.finzenz.export;
+
+import com.ved.finzenz.finzenz.entities.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cells that a spreadsheet would evaluate as a formula are written as text, and quoting still
+ * applies on top of the prefix.
+ */
+class CsvTransactionExportWriterTest {
+
+    @Test
+    void formulaLikeCellsArePrefixed() throws IOException {
+        assertThat(row("Groceries", "=HYPERLINK(\"http://x\")"))
+                .endsWith(",Groceries,\"'=HYPERLINK(\"\"http://x\"\")\"\n");
+        assertThat(row("+1", "-2")).endsWith(",'+1,'-2\n");
+        assertThat(row("@SUM(A1)", "\tcmd")).endsWith(",'@SUM(A1),'\tcmd\n");
+        assertThat(row("Other", "\rcmd")).endsWith(",Other,\"'\rcmd\"\n");
+    }
+
+    @Test
+    void ordinaryCellsAreUnchanged() throws IOException {
+        assertThat(row("Food", "Coffee, large")).endsWith(",Food,\"Coffee, large\"\n");
+        assertThat(row(null, "a=b")).endsWith(",,a=b\n");
+        assertThat(row("", "Rent")).endsWith(",,Rent\n");
+    }
+
+    private static String row(String category, String description) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvTransactionExportWriter writer = new CsvTransactionExportWriter(out);
+        writer.write(Transaction.builder()
+                .id(1)
+                .accountId(2L)
+                .amount(new BigDecimal("-12.50"))
+                .transactionDate(LocalDateTime.of(2026, 1, 1, 9, 30))
+                .transactionType(Transaction.TransactionType.DEBIT)
+                .category(category)
+                .description(description)
+                .build());
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ved.finzenz.finzenz.importer;
+
+import com.ved.finzenz.finzenz.exceptions.StatementParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvStatementParserTest {
+
+    @Test
+    void amountColumnWithQuotedFieldsAndDateFormats() throws IOException {
+        List<StatementRow> rows = parse("""
+                \uFEFFDate,Description,Amount,Category,Reference
+                2026-03-01,"Coffee, large",-4.50,Food,
+                02/03/2026,"Say ""hi"" bonus",1000,,R-2
+
+                03 Mar 2026,Rent,"-1,200.00",,
+                """);
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).getDate().toLocalDate()).isEqualTo(LocalDate.of(2026, 3, 1));
+        assertThat(rows.get(0).getDescription()).isEqualTo("Coffee, large");
+        assertThat(rows.get(0).getAmount()).isEqualByComparingTo("-4.50");
+        assertThat(rows.get(0).getCategory()).isEqualTo("Food");
+        assertThat(rows.get(0).getReference()).isNull();
+
+        assertThat(rows.get(1).getDate().toLocalDate()).isEqualTo(LocalDate.of(2026, 3, 2));
+        assertThat(rows.get(1).getDescription()).isEqualTo("Say \"hi\" bonus");
+        assertThat(rows.get(1).getReference()).isEqualTo("R-2");
+
+        assertThat(rows.get(2).getDate().toLocalDate()).isEqualTo(LocalDate.of(2026, 3, 3));
+        assertThat(rows.get(2).getAmount()).isEqualByComparingTo("-1200.00");
+        // Blank lines are skipped but still counted, so errors point at the right line
+        assertThat(rows.get(2).getLineNumber()).isEqualTo(5);
+    }
+
+    @Test
+    void debitAndCreditColumnsGiveASignedAmount() throws IOException {
+        List<StatementRow> rows = parse("""
+                Value Date,Narration,Withdrawal,Deposit
+                01-03-2026,ATM,500.00,
+                02-03-2026,Salary,,75000.00
+                """);
+
+        assertThat(rows).extracting(StatementRow::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("-500.00"), new BigDecimal("75000.00"));
+        assertThat(rows).extracting(StatementRow::getDescription).containsExactly("ATM", "Salary");
+    }
+
+    @Test
+    void headerWithoutAmountColumnsIsRejected() {
+        assertThatThrownBy(() -> parse("Date,Description\n2026-03-01,Coffee\n"))
+                .isInstanceOf(StatementParseException.class)
+                .hasMessageContaining("amount");
+    }
+
+    @Test
+    void badRowFailsWithItsLineNumberAfterTheRowsBeforeIt() {
+        List<StatementRow> rows = new ArrayList<>();
+
+        assertThatThrownBy(() -> new CsvStatementParser().parse(stream("""
+                Date,Description,Amount
+                2026-03-01,Coffee,-4.50
+                2026-03-02,Lunch,-12.00
+                not-a-date,Dinner,-30.00
+                2026-03-04,Never read,-1.00
+                """), rows::add))
+                .isInstanceOf(StatementParseException.class)
+                .hasMessageContaining("line 4");
+        assertThat(rows).extracting(StatementRow::getDescription).containsExactly("Coffee", "Lunch");
+    }
+
+    @Test
+    void emptyFileHasNoRows() throws IOException {
+        assertThat(parse("")).isEmpty();
+    }
+
+    private static List<StatementRow> parse(String csv) throws IOException {
+        List<StatementRow> rows = new ArrayList<>();
+        new CsvStatementParser().parse(stream(csv), rows::add);
+        return rows;
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
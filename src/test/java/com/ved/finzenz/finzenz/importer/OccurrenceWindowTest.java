@@ -0,0 +1,68 @@
+package com.ved.finzenz.finzenz.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OccurrenceWindowTest {
+
+    private static final LocalDateTime DAY = LocalDate.of(2026, 3, 1).atStartOfDay();
+
+    @Test
+    void identicalRowsAreNumberedInOrder() {
+        OccurrenceWindow window = new OccurrenceWindow(7);
+
+        assertThat(window.next(DAY, "coffee")).isEqualTo(1);
+        assertThat(window.next(DAY, "lunch")).isEqualTo(1);
+        assertThat(window.next(DAY, "coffee")).isEqualTo(2);
+        assertThat(window.next(DAY.plusDays(1), "coffee")).isEqualTo(1);
+    }
+
+    @Test
+    void memoryIsBoundedByTheWindowNotTheFile() {
+        OccurrenceWindow window = new OccurrenceWindow(7);
+
+        for (int day = 0; day < 3_650; day++) {
+            window.next(DAY.plusDays(day), "coffee");
+            window.next(DAY.plusDays(day), "coffee");
+        }
+
+        assertThat(window.daysHeld()).isEqualTo(8);
+    }
+
+    @Test
+    void descendingStatementsWorkTheSameWay() {
+        OccurrenceWindow window = new OccurrenceWindow(2);
+
+        for (int day = 30; day >= 0; day--) {
+            assertThat(window.next(DAY.plusDays(day), "coffee")).isEqualTo(1);
+        }
+
+        assertThat(window.daysHeld()).isEqualTo(3);
+    }
+
+    @Test
+    void rowsOutOfOrderWithinTheWindowKeepCounting() {
+        OccurrenceWindow window = new OccurrenceWindow(7);
+
+        window.next(DAY, "coffee");
+        window.next(DAY.plusDays(5), "rent");
+
+        assertThat(window.next(DAY, "coffee")).isEqualTo(2);
+    }
+
+    @Test
+    void rowForADroppedDayIsRefused() {
+        OccurrenceWindow window = new OccurrenceWindow(7);
+
+        window.next(DAY, "coffee");
+        window.next(DAY.plusDays(8), "rent");
+
+        assertThat(window.next(DAY, "coffee")).isZero();
+        // A day that was never seen is fine, even if it is far behind
+        assertThat(window.next(DAY.minusDays(30), "coffee")).isEqualTo(1);
+    }
+}
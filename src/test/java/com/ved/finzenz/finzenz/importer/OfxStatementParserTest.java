@@ -0,0 +1,101 @@
+package com.ved.finzenz.finzenz.importer;
+
+import com.ved.finzenz.finzenz.exceptions.StatementParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OfxStatementParserTest {
+
+    @Test
+    void sgmlWithUnclosedLeafTags() throws IOException {
+        List<StatementRow> rows = parse("""
+                OFXHEADER:100
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <DTSTART>20260301
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20260301120000[+5.5:IST]
+                <TRNAMT>-4.50
+                <FITID>F-1
+                <NAME>Coffee House
+                <MEMO>Card 1234
+                </STMTTRN>
+                <STMTTRN>
+                <DTPOSTED>20260302
+                <TRNAMT>1000,00
+                <FITID>F-2
+                <MEMO>Refund
+                </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """);
+
+        assertThat(rows).hasSize(2);
+        StatementRow first = rows.get(0);
+        assertThat(first.getLineNumber()).isEqualTo(1);
+        assertThat(first.getDate().toLocalDate()).isEqualTo(LocalDate.of(2026, 3, 1));
+        assertThat(first.getAmount()).isEqualByComparingTo("-4.50");
+        assertThat(first.getDescription()).isEqualTo("Coffee House Card 1234");
+        assertThat(first.getReference()).isEqualTo("F-1");
+        assertThat(first.getCategory()).isNull();
+
+        assertThat(rows.get(1).getAmount()).isEqualByComparingTo("1000.00");
+        assertThat(rows.get(1).getDescription()).isEqualTo("Refund");
+    }
+
+    @Test
+    void xmlWithClosedTags() throws IOException {
+        List<StatementRow> rows = parse("""
+                <?xml version="1.0"?>
+                <OFX><BANKTRANLIST>
+                  <STMTTRN><DTPOSTED>20260305</DTPOSTED><TRNAMT>-12.00</TRNAMT><FITID>X-1</FITID><NAME>Lunch</NAME></STMTTRN>
+                </BANKTRANLIST></OFX>
+                """);
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.getDate().toLocalDate()).isEqualTo(LocalDate.of(2026, 3, 5));
+            assertThat(row.getAmount()).isEqualByComparingTo("-12.00");
+            assertThat(row.getDescription()).isEqualTo("Lunch");
+            assertThat(row.getReference()).isEqualTo("X-1");
+        });
+    }
+
+    @Test
+    void transactionWithoutAmountFailsAfterTheOnesBeforeIt() {
+        List<StatementRow> rows = new ArrayList<>();
+
+        assertThatThrownBy(() -> new OfxStatementParser().parse(stream("""
+                <STMTTRN><DTPOSTED>20260301<TRNAMT>-1.00<FITID>A</STMTTRN>
+                <STMTTRN><DTPOSTED>20260302<FITID>B</STMTTRN>
+                <STMTTRN><DTPOSTED>20260303<TRNAMT>-3.00<FITID>C</STMTTRN>
+                """), rows::add))
+                .isInstanceOf(StatementParseException.class)
+                .hasMessageContaining("transaction 2");
+        assertThat(rows).extracting(StatementRow::getReference).containsExactly("A");
+    }
+
+    @Test
+    void badDateIsAParseError() {
+        assertThatThrownBy(() -> parse("<STMTTRN><DTPOSTED>2026<TRNAMT>-1.00</STMTTRN>"))
+                .isInstanceOf(StatementParseException.class)
+                .hasMessageContaining("Invalid OFX transaction 1");
+    }
+
+    private static List<StatementRow> parse(String ofx) throws IOException {
+        List<StatementRow> rows = new ArrayList<>();
+        new OfxStatementParser().parse(stream(ofx), rows::add);
+        return rows;
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
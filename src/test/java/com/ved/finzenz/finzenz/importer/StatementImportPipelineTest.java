@@ -0,0 +1,154 @@
+package com.ved.finzenz.finzenz.importer;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end imports through the three stages into the embedded database: re-imports and
+ * overlapping statements are deduplicated by import hash, zero and far-out-of-order rows are
+ * rejected, and a parse error part-way through fails the job without a partial import.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class StatementImportPipelineTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final String HEADER = "Date,Description,Amount\n";
+
+    @Autowired
+    private StatementImportPipeline pipeline;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    private Account account;
+
+    @BeforeEach
+    void seed() {
+        User user = TestFixtures.user(userRepository);
+        account = TestFixtures.account(accountRepository, user, "0.00");
+    }
+
+    @Test
+    void reImportingTheSameStatementImportsNothing() throws IOException {
+        // 1,200 rows across several persist batches, two identical coffees on each day
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int day = 0; day < 600; day++) {
+            csv.append(START.plusDays(day)).append(",Coffee House,-2.00\n");
+            csv.append(START.plusDays(day)).append(",Coffee  house,-2.00\n");
+        }
+        csv.append(START).append(",Reversal,0.00\n");
+        Path file = write(csv.toString());
+
+        ImportJob first = run(file);
+
+        assertThat(first.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(first.getRowsImported()).hasValue(1_200);
+        assertThat(first.getRowsRejected()).hasValue(1);
+        assertThat(transactionCount()).isEqualTo(1_200);
+        assertThat(balance()).isEqualByComparingTo("-2400.00");
+
+        ImportJob second = run(file);
+
+        assertThat(second.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(second.getRowsImported()).hasValue(0);
+        assertThat(second.getDuplicatesSkipped()).hasValue(1_200);
+        assertThat(transactionCount()).isEqualTo(1_200);
+        assertThat(balance()).isEqualByComparingTo("-2400.00");
+    }
+
+    @Test
+    void overlappingStatementImportsOnlyTheNewRows() throws IOException {
+        run(write(HEADER
+                + "2026-01-01,Salary,5000.00\n"
+                + "2026-01-02,Coffee,-2.00\n"
+                + "2026-01-02,Coffee,-2.00\n"));
+
+        // Same two days, in a different order within the day, plus a third coffee and a new day
+        ImportJob next = run(write(HEADER
+                + "2026-01-02,Coffee,-2.00\n"
+                + "2026-01-01,Salary,5000.00\n"
+                + "2026-01-02,Coffee,-2.00\n"
+                + "2026-01-02,Coffee,-2.00\n"
+                + "2026-01-03,Rent,-1000.00\n"));
+
+        assertThat(next.getDuplicatesSkipped()).hasValue(3);
+        assertThat(next.getRowsImported()).hasValue(2);
+        assertThat(transactionCount()).isEqualTo(5);
+        assertThat(balance()).isEqualByComparingTo("3994.00");
+    }
+
+    @Test
+    void rowFarOutOfDateOrderIsRejectedNotMisnumbered() throws IOException {
+        ImportJob job = run(write(HEADER
+                + "2026-01-01,Coffee,-2.00\n"
+                + "2026-02-01,Rent,-1000.00\n"
+                + "2026-01-01,Coffee,-2.00\n"));
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(job.getRowsImported()).hasValue(2);
+        assertThat(job.getRowsRejected()).hasValue(1);
+    }
+
+    @Test
+    void parseErrorPartWayFailsTheJobWithoutAPartialImport() throws IOException {
+        ImportJob job = run(write(HEADER
+                + "2026-01-01,Coffee,-2.00\n"
+                + "2026-01-02,Lunch,-12.00\n"
+                + "2026-01-03,Dinner,-1.2.3\n"
+                + "2026-01-04,Never read,-1.00\n"));
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.FAILED);
+        assertThat(job.getError()).contains("line 4");
+        assertThat(transactionCount()).isZero();
+        assertThat(balance()).isEqualByComparingTo("0.00");
+    }
+
+    private ImportJob run(Path file) throws IOException {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), account.getAccountId(), StatementFormat.CSV,
+                file.getFileName().toString(), Files.size(file));
+        pipeline.run(job, file);
+        return job;
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(directory, "statement-", ".csv"), content);
+    }
+
+    private long transactionCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE account_id = ?",
+                Long.class, account.getAccountId());
+    }
+
+    private BigDecimal balance() {
+        return accountRepository.findById(account.getAccountId()).orElseThrow().getBalance();
+    }
+}
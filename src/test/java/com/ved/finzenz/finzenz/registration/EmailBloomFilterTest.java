@@ -0,0 +1,100 @@
+package com.ved.finzenz.finzenz.registration;
+
+import com.ved.finzenz.finzenz.dto.EmailFilterStats;
+import com.ved.finzenz.finzenz.repository.UserEmailStreamRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The filter may only ever skip the database for emails that are really new: no registered
+ * email (in any letter case) may come back "definitely not registered", while unseen emails
+ * mostly should, at about the configured false-positive rate.
+ */
+class EmailBloomFilterTest {
+
+    private static final int REGISTERED = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final UserEmailStreamRepository emailStreamRepository = mock(UserEmailStreamRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void registeredEmailsAreNeverDefiniteNegatives() {
+        EmailBloomFilter filter = builtFrom(emails("user", REGISTERED));
+
+        assertThat(emails("user", REGISTERED)).allMatch(filter::mightContain);
+        assertThat(emails("USER", REGISTERED)).allMatch(filter::mightContain);
+        assertThat(filter.getStats().getDefiniteNegatives()).isZero();
+    }
+
+    @Test
+    void unseenEmailsAreMostlyDefiniteNegatives() {
+        EmailBloomFilter filter = builtFrom(emails("user", REGISTERED));
+
+        long maybe = emails("new", REGISTERED).stream().filter(filter::mightContain).count();
+
+        // Sized for the configured expected count, so the observed rate stays near 1%
+        assertThat((double) maybe / REGISTERED).isLessThan(FALSE_POSITIVE_RATE * 2);
+        EmailFilterStats stats = filter.getStats();
+        assertThat(stats.getChecks()).isEqualTo(REGISTERED);
+        assertThat(stats.getDefiniteNegatives()).isEqualTo(REGISTERED - maybe);
+        assertThat(stats.getMaybePositives()).isEqualTo(maybe);
+    }
+
+    @Test
+    void registrationAfterTheRebuildIsNoLongerANegative() {
+        EmailBloomFilter filter = builtFrom(emails("user", REGISTERED));
+        assertThat(filter.mightContain("late@finzenz.test")).isFalse();
+
+        filter.put("Late@Finzenz.test");
+
+        assertThat(filter.mightContain("late@finzenz.test")).isTrue();
+    }
+
+    @Test
+    void everyEmailIsAMaybeUntilTheFirstRebuild() {
+        EmailBloomFilter filter = new EmailBloomFilter(emailStreamRepository, userRepository, true, REGISTERED, FALSE_POSITIVE_RATE);
+
+        assertThat(filter.mightContain("anyone@finzenz.test")).isTrue();
+        assertThat(filter.getStats().isReady()).isFalse();
+    }
+
+    @Test
+    void disabledFilterNeverAnswersNegative() {
+        EmailBloomFilter filter = new EmailBloomFilter(emailStreamRepository, userRepository, false, REGISTERED, FALSE_POSITIVE_RATE);
+        filter.rebuild();
+
+        assertThat(filter.mightContain("anyone@finzenz.test")).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private EmailBloomFilter builtFrom(List<String> registered) {
+        when(userRepository.count()).thenReturn((long) registered.size());
+        doAnswer(invocation -> {
+            registered.forEach(invocation.getArgument(0, Consumer.class));
+            return null;
+        }).when(emailStreamRepository).streamEmails(any());
+
+        EmailBloomFilter filter = new EmailBloomFilter(emailStreamRepository, userRepository, true, REGISTERED, FALSE_POSITIVE_RATE);
+        filter.rebuild();
+        assertThat(filter.getStats().isReady()).isTrue();
+        assertThat(filter.getStats().getInsertions()).isEqualTo(registered.size());
+        return filter;
+    }
+
+    private static List<String> emails(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> prefix + "-" + i + "@finzenz.test")
+                .toList();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ved.finzenz.finzenz.repository;
+
+import com.ved.finzenz.finzenz.dto.AccountResponse;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.service.AccountService;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing a user's accounts must cost one statement however many accounts there are: the owner's
+ * id and email come from the join in the projection, not from loading Account.user per row.
+ * Counted with Hibernate statistics (hibernate.generate_statistics is on in application.properties).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class AccountResponseQueryTest {
+
+    private static final int ACCOUNTS = 5;
+
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = TestFixtures.user(userRepository);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            TestFixtures.account(accountRepository, user, "100.00");
+        }
+    }
+
+    @Test
+    void accountListingIsOnePreparedStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<AccountResponse> accounts = accountService.getAccountResponsesForUser(user.getId());
+
+        assertThat(accounts).hasSize(ACCOUNTS)
+                .allSatisfy(account -> assertThat(account.getUserEmail()).isEqualTo(user.getEmail()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,161 @@
+package com.ved.finzenz.finzenz.scheduler;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Loan;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.LoanRepository;
+import com.ved.finzenz.finzenz.repository.TransactionRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.scheduler.LoanPaymentChunkProcessor.ChunkResult;
+import com.ved.finzenz.finzenz.service.LoanService;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A loan whose last three installments were missed (e.g. the job was down) must be brought up
+ * to date in one pass, and re-running the job must never charge an installment a second time.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class LoanPaymentCatchUpTest {
+
+    private static final int INTERVAL_DAYS = 30;
+
+    @Autowired
+    private LoanPaymentChunkProcessor chunkProcessor;
+    @Autowired
+    private RecurringLoanScheduler scheduler;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private LoanRepository loanRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+    private Account account;
+    private Loan loan;
+    private BigDecimal opening;
+
+    @BeforeEach
+    void seed() {
+        User user = TestFixtures.user(userRepository);
+        account = TestFixtures.account(accountRepository, user, "100000.00");
+        // Installments 1..3 fell due 70, 40 and 10 days ago; installment 4 is 20 days out
+        loan = loanService.createLoan(Loan.builder()
+                .accountId(account.getAccountId())
+                .lenderName("Catch-up Bank")
+                .principalAmount(new BigDecimal("12000.00"))
+                .interestRate(new BigDecimal("12.00"))
+                .startDate(today.minusDays(100))
+                .recurringIntervalDays(INTERVAL_DAYS)
+                .totalInstallments(12)
+                .build());
+        opening = balance();
+    }
+
+    @Test
+    void catchUpPostsEveryMissedInstallmentOnce() {
+        ChunkResult result = chunkProcessor.processChunk(List.of(loan.getId()), today);
+
+        assertThat(result).isEqualTo(new ChunkResult(1, 0, 0));
+        assertThat(installments()).containsExactly(1, 2, 3);
+        assertThat(balance()).isEqualByComparingTo(opening.subtract(emi(3)));
+
+        Loan paid = loanRepository.findById(loan.getId()).orElseThrow();
+        assertThat(paid.getCompletedInstallments()).isEqualTo(3);
+        assertThat(paid.getNextDueDate()).isEqualTo(paid.installmentDueDate(4));
+        assertThat(paid.getLastPaymentDate()).isEqualTo(today);
+    }
+
+    @Test
+    void rerunningTheSameOrNextDayChargesNothingMore() {
+        chunkProcessor.processChunk(List.of(loan.getId()), today);
+
+        assertThat(chunkProcessor.processChunk(List.of(loan.getId()), today)).isEqualTo(new ChunkResult(0, 1, 0));
+        assertThat(chunkProcessor.processChunk(List.of(loan.getId()), today.plusDays(1))).isEqualTo(new ChunkResult(0, 1, 0));
+
+        assertThat(installments()).containsExactly(1, 2, 3);
+        assertThat(balance()).isEqualByComparingTo(opening.subtract(emi(3)));
+    }
+
+    @Test
+    void fullSchedulerRunsAreIdempotent() {
+        scheduler.processRecurringLoanPayments();
+        scheduler.processRecurringLoanPayments();
+
+        assertThat(installments()).containsExactly(1, 2, 3);
+        assertThat(balance()).isEqualByComparingTo(opening.subtract(emi(3)));
+    }
+
+    @Test
+    void installmentAlreadyOnTheLedgerIsCountedWithoutChargingAgain() {
+        // Installment 2 was posted (say by a run that died before advancing the loan row)
+        transactionRepository.save(Transaction.builder()
+                .accountId(account.getAccountId())
+                .amount(loan.getEmiAmount())
+                .transactionType(Transaction.TransactionType.DEBIT)
+                .category(LoanPaymentChunkProcessor.EMI_CATEGORY)
+                .description("Earlier EMI")
+                .transactionDate(loan.installmentDueDate(2).atStartOfDay())
+                .loanId(loan.getId())
+                .installmentNumber(2)
+                .build());
+
+        chunkProcessor.processChunk(List.of(loan.getId()), today);
+
+        assertThat(installments()).containsExactly(1, 2, 3);
+        assertThat(balance()).isEqualByComparingTo(opening.subtract(emi(2)));
+        assertThat(loanRepository.findById(loan.getId()).orElseThrow().getCompletedInstallments()).isEqualTo(3);
+    }
+
+    @Test
+    void catchUpStopsWhereTheBalanceRunsOut() {
+        jdbcTemplate.update("UPDATE accounts SET balance = ? WHERE id = ?", emi(2), account.getAccountId());
+
+        chunkProcessor.processChunk(List.of(loan.getId()), today);
+
+        assertThat(installments()).containsExactly(1, 2);
+        assertThat(balance()).isEqualByComparingTo(BigDecimal.ZERO);
+        Loan partlyPaid = loanRepository.findById(loan.getId()).orElseThrow();
+        assertThat(partlyPaid.getCompletedInstallments()).isEqualTo(2);
+        assertThat(partlyPaid.getNextDueDate()).isEqualTo(partlyPaid.installmentDueDate(3));
+    }
+
+    private List<Integer> installments() {
+        return jdbcTemplate.queryForList(
+                "SELECT installment_number FROM transactions WHERE loan_id = ? ORDER BY installment_number",
+                Integer.class, loan.getId());
+    }
+
+    private BigDecimal emi(int count) {
+        return loan.getEmiAmount().multiply(BigDecimal.valueOf(count));
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, account.getAccountId());
+    }
+}
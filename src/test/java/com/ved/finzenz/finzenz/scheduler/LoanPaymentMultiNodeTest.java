@@ -0,0 +1,156 @@
+package com.ved.finzenz.finzenz.scheduler;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Loan;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.LoanPaymentRunRepository;
+import com.ved.finzenz.finzenz.repository.LoanRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.service.LoanService;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several nodes start the daily EMI job at the same moment against the same due loans. Each
+ * node has its own scheduler and chunk pool; they share only the database, so the
+ * FOR UPDATE SKIP LOCKED claim and the (loan_id, installment_number) key are all that keep
+ * them from paying a loan twice. Every due installment must still be paid exactly once.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class LoanPaymentMultiNodeTest {
+
+    private static final int NODES = 3;
+    private static final int ACCOUNTS = 10;
+    private static final int LOANS_PER_ACCOUNT = 4;
+    // Small chunks so the nodes' chunks interleave instead of one node claiming everything
+    private static final int CHUNK_SIZE = 5;
+
+    @Autowired
+    private LoanPaymentChunkProcessor chunkProcessor;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private LoanRepository loanRepository;
+    @Autowired
+    private LoanPaymentRunRepository runRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+    private final Map<Long, BigDecimal> expectedBalances = new HashMap<>();
+    private final List<Loan> loans = new ArrayList<>();
+    private final List<RecurringLoanScheduler> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int a = 0; a < ACCOUNTS; a++) {
+            User user = TestFixtures.user(userRepository);
+            Account account = TestFixtures.account(accountRepository, user, "100000.00");
+            BigDecimal dueTotal = BigDecimal.ZERO;
+            for (int l = 0; l < LOANS_PER_ACCOUNT; l++) {
+                // Installments 1..3 fell due 70, 40 and 10 days ago
+                Loan loan = loanService.createLoan(Loan.builder()
+                        .accountId(account.getAccountId())
+                        .lenderName("Node Bank " + l)
+                        .principalAmount(new BigDecimal("12000.00"))
+                        .interestRate(new BigDecimal("12.00"))
+                        .startDate(today.minusDays(100))
+                        .recurringIntervalDays(30)
+                        .totalInstallments(12)
+                        .build());
+                loans.add(loan);
+                dueTotal = dueTotal.add(loan.getEmiAmount().multiply(BigDecimal.valueOf(3)));
+            }
+            expectedBalances.put(account.getAccountId(), balance(account.getAccountId()).subtract(dueTotal));
+        }
+        for (int n = 0; n < NODES; n++) {
+            nodes.add(new RecurringLoanScheduler(loanRepository, runRepository, chunkProcessor, CHUNK_SIZE, 2));
+        }
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(RecurringLoanScheduler::shutdown);
+    }
+
+    @Test
+    void nodesStartedTogetherPayEveryDueInstallmentExactlyOnce() throws Exception {
+        ExecutorService starter = Executors.newFixedThreadPool(NODES);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> runs = new ArrayList<>();
+            for (RecurringLoanScheduler node : nodes) {
+                runs.add(starter.submit(() -> {
+                    go.await();
+                    node.processRecurringLoanPayments();
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> run : runs) {
+                run.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            starter.shutdownNow();
+        }
+
+        String loanIds = loans.stream().map(loan -> loan.getId().toString()).collect(Collectors.joining(","));
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT loan_id FROM transactions WHERE loan_id IN (" + loanIds + ") "
+                        + "GROUP BY loan_id, installment_number HAVING COUNT(*) > 1", Long.class))
+                .as("installments paid more than once")
+                .isEmpty();
+
+        for (Loan loan : loans) {
+            assertThat(installments(loan.getId())).as("installments of loan %d", loan.getId())
+                    .containsExactly(1, 2, 3);
+            Loan paid = loanRepository.findById(loan.getId()).orElseThrow();
+            assertThat(paid.getCompletedInstallments()).isEqualTo(3);
+            assertThat(paid.getLastPaymentDate()).isEqualTo(today);
+            assertThat(paid.getNextDueDate()).isEqualTo(paid.installmentDueDate(4));
+        }
+
+        expectedBalances.forEach((accountId, expected) ->
+                assertThat(balance(accountId)).as("balance of account %d", accountId).isEqualByComparingTo(expected));
+    }
+
+    private List<Integer> installments(Long loanId) {
+        return jdbcTemplate.queryForList(
+                "SELECT installment_number FROM transactions WHERE loan_id = ? ORDER BY installment_number",
+                Integer.class, loanId);
+    }
+
+    private BigDecimal balance(Long accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+}
@@ -0,0 +1,109 @@
+package com.ved.finzenz.finzenz.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.exceptions.InvalidTokenException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccessTokenServiceTest {
+
+    private static final String OLD_SECRET = Base64.getEncoder().encodeToString(secret('a'));
+
+    private final TokenKeyRing keyRing = new TokenKeyRing("k1:" + OLD_SECRET, "k1");
+    private final AccessTokenService tokens = service(Duration.ofHours(1));
+
+    @Test
+    void issuedTokenVerifiesToTheSameUser() {
+        AuthenticatedUser verified = tokens.verify(tokens.issue(user(7L, "someone@finzenz.test")).token());
+
+        assertThat(verified.userId()).isEqualTo(7L);
+        assertThat(verified.email()).isEqualTo("someone@finzenz.test");
+        assertThat(verified.roles()).containsExactly(AccessTokenService.ROLE_USER);
+    }
+
+    @Test
+    void configuredAdminEmailGetsTheAdminRole() {
+        AuthenticatedUser verified = tokens.verify(tokens.issue(user(1L, "Admin@Finzenz.test")).token());
+
+        assertThat(verified.roles()).containsExactly(AccessTokenService.ROLE_USER, AccessTokenService.ROLE_ADMIN);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = service(Duration.ZERO).issue(user(7L, "someone@finzenz.test")).token();
+
+        assertThatThrownBy(() -> tokens.verify(token))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Token has expired");
+    }
+
+    @Test
+    void changedPayloadFailsTheSignature() {
+        String[] parts = tokens.issue(user(7L, "someone@finzenz.test")).token().split("\\.");
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("{\"sub\":\"8\",\"exp\":" + Long.MAX_VALUE / 2 + ",\"roles\":[\"ADMIN\"]}").getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> tokens.verify(parts[0] + "." + forged + "." + parts[2]))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Invalid token signature");
+    }
+
+    @Test
+    void tokenFromAnotherKeyRingIsRejected() {
+        TokenKeyRing otherRing = new TokenKeyRing("k1:" + Base64.getEncoder().encodeToString(secret('b')), "k1");
+        String token = new AccessTokenService(otherRing, new ObjectMapper(), Duration.ofHours(1), "")
+                .issue(user(7L, "someone@finzenz.test")).token();
+
+        assertThatThrownBy(() -> tokens.verify(token))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Invalid token signature");
+    }
+
+    @Test
+    void rotationKeepsOldTokensValidUntilTheOldKeyIsRetired() {
+        String oldToken = tokens.issue(user(7L, "someone@finzenz.test")).token();
+
+        keyRing.rotate("k2", secret('c'));
+        String newToken = tokens.issue(user(7L, "someone@finzenz.test")).token();
+
+        assertThat(header(newToken)).contains("\"kid\":\"k2\"");
+        assertThat(tokens.verify(oldToken).userId()).isEqualTo(7L);
+        assertThat(tokens.verify(newToken).userId()).isEqualTo(7L);
+
+        keyRing.rotate("k2", secret('c'), "k1");
+
+        assertThatThrownBy(() -> tokens.verify(oldToken))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Invalid token signature");
+        assertThat(tokens.verify(newToken).userId()).isEqualTo(7L);
+    }
+
+    private AccessTokenService service(Duration ttl) {
+        return new AccessTokenService(keyRing, new ObjectMapper(), ttl, " admin@finzenz.test , ops@finzenz.test");
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+
+    private static byte[] secret(char fill) {
+        byte[] secret = new byte[32];
+        Arrays.fill(secret, (byte) fill);
+        return secret;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ved.finzenz.finzenz.security;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A valid token only reaches the caller's own data; operational endpoints need the ADMIN role.
+ */
+@SpringBootTest(properties = "finzenz.security.admin-emails=admin@finzenz.test")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class OwnershipAccessTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AccessTokenService accessTokenService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private User owner;
+    private User other;
+    private Account account;
+
+    @BeforeEach
+    void seed() {
+        owner = TestFixtures.user(userRepository);
+        other = TestFixtures.user(userRepository);
+        account = TestFixtures.account(accountRepository, owner, "100.00");
+    }
+
+    @Test
+    void ownerReadsTheirAccount() throws Exception {
+        mockMvc.perform(as(owner, get("/api/accounts/{accountId}", account.getAccountId())))
+                .andExpect(status().isOk());
+        mockMvc.perform(as(owner, get("/api/accounts/user/{userId}", owner.getId())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void anotherUsersAccountIsForbidden() throws Exception {
+        mockMvc.perform(as(other, get("/api/accounts/{accountId}", account.getAccountId())))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(other, get("/api/accounts/user/{userId}", owner.getId())))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(other, post("/api/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"accountId": %d, "amount": 10.00, "transactionType": "DEBIT", "category": "FOOD"}
+                                """.formatted(account.getAccountId()))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void missingAccountIsForbiddenLikeAForeignOne() throws Exception {
+        mockMvc.perform(as(owner, get("/api/accounts/{accountId}", Long.MAX_VALUE)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void operationalEndpointsNeedTheAdminRole() throws Exception {
+        User admin = TestFixtures.user(userRepository);
+        admin.setEmail("admin@finzenz.test");
+        admin = userRepository.save(admin);
+
+        mockMvc.perform(as(owner, get("/api/cache/stats"))).andExpect(status().isForbidden());
+        mockMvc.perform(as(owner, get("/api/users/email-filter/stats"))).andExpect(status().isForbidden());
+        mockMvc.perform(as(owner, get("/api/rollups/user/{userId}/consistency", owner.getId())))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(owner, get("/accounts"))).andExpect(status().isForbidden());
+
+        mockMvc.perform(as(admin, get("/api/cache/stats"))).andExpect(status().isOk());
+        mockMvc.perform(as(admin, get("/api/users/email-filter/stats"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void missingTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/accounts/{accountId}", account.getAccountId()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private MockHttpServletRequestBuilder as(User user, MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenService.issue(user).token());
+    }
+}
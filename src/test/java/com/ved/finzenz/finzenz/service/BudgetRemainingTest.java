@@ -0,0 +1,111 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.dto.BudgetRemainingResponse;
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Budget;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Remaining budget counts the debits in the budget's category from its start date through its
+ * end date, both days included, and nothing outside that window.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class BudgetRemainingTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 1);
+    private static final LocalDate END = LocalDate.of(2026, 3, 31);
+
+    @Autowired
+    private BudgetService budgetService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Integer userId;
+    private Account account;
+
+    @BeforeEach
+    void seed() {
+        User user = TestFixtures.user(userRepository);
+        userId = user.getId().intValue();
+        account = TestFixtures.account(accountRepository, user, "100000.00");
+        budgetService.createBudget(Budget.builder()
+                .userId(userId)
+                .category("Groceries")
+                .amount(new BigDecimal("1000.00"))
+                .startDate(START)
+                .endDate(END)
+                .build());
+
+        post(START.minusDays(1).atTime(23, 59, 59), "Groceries", "1.00", Transaction.TransactionType.DEBIT);
+        post(START.atStartOfDay(), "Groceries", "100.00", Transaction.TransactionType.DEBIT);
+        post(END.atTime(23, 59, 59), "groceries", "200.00", Transaction.TransactionType.DEBIT);
+        post(END.plusDays(1).atStartOfDay(), "Groceries", "400.00", Transaction.TransactionType.DEBIT);
+        post(START.plusDays(14).atTime(12, 0), "Dining", "800.00", Transaction.TransactionType.DEBIT);
+        post(START.plusDays(9).atTime(12, 0), "Groceries", "50.00", Transaction.TransactionType.CREDIT);
+    }
+
+    @Test
+    void firstAndLastDayCountAndNeighbouringDaysDoNot() {
+        assertThat(budgetService.getRemainingBudget(userId, "Groceries", START)).isEqualByComparingTo("700.00");
+        assertThat(budgetService.getRemainingBudget(userId, "groceries", END)).isEqualByComparingTo("700.00");
+    }
+
+    @Test
+    void summaryReportsTheSameWindow() {
+        assertThat(budgetService.getRemainingBudgets(userId, START.plusDays(10)))
+                .singleElement()
+                .satisfies(remaining -> {
+                    assertThat(remaining.getCategory()).isEqualTo("Groceries");
+                    assertThat(remaining.getBudgeted()).isEqualByComparingTo("1000.00");
+                    assertThat(remaining.getSpent()).isEqualByComparingTo("300.00");
+                    assertThat(remaining.getRemaining()).isEqualByComparingTo("700.00");
+                });
+    }
+
+    @Test
+    void noBudgetIsActiveOutsideTheWindow() {
+        assertThatThrownBy(() -> budgetService.getRemainingBudget(userId, "Groceries", START.minusDays(1)))
+                .hasMessageContaining("No active budget");
+        assertThatThrownBy(() -> budgetService.getRemainingBudget(userId, "Groceries", END.plusDays(1)))
+                .hasMessageContaining("No active budget");
+        assertThat(budgetService.getRemainingBudgets(userId, END.plusDays(1)))
+                .extracting(BudgetRemainingResponse::getCategory)
+                .isEmpty();
+    }
+
+    private void post(LocalDateTime at, String category, String amount, Transaction.TransactionType type) {
+        transactionService.createTransaction(Transaction.builder()
+                .accountId(account.getAccountId())
+                .amount(new BigDecimal(amount))
+                .transactionDate(at)
+                .createdAt(at)
+                .transactionType(type)
+                .category(category)
+                .description("Budget window test")
+                .build());
+    }
+}
@@ -0,0 +1,97 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.dto.LoanResponse;
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Loan;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.LoanRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.scheduler.LoanPaymentChunkProcessor;
+import com.ved.finzenz.finzenz.scheduler.LoanPaymentChunkProcessor.ChunkResult;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A loan held in the "loans" second-level cache region must not be served stale after it is
+ * paid, whether through recordEmiPayment or the scheduler's chunk processor.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class LoanCacheInvalidationTest {
+
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private LoanPaymentChunkProcessor chunkProcessor;
+    @Autowired
+    private LoanRepository loanRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDate today = LocalDate.now();
+    private Loan loan;
+
+    @BeforeEach
+    void seed() {
+        User user = TestFixtures.user(userRepository);
+        Account account = TestFixtures.account(accountRepository, user, "100000.00");
+        // Installments 1..3 fell due 70, 40 and 10 days ago
+        loan = loanService.createLoan(Loan.builder()
+                .accountId(account.getAccountId())
+                .lenderName("Cached Bank")
+                .principalAmount(new BigDecimal("12000.00"))
+                .interestRate(new BigDecimal("12.00"))
+                .startDate(today.minusDays(100))
+                .recurringIntervalDays(30)
+                .totalInstallments(12)
+                .build());
+    }
+
+    @Test
+    void paymentsThroughEitherPathShowOnTheNextCachedRead() {
+        assertThat(loanService.getLoanById(loan.getId()).getNextPaymentDate()).isEqualTo(loan.installmentDueDate(1));
+        long hits = loanRegion().getHitCount();
+        assertThat(loanService.getLoanById(loan.getId()).getNextPaymentDate()).isEqualTo(loan.installmentDueDate(1));
+        assertThat(loanRegion().getHitCount()).as("second read served from the cache").isGreaterThan(hits);
+
+        loanService.recordEmiPayment(loan.getId());
+
+        LoanResponse afterManual = loanService.getLoanById(loan.getId());
+        assertThat(afterManual.getNextPaymentDate()).isEqualTo(loan.installmentDueDate(2));
+        assertThat(loanRepository.findById(loan.getId()).orElseThrow().getCompletedInstallments()).isEqualTo(1);
+
+        // The manual payment set last_payment_date to today, so the job picks the loan up tomorrow
+        assertThat(chunkProcessor.processChunk(List.of(loan.getId()), today.plusDays(1)))
+                .isEqualTo(new ChunkResult(1, 0, 0));
+
+        LoanResponse afterJob = loanService.getLoanById(loan.getId());
+        assertThat(afterJob.getNextPaymentDate()).isEqualTo(loan.installmentDueDate(4));
+        assertThat(afterJob.getRemainingBalance()).isLessThan(afterManual.getRemainingBalance());
+        assertThat(loanRepository.findById(loan.getId()).orElseThrow().getCompletedInstallments()).isEqualTo(3);
+    }
+
+    private CacheRegionStatistics loanRegion() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getDomainDataRegionStatistics("loans");
+    }
+}
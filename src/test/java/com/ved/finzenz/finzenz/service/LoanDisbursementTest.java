@@ -0,0 +1,96 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Loan;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Creating a loan credits the principal to the account together with the disbursement row,
+ * or does neither: the ledger and the balance must never disagree.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class LoanDisbursementTest {
+
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account account;
+
+    @BeforeEach
+    void seed() {
+        User user = TestFixtures.user(userRepository);
+        account = TestFixtures.account(accountRepository, user, "100.00");
+    }
+
+    @Test
+    void disbursementCreditsTheBalanceAndTheLedger() {
+        Loan loan = loanService.createLoan(loan());
+
+        assertThat(loan.getId()).isNotNull();
+        assertThat(balance()).isEqualByComparingTo("12100.00");
+        assertThat(disbursements()).isEqualTo(1);
+    }
+
+    @Test
+    void loanOnAClosedAccountRollsBackEverything() {
+        account.setIsActive(false);
+        accountRepository.save(account);
+
+        assertThatThrownBy(() -> loanService.createLoan(loan()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("closed");
+
+        assertThat(balance()).isEqualByComparingTo("100.00");
+        assertThat(disbursements()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans WHERE account_id = ?",
+                Integer.class, account.getAccountId())).isZero();
+    }
+
+    private Loan loan() {
+        return Loan.builder()
+                .accountId(account.getAccountId())
+                .lenderName("Test Bank")
+                .principalAmount(new BigDecimal("12000.00"))
+                .interestRate(new BigDecimal("10.00"))
+                .startDate(LocalDate.now())
+                .recurringIntervalDays(30)
+                .totalInstallments(12)
+                .build();
+    }
+
+    private int disbursements() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE account_id = ? AND category = 'Loan Disbursement'",
+                Integer.class, account.getAccountId());
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, account.getAccountId());
+    }
+}
@@ -0,0 +1,184 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Loan;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires manual EMI payments at one loan from several threads, alone and alongside other postings
+ * to the same account, and checks each installment is posted once and no balance update is lost.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class LoanPaymentConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = TestFixtures.user(userRepository);
+    }
+
+    @Test
+    void concurrentPaymentsOnASingleInstallmentLoanPostItOnce() throws Exception {
+        Account account = TestFixtures.account(accountRepository, user, "100000.00");
+        Loan loan = loanService.createLoan(loan(account, 1));
+        BigDecimal afterDisbursement = balance(account);
+
+        int succeeded = payConcurrently(loan.getId());
+
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(emiRows(loan)).isEqualTo(1);
+        assertThat(balance(account)).isEqualByComparingTo(afterDisbursement.subtract(loan.getEmiAmount()));
+    }
+
+    @Test
+    void concurrentPaymentsNeverOverdrawTheAccount() throws Exception {
+        Account account = TestFixtures.account(accountRepository, user, "0.00");
+        Loan loan = loanService.createLoan(loan(account, 12));
+        // Leave exactly one EMI in the account
+        jdbcTemplate.update("UPDATE accounts SET balance = ? WHERE id = ?", loan.getEmiAmount(), account.getAccountId());
+
+        int succeeded = payConcurrently(loan.getId());
+
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(emiRows(loan)).isEqualTo(1);
+        assertThat(balance(account)).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void paymentsRacingOtherPostingsLoseNoBalanceUpdates() throws Exception {
+        BigDecimal opening = new BigDecimal("100000.00");
+        Account account = TestFixtures.account(accountRepository, user, opening.toPlainString());
+        Loan loan = loanService.createLoan(loan(account, 100));
+
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean payer = t % 2 == 0;
+            workers.add(() -> {
+                for (int i = 0; i < 10; i++) {
+                    if (payer) {
+                        loanService.recordEmiPayment(loan.getId());
+                    } else {
+                        transactionService.createTransaction(credit(account));
+                    }
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Void> future : executor.invokeAll(workers)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal ledger = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(CASE WHEN transaction_type = 'CREDIT' THEN amount ELSE -amount END), 0) " +
+                        "FROM transactions WHERE account_id = ?",
+                BigDecimal.class, account.getAccountId());
+        assertThat(emiRows(loan)).isEqualTo(THREADS / 2 * 10);
+        assertThat(balance(account)).isEqualByComparingTo(opening.add(ledger));
+    }
+
+    private int payConcurrently(Long loanId) throws Exception {
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(() -> {
+                loanService.recordEmiPayment(loanId);
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int succeeded = 0;
+        try {
+            for (Future<Void> future : executor.invokeAll(workers)) {
+                try {
+                    future.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded;
+    }
+
+    private int emiRows(Loan loan) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE loan_id = ?", Integer.class, loan.getId());
+    }
+
+    private BigDecimal balance(Account account) {
+        return jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, account.getAccountId());
+    }
+
+    private static Transaction credit(Account account) {
+        LocalDateTime now = LocalDateTime.now();
+        return Transaction.builder()
+                .accountId(account.getAccountId())
+                .amount(new BigDecimal("25.00"))
+                .transactionDate(now)
+                .createdAt(now)
+                .transactionType(Transaction.TransactionType.CREDIT)
+                .category("Salary")
+                .description("Concurrency test")
+                .build();
+    }
+
+    private static Loan loan(Account account, int installments) {
+        return Loan.builder()
+                .accountId(account.getAccountId())
+                .lenderName("Test Bank")
+                .principalAmount(new BigDecimal("12000.00"))
+                .interestRate(new BigDecimal("10.00"))
+                .startDate(LocalDate.now().minusDays(30))
+                .recurringIntervalDays(30)
+                .totalInstallments(installments)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class SpendingRollupServiceTest {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private SpendingRollupService spendingRollupService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Account account;
+
+    @BeforeEach
+    void seed() {
+        user = TestFixtures.user(userRepository);
+        account = TestFixtures.account(accountRepository, user, "10000.00");
+        transactionService.createTransaction(debit("Dining", "12.50"));
+        transactionService.createTransaction(debit(" dining ", "7.50"));
+        transactionService.createTransaction(debit("DINING", "5.00"));
+        transactionService.createTransaction(debit("Fuel", "40.00"));
+    }
+
+    @Test
+    void categoriesDifferingInCaseAndSpacesShareOneBucket() {
+        assertThat(spendingRollupService.getTotalSpending(user.getId(), "Dining"))
+                .isEqualByComparingTo("25.00");
+        assertThat(spendingRollupService.getSpendingByCategory(user.getId()))
+                .extracting(row -> row.getCategory())
+                .containsExactlyInAnyOrder("dining", "fuel");
+    }
+
+    @Test
+    void rebuildReproducesIncrementalTotals() {
+        spendingRollupService.rebuildForUser(user.getId());
+
+        assertThat(spendingRollupService.getTotalSpending(user.getId(), "dining")).isEqualByComparingTo("25.00");
+        assertThat(spendingRollupService.getTotalSpending(user.getId(), "FUEL")).isEqualByComparingTo("40.00");
+        assertThat(spendingRollupService.checkConsistency(user.getId())).isEmpty();
+    }
+
+    @Test
+    void batchAcrossAccountsOfOneUserMergesIntoOneBucket() {
+        Account second = TestFixtures.account(accountRepository, user, "10000.00");
+        Transaction fromSecond = debit("Dining ", "10.00");
+        fromSecond.setAccountId(second.getAccountId());
+        transactionService.createTransactions(List.of(debit("dining", "5.00"), fromSecond, debit("Fuel", "1.00")));
+
+        assertThat(spendingRollupService.getTotalSpending(user.getId(), "Dining")).isEqualByComparingTo("40.00");
+        assertThat(spendingRollupService.getTotalSpending(user.getId(), "Fuel")).isEqualByComparingTo("41.00");
+        assertThat(spendingRollupService.checkConsistency(user.getId())).isEmpty();
+    }
+
+    private Transaction debit(String category, String amount) {
+        LocalDateTime now = LocalDateTime.now();
+        return Transaction.builder()
+                .accountId(account.getAccountId())
+                .amount(new BigDecimal(amount))
+                .transactionDate(now)
+                .createdAt(now)
+                .transactionType(Transaction.TransactionType.DEBIT)
+                .category(category)
+                .description("Rollup test")
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers create/update/delete from several threads and checks every account balance still equals
+ * its opening balance plus the signed sum of the transactions that survived.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class TransactionBalanceConcurrencyTest {
+
+    private static final BigDecimal OPENING = new BigDecimal("100000.00");
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 30;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account first;
+    private Account second;
+
+    @BeforeEach
+    void seed() {
+        User user = TestFixtures.user(userRepository);
+        first = TestFixtures.account(accountRepository, user, OPENING.toPlainString());
+        second = TestFixtures.account(accountRepository, user, OPENING.toPlainString());
+    }
+
+    @Test
+    void concurrentPostsEditsAndDeletesLoseNoBalanceUpdates() throws Exception {
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    Transaction created = transactionService.createTransaction(
+                            transaction(pick(random), random.nextInt(1, 500), random.nextBoolean()));
+                    // Moves between accounts and flips direction, so both halves of the delta matter
+                    transactionService.updateTransaction(created.getId(),
+                            transaction(pick(random), random.nextInt(1, 500), random.nextBoolean()));
+                    if (i % 3 == 0) {
+                        transactionService.deleteTransaction(created.getId());
+                    }
+                }
+                return null;
+            });
+        }
+        runAll(workers);
+
+        assertLedgerMatchesBalance(first);
+        assertLedgerMatchesBalance(second);
+    }
+
+    @Test
+    void concurrentEditsOfOneTransactionReverseItOnlyOnce() throws Exception {
+        Transaction created = transactionService.createTransaction(transaction(first, 10, false));
+
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int amount = 20 + t;
+            workers.add(() -> {
+                transactionService.updateTransaction(created.getId(), transaction(first, amount, false));
+                return null;
+            });
+        }
+        runAll(workers);
+
+        BigDecimal finalAmount = jdbcTemplate.queryForObject(
+                "SELECT amount FROM transactions WHERE id = ?", BigDecimal.class, created.getId());
+        assertThat(balance(first)).isEqualByComparingTo(OPENING.subtract(finalAmount));
+    }
+
+    private void assertLedgerMatchesBalance(Account account) {
+        BigDecimal ledger = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(CASE WHEN transaction_type = 'CREDIT' THEN amount ELSE -amount END), 0) " +
+                        "FROM transactions WHERE account_id = ?",
+                BigDecimal.class, account.getAccountId());
+        assertThat(balance(account)).isEqualByComparingTo(OPENING.add(ledger));
+    }
+
+    private BigDecimal balance(Account account) {
+        return jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, account.getAccountId());
+    }
+
+    private Account pick(ThreadLocalRandom random) {
+        return random.nextBoolean() ? first : second;
+    }
+
+    private static void runAll(List<Callable<Void>> workers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+        try {
+            for (Future<Void> future : executor.invokeAll(workers)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Transaction transaction(Account account, int amount, boolean credit) {
+        LocalDateTime now = LocalDateTime.now();
+        return Transaction.builder()
+                .accountId(account.getAccountId())
+                .amount(BigDecimal.valueOf(amount))
+                .transactionDate(now)
+                .createdAt(now)
+                .transactionType(credit ? Transaction.TransactionType.CREDIT : Transaction.TransactionType.DEBIT)
+                .category("Groceries")
+                .description("Concurrency test")
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.dto.TransactionBatchResponse;
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.exceptions.AccountNotFoundException;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * POST /api/transactions/batch: the batch is validated up front, each account's balance moves
+ * once by the batch's net amount, rows go in 500 at a time, and ids come from the pooled
+ * sequence without clashing with other writers.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class TransactionBatchTest {
+
+    @MockitoSpyBean
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account first;
+    private Account second;
+
+    @BeforeEach
+    void seed() {
+        User user = TestFixtures.user(userRepository);
+        first = TestFixtures.account(accountRepository, user, "1000.00");
+        second = TestFixtures.account(accountRepository, user, "1000.00");
+        clearInvocations(accountRepository);
+    }
+
+    @Test
+    void mixedBatchMovesEachBalanceOnceByItsNet() {
+        TransactionBatchResponse response = transactionService.createTransactions(List.of(
+                transaction(first, "100.00", Transaction.TransactionType.CREDIT),
+                transaction(second, "40.00", Transaction.TransactionType.DEBIT),
+                transaction(first, "30.00", Transaction.TransactionType.DEBIT),
+                transaction(second, "5.50", Transaction.TransactionType.CREDIT),
+                transaction(first, "20.00", Transaction.TransactionType.RECURRING)));
+
+        assertThat(response.getInsertedCount()).isEqualTo(5);
+        assertThat(response.getNetBalanceChanges()).containsOnlyKeys(first.getAccountId(), second.getAccountId());
+        assertThat(response.getNetBalanceChanges().get(first.getAccountId())).isEqualByComparingTo("50.00");
+        assertThat(response.getNetBalanceChanges().get(second.getAccountId())).isEqualByComparingTo("-34.50");
+        verify(accountRepository, times(1)).adjustBalance(eq(first.getAccountId()), any());
+        verify(accountRepository, times(1)).adjustBalance(eq(second.getAccountId()), any());
+
+        assertThat(balance(first)).isEqualByComparingTo("1050.00");
+        assertThat(balance(second)).isEqualByComparingTo("965.50");
+        assertThat(rows(first)).isEqualTo(3);
+        assertThat(rows(second)).isEqualTo(2);
+    }
+
+    @Test
+    void closedAccountRejectsTheWholeBatch() {
+        second.setIsActive(false);
+        accountRepository.save(second);
+
+        assertThatThrownBy(() -> transactionService.createTransactions(List.of(
+                transaction(first, "100.00", Transaction.TransactionType.CREDIT),
+                transaction(second, "40.00", Transaction.TransactionType.DEBIT))))
+                .hasMessageContaining("closed");
+
+        assertThat(balance(first)).isEqualByComparingTo("1000.00");
+        assertThat(balance(second)).isEqualByComparingTo("1000.00");
+        assertThat(rows(first) + rows(second)).isZero();
+    }
+
+    @Test
+    void missingAccountRejectsTheWholeBatch() {
+        Account missing = Account.builder().accountId(Long.MAX_VALUE).build();
+
+        assertThatThrownBy(() -> transactionService.createTransactions(List.of(
+                transaction(first, "100.00", Transaction.TransactionType.CREDIT),
+                transaction(missing, "40.00", Transaction.TransactionType.DEBIT))))
+                .isInstanceOf(AccountNotFoundException.class);
+
+        assertThat(balance(first)).isEqualByComparingTo("1000.00");
+        assertThat(rows(first)).isZero();
+    }
+
+    @Test
+    void batchesAcrossTheChunkBoundaryInsertEveryRow() {
+        // 500, 500 and 1: two full insert chunks and a partial one
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 1_001; i++) {
+            batch.add(transaction(i % 2 == 0 ? first : second, "1.00", Transaction.TransactionType.CREDIT));
+        }
+
+        TransactionBatchResponse response = transactionService.createTransactions(batch);
+
+        assertThat(response.getInsertedCount()).isEqualTo(1_001);
+        assertThat(rows(first)).isEqualTo(501);
+        assertThat(rows(second)).isEqualTo(500);
+        assertThat(balance(first)).isEqualByComparingTo("1501.00");
+        assertThat(balance(second)).isEqualByComparingTo("1500.00");
+        assertThat(batch).extracting(Transaction::getId).doesNotContainNull().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void concurrentBatchesAndSingleInsertsGetDistinctIds() throws Exception {
+        List<Callable<Void>> writers = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            writers.add(() -> {
+                List<Transaction> batch = new ArrayList<>();
+                for (int i = 0; i < 777; i++) {
+                    batch.add(transaction(first, "1.00", Transaction.TransactionType.CREDIT));
+                }
+                transactionService.createTransactions(batch);
+                return null;
+            });
+            writers.add(() -> {
+                for (int i = 0; i < 60; i++) {
+                    transactionService.createTransaction(transaction(second, "1.00", Transaction.TransactionType.CREDIT));
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(writers.size());
+        try {
+            for (Future<Void> result : executor.invokeAll(writers)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(rows(first)).isEqualTo(1_554);
+        assertThat(rows(second)).isEqualTo(120);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT id) FROM transactions WHERE account_id IN (?, ?)",
+                Integer.class, first.getAccountId(), second.getAccountId())).isEqualTo(1_674);
+        assertThat(balance(first)).isEqualByComparingTo("2554.00");
+        assertThat(balance(second)).isEqualByComparingTo("1120.00");
+    }
+
+    private static Transaction transaction(Account account, String amount, Transaction.TransactionType type) {
+        return Transaction.builder()
+                .accountId(account.getAccountId())
+                .amount(new BigDecimal(amount))
+                .transactionType(type)
+                .category("Batch")
+                .description("Batch row")
+                .transactionDate(LocalDateTime.now())
+                .build();
+    }
+
+    private int rows(Account account) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE account_id = ?", Integer.class, account.getAccountId());
+    }
+
+    private BigDecimal balance(Account account) {
+        return jdbcTemplate.queryForObject(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, account.getAccountId());
+    }
+}
@@ -0,0 +1,134 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.dto.TransactionPageResponse;
+import com.ved.finzenz.finzenz.dto.TransactionResponse;
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.TransactionRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class TransactionKeysetPaginationTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Account account;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void seed() {
+        user = TestFixtures.user(userRepository);
+        account = TestFixtures.account(accountRepository, user, "0.00");
+        base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            // Three rows per timestamp, so page boundaries fall inside ties and only the id breaks them
+            rows.add(transaction(base.plusMinutes(i / 3)));
+        }
+        transactionRepository.saveAll(rows);
+    }
+
+    @Test
+    void pagesVisitEveryRowOnceInDateThenIdOrder() {
+        List<TransactionResponse> seen = readAll(25);
+
+        assertThat(seen).hasSize(ROWS);
+        Set<Integer> ids = new HashSet<>();
+        seen.forEach(row -> ids.add(row.getId()));
+        assertThat(ids).hasSize(ROWS);
+        for (int i = 1; i < seen.size(); i++) {
+            TransactionResponse previous = seen.get(i - 1);
+            TransactionResponse current = seen.get(i);
+            int byDate = current.getTransactionDate().compareTo(previous.getTransactionDate());
+            assertThat(byDate < 0 || (byDate == 0 && current.getId() < previous.getId()))
+                    .as("row %d sorts after row %d", i, i - 1)
+                    .isTrue();
+        }
+    }
+
+    @Test
+    void rowsInsertedAheadOfTheCursorDoNotShiftLaterPages() {
+        TransactionPageResponse first = transactionService.getTransactionsPageByUserId(user.getId().intValue(), null, 40);
+        // Newer than everything already listed: with OFFSET paging this would push a row onto page two again
+        transactionRepository.save(transaction(base.plusDays(1)));
+
+        TransactionPageResponse second = transactionService.getTransactionsPageByUserId(
+                user.getId().intValue(), first.getNextCursor(), 40);
+
+        Set<Integer> firstIds = new HashSet<>();
+        first.getTransactions().forEach(row -> firstIds.add(row.getId()));
+        assertThat(second.getTransactions()).noneMatch(row -> firstIds.contains(row.getId()));
+        assertThat(second.getTransactions()).hasSize(40);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        TransactionPageResponse page = transactionService.getTransactionsPageByUserId(user.getId().intValue(), null, ROWS);
+
+        assertThat(page.getTransactions()).hasSize(ROWS);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        assertThatThrownBy(() -> transactionService.getTransactionsPageByUserId(user.getId().intValue(), "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<TransactionResponse> readAll(int pageSize) {
+        List<TransactionResponse> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPageResponse page = transactionService.getTransactionsPageByUserId(
+                    user.getId().intValue(), cursor, pageSize);
+            seen.addAll(page.getTransactions());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private Transaction transaction(LocalDateTime date) {
+        return Transaction.builder()
+                .accountId(account.getAccountId())
+                .amount(new BigDecimal("10.00"))
+                .transactionDate(date)
+                .createdAt(date)
+                .transactionType(Transaction.TransactionType.DEBIT)
+                .category("Dining")
+                .description("Test")
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.Transaction;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.TransactionRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.support.EmbeddedPostgresConfig;
+import com.ved.finzenz.finzenz.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(EmbeddedPostgresConfig.class)
+class TransactionSearchTest {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Account account;
+
+    @BeforeEach
+    void seed() {
+        user = TestFixtures.user(userRepository);
+        account = TestFixtures.account(accountRepository, user, "0.00");
+        LocalDateTime now = LocalDateTime.now();
+        transactionRepository.saveAll(List.of(
+                transaction("UPI/Swiggy/482913", "Dining", now),
+                transaction("Uber trip to airport", "Transport", now.minusDays(1)),
+                transaction("Amazon order", "Shopping", now.minusDays(2))));
+    }
+
+    @Test
+    void matchesWordsInsideSlashSeparatedDescriptions() {
+        assertThat(search("swig", 0))
+                .extracting(Transaction::getDescription)
+                .containsExactly("UPI/Swiggy/482913");
+    }
+
+    @Test
+    void everyWordMustMatchAsAPrefix() {
+        assertThat(search("ub air", 0))
+                .extracting(Transaction::getDescription)
+                .containsExactly("Uber trip to airport");
+        assertThat(search("ub amazon", 0)).isEmpty();
+    }
+
+    @Test
+    void categoryIsSearchable() {
+        assertThat(search("shop", 0))
+                .extracting(Transaction::getDescription)
+                .containsExactly("Amazon order");
+    }
+
+    @Test
+    void hugePageNumberIsAnEmptyPageNotAnError() {
+        assertThat(search("swiggy", Integer.MAX_VALUE)).isEmpty();
+    }
+
+    private List<Transaction> search(String keyword, int page) {
+        return transactionService.searchTransactionsByDescriptionForUser(user.getId().intValue(), keyword, page, 50);
+    }
+
+    private Transaction transaction(String description, String category, LocalDateTime date) {
+        return Transaction.builder()
+                .accountId(account.getAccountId())
+                .amount(new BigDecimal("10.00"))
+                .transactionDate(date)
+                .createdAt(date)
+                .transactionType(Transaction.TransactionType.DEBIT)
+                .category(category)
+                .description(description)
+                .build();
+    }
+}
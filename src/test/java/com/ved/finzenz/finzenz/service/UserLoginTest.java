@@ -0,0 +1,66 @@
+package com.ved.finzenz.finzenz.service;
+
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.exceptions.InvalidCredentialsException;
+import com.ved.finzenz.finzenz.registration.EmailBloomFilter;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+import com.ved.finzenz.finzenz.security.CredentialVerificationPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * An unknown email and a wrong password must fail the same way and cost the same hash, so the
+ * response time doesn't tell an attacker which emails have accounts.
+ */
+class UserLoginTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(4));
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserServiceImpl(userRepository, passwordEncoder,
+                new CredentialVerificationPool(1, 10), mock(EmailBloomFilter.class));
+        clearInvocations(passwordEncoder);
+    }
+
+    @Test
+    void unknownEmailIsHashedAndRejectedLikeAWrongPassword() {
+        when(userRepository.findByEmail("nobody@finzenz.test")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.loginUser("nobody@finzenz.test", "guess"))
+                .isInstanceOf(InvalidCredentialsException.class)
+                .hasMessage("Invalid email or password");
+        verify(passwordEncoder, times(1)).matches(eq("guess"), anyString());
+    }
+
+    @Test
+    void wrongPasswordIsRejectedWithTheSameMessage() {
+        User user = new User();
+        user.setEmail("someone@finzenz.test");
+        user.setPasswordHash(new BCryptPasswordEncoder(4).encode("secret"));
+        when(userRepository.findByEmail("someone@finzenz.test")).thenReturn(Optional.of(user));
+
+        assertThatThrownBy(() -> userService.loginUser("someone@finzenz.test", "guess"))
+                .isInstanceOf(InvalidCredentialsException.class)
+                .hasMessage("Invalid email or password");
+        verify(passwordEncoder, times(1)).matches(eq("guess"), anyString());
+        assertThat(userService.loginUser("someone@finzenz.test", "secret")).isSameAs(user);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ved.finzenz.finzenz.support;
+
+import com.ved.finzenz.finzenz.entities.Account;
+import com.ved.finzenz.finzenz.entities.User;
+import com.ved.finzenz.finzenz.repository.AccountRepository;
+import com.ved.finzenz.finzenz.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Minimal valid rows for tests that need a user and an account to hang data off.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static User user(UserRepository userRepository) {
+        User user = new User();
+        String unique = UUID.randomUUID().toString();
+        user.setFullName("Test User");
+        user.setEmail("test-" + unique + "@finzenz.test");
+        user.setPasswordHash("{noop}unused");
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        return userRepository.save(user);
+    }
+
+    public static Account account(AccountRepository accountRepository, User user, String balance) {
+        return accountRepository.save(Account.builder()
+                .accountName("Test account")
+                .accountType(Account.AccountType.SAVINGS)
+                .accountNumber("T" + UUID.randomUUID().toString().replace("-", "").substring(0, 16))
+                .balance(new BigDecimal(balance))
+                .currency(Account.CurrencyType.INR)
+                .isActive(true)
+                .createdAt(LocalDateTime.now())
+                .user(user)
+                .build());
+    }
+}
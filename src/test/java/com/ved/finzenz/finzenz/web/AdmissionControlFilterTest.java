@@ -0,0 +1,113 @@
+package com.ved.finzenz.finzenz.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Requests beyond finzenz.web.admission.max-concurrent-requests wait up to the acquire timeout
+ * and then get 503 with Retry-After, without reaching the handler; permits come back when a
+ * request finishes, also when it fails.
+ */
+class AdmissionControlFilterTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void requestOverTheLimitGets503AfterTheTimeout() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, Duration.ofMillis(100));
+        CountDownLatch inHandler = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<MockHttpServletResponse> first = executor.submit(() -> run(filter, (request, response) -> {
+            inHandler.countDown();
+            await(release);
+        }));
+        assertThat(inHandler.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicInteger handled = new AtomicInteger();
+        long started = System.nanoTime();
+        MockHttpServletResponse rejected = run(filter, (request, response) -> handled.incrementAndGet());
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(handled).hasValue(0);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(run(filter, (request, response) -> handled.incrementAndGet()).getStatus()).isEqualTo(200);
+        assertThat(handled).hasValue(1);
+    }
+
+    @Test
+    void waitingRequestIsAdmittedWhenAPermitFreesUpInTime() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, Duration.ofSeconds(5));
+        CountDownLatch inHandler = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> run(filter, (request, response) -> {
+            inHandler.countDown();
+            await(release);
+        }));
+        assertThat(inHandler.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<MockHttpServletResponse> waiting = executor.submit(() -> run(filter, (request, response) -> {
+        }));
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+        release.countDown();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void failedRequestReturnsItsPermit() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(1, Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> run(filter, (request, response) -> {
+            throw new ServletException("handler failed");
+        })).isInstanceOf(ServletException.class);
+
+        assertThat(run(filter, (request, response) -> {
+        }).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void limitMustBePositive() {
+        assertThatThrownBy(() -> new AdmissionControlFilter(0, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MockHttpServletResponse run(AdmissionControlFilter filter, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/accounts/1"), response, chain);
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}